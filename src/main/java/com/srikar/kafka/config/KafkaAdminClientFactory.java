@@ -58,7 +58,7 @@ public class KafkaAdminClientFactory {
         return AdminClient.create(cfg);
     }
 
-    private String resolveBootstrap(String bootstrapServers) {
+    public String resolveBootstrap(String bootstrapServers) {
         if (bootstrapServers != null && !bootstrapServers.isBlank()) {
             return bootstrapServers;
         }
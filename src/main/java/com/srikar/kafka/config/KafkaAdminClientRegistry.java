@@ -0,0 +1,269 @@
+package com.srikar.kafka.config;
+
+import com.srikar.kafka.entity.KafkaClusterEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.DisconnectException;
+import org.apache.kafka.common.errors.SslAuthenticationException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Long-lived AdminClient registry (one client per bootstrap string).
+ *
+ * Why:
+ * - Every AdminClient.create() pays a full mTLS handshake + metadata bootstrap.
+ * - AdminClient is thread-safe, so a single client per cluster can serve all requests.
+ *
+ * Lifecycle:
+ * - created lazily on first use
+ * - closed when idle longer than pool.idle-timeout-ms
+ * - closed when a periodic describeCluster() health check fails
+ * - closed immediately when a cluster's bootstrapServers change in DB
+ *
+ * NOTE: callers must NOT close the returned client.
+ */
+@Slf4j
+@Component
+public class KafkaAdminClientRegistry {
+
+    private final KafkaAdminClientFactory factory;
+    private final KafkaAdminProperties props;
+
+    // key = normalized bootstrap string
+    private final Map<String, Entry> clients = new ConcurrentHashMap<>();
+
+    // cluster id -> last bootstrap key seen for that cluster (detects bootstrap changes)
+    private final Map<UUID, String> clusterKeys = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter creates;
+    private final MeterRegistry meterRegistry;
+
+    public KafkaAdminClientRegistry(KafkaAdminClientFactory factory,
+                                    KafkaAdminProperties props,
+                                    MeterRegistry meterRegistry) {
+        this.factory = factory;
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+
+        this.hits = Counter.builder("oneinfra.kafka.admin.client.requests")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.creates = Counter.builder("oneinfra.kafka.admin.client.requests")
+                .tag("outcome", "create")
+                .register(meterRegistry);
+
+        Gauge.builder("oneinfra.kafka.admin.client.active", clients, Map::size)
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // Lookup
+    // -------------------------------------------------------
+
+    /**
+     * Client for a DB cluster. If the cluster's bootstrapServers changed since the last call,
+     * the previous client is closed right away instead of waiting for idle eviction.
+     */
+    public AdminClient forCluster(KafkaClusterEntity cluster) {
+        String key = keyOf(cluster.getBootstrapServers());
+
+        if (cluster.getId() != null) {
+            String previous = clusterKeys.put(cluster.getId(), key);
+            if (previous != null && !previous.equals(key)) {
+                log.info("Bootstrap changed for cluster={} ({} -> {}), recreating AdminClient",
+                        cluster.getName(), previous, key);
+                evict(previous, "bootstrap-changed");
+            }
+        }
+
+        return lookup(key);
+    }
+
+    /**
+     * Client for a raw bootstrap string (Redis-resolved or DB value).
+     * Blank falls back to oneinfra.kafka.admin.bootstrap-servers (same as the factory).
+     */
+    public AdminClient get(String bootstrapServers) {
+        return lookup(keyOf(bootstrapServers));
+    }
+
+    /**
+     * Callers report failures here; connectivity/TLS errors drop the client so the next call
+     * rebuilds it. API-level errors (unknown topic, etc.) keep the client.
+     */
+    public void reportFailure(String bootstrapServers, Throwable t) {
+        if (!isConnectivityFailure(t)) return;
+
+        String key;
+        try {
+            key = keyOf(bootstrapServers);
+        } catch (Exception e) {
+            return;
+        }
+        evict(key, "failure");
+    }
+
+    // -------------------------------------------------------
+    // Idle eviction + health check
+    // -------------------------------------------------------
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.pool.sweep-interval-ms:30000}",
+            fixedDelayString = "${oneinfra.kafka.admin.pool.sweep-interval-ms:30000}"
+    )
+    public void sweep() {
+        KafkaAdminProperties.Pool pool = props.getPool();
+        long now = System.nanoTime();
+        long idleNs = TimeUnit.MILLISECONDS.toNanos(pool.getIdleTimeoutMs());
+        long healthNs = TimeUnit.MILLISECONDS.toNanos(pool.getHealthCheckIntervalMs());
+
+        // 1) fire every due health check at once (describeCluster is async) ...
+        List<HealthCheck> checks = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : clients.entrySet()) {
+            String key = e.getKey();
+            Entry entry = e.getValue();
+
+            if (now - entry.lastUsedNs > idleNs) {
+                evict(key, "idle");
+                continue;
+            }
+
+            if (now - entry.lastCheckedNs > healthNs) {
+                try {
+                    checks.add(new HealthCheck(key, entry, entry.client.describeCluster().clusterId()));
+                } catch (Exception ex) {
+                    log.warn("AdminClient health check failed for bootstrap={}: {}", key, ex.toString());
+                    evict(key, entry, "unhealthy");
+                }
+            }
+        }
+
+        // 2) ... then collect them against one shared deadline, so an unreachable cluster costs the
+        // (shared) scheduler thread one health-check timeout per sweep, not one per client
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pool.getHealthCheckTimeoutMs());
+        for (HealthCheck check : checks) {
+            try {
+                check.clusterId().get(Math.max(0, deadlineNs - System.nanoTime()), TimeUnit.NANOSECONDS);
+                check.entry().lastCheckedNs = System.nanoTime();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.warn("AdminClient health check failed for bootstrap={}: {}", check.key(), ex.toString());
+                evict(check.key(), check.entry(), "unhealthy");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        clients.keySet().forEach(key -> evict(key, "shutdown"));
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private AdminClient lookup(String key) {
+        Entry existing = clients.get(key);
+        if (existing != null) {
+            existing.lastUsedNs = System.nanoTime();
+            hits.increment();
+            return existing.client;
+        }
+
+        Entry entry = clients.computeIfAbsent(key, k -> {
+            creates.increment();
+            log.info("Creating pooled AdminClient for bootstrap={}", k);
+            return new Entry(factory.create(k));
+        });
+        entry.lastUsedNs = System.nanoTime();
+        return entry.client;
+    }
+
+    private void evict(String key, String reason) {
+        Entry removed = clients.remove(key);
+        if (removed != null) close(key, removed, reason);
+    }
+
+    /** Only if key still maps to this client (it may have been rebuilt meanwhile). */
+    private void evict(String key, Entry expected, String reason) {
+        if (clients.remove(key, expected)) close(key, expected, reason);
+    }
+
+    private void close(String key, Entry removed, String reason) {
+
+        meterRegistry.counter("oneinfra.kafka.admin.client.evictions", "reason", reason).increment();
+        log.info("Closing pooled AdminClient bootstrap={} reason={}", key, reason);
+
+        // Close off the caller thread; in-flight calls get closeTimeoutMs to finish.
+        Duration closeTimeout = Duration.ofMillis(props.getPool().getCloseTimeoutMs());
+        CompletableFuture.runAsync(() -> {
+            try {
+                removed.client.close(closeTimeout);
+            } catch (Exception e) {
+                log.debug("AdminClient close failed for bootstrap={}", key, e);
+            }
+        });
+    }
+
+    /**
+     * Normalized key: resolved bootstrap, host:port entries trimmed + sorted,
+     * so "a:9093,b:9093" and "b:9093, a:9093" share one client.
+     */
+    private String keyOf(String bootstrapServers) {
+        String resolved = factory.resolveBootstrap(bootstrapServers);
+        return Arrays.stream(resolved.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private boolean isConnectivityFailure(Throwable t) {
+        while (t != null) {
+            if (t instanceof TimeoutException
+                    || t instanceof java.util.concurrent.TimeoutException
+                    || t instanceof DisconnectException
+                    || t instanceof SslAuthenticationException) {
+                return true;
+            }
+            t = t.getCause();
+        }
+        return false;
+    }
+
+    private static final class Entry {
+        private final AdminClient client;
+        private volatile long lastUsedNs;
+        private volatile long lastCheckedNs;
+
+        private Entry(AdminClient client) {
+            this.client = client;
+            long now = System.nanoTime();
+            this.lastUsedNs = now;
+            this.lastCheckedNs = now;
+        }
+    }
+
+    private record HealthCheck(String key, Entry entry, KafkaFuture<String> clusterId) {}
+}
@@ -1,10 +1,13 @@
 package com.srikar.kafka.config;
 
+import com.srikar.kafka.enums.ControlPlaneProbeMode;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @ConfigurationProperties(prefix = "oneinfra.kafka.admin")
@@ -30,6 +33,45 @@ public class KafkaAdminProperties {
     // ---- SSL / mTLS ----
     private Ssl ssl = new Ssl();
 
+    // ---- Pooled AdminClient registry ----
+    private Pool pool = new Pool();
+
+    // ---- Pooled console consumers (fetch / tail) ----
+    private ConsumerPool consumerPool = new ConsumerPool();
+
+    // ---- Shared producers (producer console) ----
+    private ProducerPool producerPool = new ProducerPool();
+
+    // ✅ Async publish (delivery tickets)
+    private AsyncPublish asyncPublish = new AsyncPublish();
+
+    // ---- Streaming tail (SSE) ----
+    private TailStream tailStream = new TailStream();
+
+    // ---- Streaming fetch (NDJSON) ----
+    private FetchStream fetchStream = new FetchStream();
+
+    // ✅ Offset-addressed cache for console reads (page / LAST_N)
+    private RecordCache recordCache = new RecordCache();
+
+    // ✅ Cursor paging (page-level prefetch cache)
+    private Paging paging = new Paging();
+
+    // ✅ Server-side message search (parallel partition scans)
+    private Search search = new Search();
+
+    // ✅ Payload decoders for console reads (schema registry backed)
+    private Decoders decoders = new Decoders();
+
+    // ✅ Built-in perf runs (producer load generator)
+    private Perf perf = new Perf();
+
+    // ---- Cluster overview fan-out ----
+    private Overview overview = new Overview();
+
+    // ---- KRaft control plane (per cluster) ----
+    private ControlPlane controlPlane = new ControlPlane();
+
     @Data
     public static class Ssl {
         /** "SSL" (your cluster is SSL-only) */
@@ -51,4 +93,291 @@ public class KafkaAdminProperties {
          */
         private String endpointIdentificationAlgorithm = "";
     }
+
+    @Data
+    public static class Pool {
+        /** Close a pooled AdminClient after this long without use */
+        private Long idleTimeoutMs = 600000L;
+
+        /** How often idle eviction + health checks run */
+        private Long sweepIntervalMs = 30000L;
+
+        /** describeCluster() probe interval for pooled clients */
+        private Long healthCheckIntervalMs = 60000L;
+        private Integer healthCheckTimeoutMs = 5000;
+
+        /** Grace period for in-flight calls when a client is evicted */
+        private Long closeTimeoutMs = 5000L;
+    }
+
+    @Data
+    public static class ConsumerPool {
+        /** Max consumers (idle + borrowed) per cluster */
+        private Integer maxPerCluster = 8;
+
+        /** Byte cap (key + value) for one fetch / tail response; request maxBytes is clamped to it */
+        private Long maxResponseBytes = 32L * 1024 * 1024;
+
+        /** Value preview length for list views (fetch / page / search); 0 = full values */
+        private Integer previewBytes = 1024;
+
+        /** Close an idle pooled consumer after this long */
+        private Long maxIdleMs = 300000L;
+
+        /** How long a request waits for a free consumer before failing */
+        private Long borrowTimeoutMs = 5000L;
+
+        private Long sweepIntervalMs = 30000L;
+    }
+
+    @Data
+    public static class ProducerPool {
+        /** Close a shared producer after this long without a publish */
+        private Long idleTimeoutMs = 1800000L;
+
+        /** How often producers are reconciled with DB (enabled / bootstrap) */
+        private Long reconcileIntervalMs = 60000L;
+
+        /** close() flush grace period */
+        private Long closeTimeoutMs = 5000L;
+
+        /** Batch publish producer: wait up to linger for full batches, compress per batch */
+        private Integer batchLingerMs = 20;
+        private Integer batchSizeBytes = 256 * 1024;
+        private String batchCompression = "lz4";
+
+        /** Per-request caps for batch publish */
+        private Integer maxBatchRecords = 10000;
+        private Long maxBatchBytes = 32L * 1024 * 1024;
+
+        /** Group commit: concurrent single publishes per cluster are collected for up to max-wait, then flushed together */
+        private Boolean groupCommit = true;
+        private Integer groupCommitMaxWaitMs = 5;
+        private Integer groupCommitMaxRecords = 500;
+        private Integer groupCommitQueueCapacity = 10000;
+
+        /** A cluster's dispatcher thread exits after this long without publishes (restarted on demand) */
+        private Long groupCommitLaneIdleMs = 60000L;
+    }
+
+    @Data
+    public static class AsyncPublish {
+        /** Sender threads (send() can block on metadata / full buffers, never on the request thread) */
+        private Integer threads = 4;
+        private Integer queueCapacity = 1000;
+
+        /** Tickets held in memory (pending + resolved); submits beyond this are rejected */
+        private Integer maxTickets = 10000;
+
+        /** Resolved tickets stay queryable for this long (memory and Redis) */
+        private Long ticketTtlMs = 300000L;
+        private Long sweepIntervalMs = 60000L;
+
+        /** Mirror tickets to Redis so any instance can answer a poll */
+        private Boolean redis = true;
+    }
+
+    @Data
+    public static class TailStream {
+        /** Concurrent streaming tail sessions (one sender thread each) */
+        private Integer maxSessions = 32;
+
+        /** Close a session after this long without new records */
+        private Long idleTimeoutMs = 300000L;
+
+        /** Hard cap on a session's lifetime */
+        private Long maxLifetimeMs = 3600000L;
+
+        /** Heartbeat event while no records arrive (also detects closed clients) */
+        private Long heartbeatIntervalMs = 15000L;
+
+        /** Per-viewer ring buffer on a shared tail channel; oldest records are dropped beyond this */
+        private Integer subscriberBufferSize = 2000;
+    }
+
+    @Data
+    public static class FetchStream {
+        /** Server-side caps; request budgets are clamped to these */
+        private Long maxRecords = 1_000_000L;
+        private Long maxBytes = 512L * 1024 * 1024;
+        private Long maxDurationMs = 300000L;
+
+        /** Concurrent streaming fetches (each holds one dedicated consumer) */
+        private Integer maxConcurrent = 4;
+    }
+
+    @Data
+    public static class RecordCache {
+        private Boolean enabled = true;
+
+        /** Total budget (key + value + headers + overhead), LRU-evicted beyond this */
+        private Long maxBytes = 256L * 1024 * 1024;
+
+        /** Larger contiguous windows are not cached at all */
+        private Long maxSegmentBytes = 32L * 1024 * 1024;
+
+        /** Bounds staleness if a topic is deleted and recreated outside the console */
+        private Long ttlMs = 600000L;
+    }
+
+    @Data
+    public static class Paging {
+        private Integer maxPageSize = 500;
+
+        /** Load the following page in the background after each page */
+        private Boolean prefetch = true;
+        private Integer prefetchThreads = 2;
+        private Integer prefetchQueueCapacity = 16;
+
+        /** Prefetched pages expire after this (also the sweep interval) */
+        private Long prefetchTtlMs = 30000L;
+        private Integer prefetchMaxEntries = 256;
+
+        /** Console consumers per cluster prefetch never takes (kept free for interactive reads) */
+        private Integer prefetchReservedConsumers = 2;
+    }
+
+    @Data
+    public static class Search {
+        /** Scanner threads shared by all search jobs (one dedicated consumer per partition group) */
+        private Integer threads = 8;
+
+        /** Max partition groups per job; partitions are spread round-robin across them */
+        private Integer maxGroupsPerJob = 4;
+
+        /** Concurrently running jobs; further starts are rejected */
+        private Integer maxConcurrentJobs = 4;
+
+        /** Server-side caps; request limit / budgets are clamped to these */
+        private Integer maxLimit = 1000;
+        private Long maxScanBytes = 10L * 1024 * 1024 * 1024;
+        private Long maxDurationMs = 300000L;
+
+        /** Finished jobs stay queryable for this long */
+        private Long jobTtlMs = 600000L;
+        private Long sweepIntervalMs = 60000L;
+    }
+
+    @Data
+    public static class Decoders {
+        /** Compiled decoders kept per schema fingerprint (LRU beyond this) */
+        private Integer maxCompiled = 256;
+
+        /** Topic → registry subject lookups are reused for this long */
+        private Long subjectTtlMs = 30000L;
+
+        /** Per-topic default when a request sends no decoder (topic name → NONE / AUTO / UTF8 / JSON / AVRO / PROTOBUF) */
+        private Map<String, String> topics = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Perf {
+        /** Concurrent runs (each holds one dedicated client + thread); further starts are rejected */
+        private Integer maxConcurrentRuns = 1;
+
+        /** Server-side caps; requests are clamped to these */
+        private Long maxDurationMs = 600000L;
+        private Integer maxRecordSize = 1024 * 1024;
+
+        /** Parallel consumers per consumer run (each is a dedicated client + worker thread) */
+        private Integer maxConsumersPerRun = 8;
+
+        /** Finished runs stay in memory this long (history is in the DB) */
+        private Long runTtlMs = 3600000L;
+        private Long sweepIntervalMs = 60000L;
+    }
+
+    @Data
+    public static class Overview {
+        /** Threads probing clusters in parallel */
+        private Integer probeThreads = 8;
+
+        /** Pending probes beyond this are rejected (reported as UNKNOWN) */
+        private Integer probeQueueCapacity = 64;
+
+        /** Overall budget for the overview request; unfinished clusters are marked timed-out */
+        private Long deadlineMs = 8000L;
+
+        /** Background health monitor probe interval */
+        private Long monitorIntervalMs = 15000L;
+
+        /** Snapshot older than this is served but refreshed in the background */
+        private Long staleAfterMs = 45000L;
+    }
+
+    @Data
+    public static class ControlPlane {
+        /** Used for any cluster without an entry in clusters (LAB: one bare-metal controller) */
+        private Endpoint defaults = Endpoint.lab();
+
+        /** Per-cluster overrides keyed by cluster name (case-insensitive); unset fields fall back to defaults */
+        private Map<String, Endpoint> clusters = new LinkedHashMap<>();
+
+        /** Close a pooled JMX connector after this long without use */
+        private Long jmxIdleTimeoutMs = 600000L;
+
+        /** How often idle JMX connectors are swept */
+        private Long jmxSweepIntervalMs = 30000L;
+
+        /** ADMIN quorum health: a voter is caught up within this many offsets of the leader ... */
+        private Long maxFollowerLag = 1000L;
+
+        /** ... and if it fetched from the leader within this window */
+        private Long maxFetchAgeMs = 10000L;
+
+        public Endpoint forCluster(String clusterName) {
+            Endpoint override = null;
+            if (clusterName != null) {
+                for (Map.Entry<String, Endpoint> e : clusters.entrySet()) {
+                    if (e.getKey().equalsIgnoreCase(clusterName)) {
+                        override = e.getValue();
+                        break;
+                    }
+                }
+            }
+            return override == null ? defaults : override.withDefaults(defaults);
+        }
+    }
+
+    @Data
+    public static class Endpoint {
+        private String nodeLabel;        // "oneinfra-host"
+        private Integer quorumNodeId;    // 0
+        private String listener;         // controller listener host:port
+        private String jmxHost;
+        private Integer jmxPort;
+        private String mode;             // "SINGLE_NODE_QUORUM"
+
+        /** ADMIN = describeMetadataQuorum, JMX = raft-metrics over RMI */
+        private ControlPlaneProbeMode probeMode;
+
+        /** ADMIN mode only: try JMX when the Admin API probe fails */
+        private Boolean jmxFallback;
+
+        static Endpoint lab() {
+            Endpoint e = new Endpoint();
+            e.setNodeLabel("oneinfra-host");
+            e.setQuorumNodeId(0);
+            e.setListener("192.168.66.1:9093");
+            e.setJmxHost("192.168.66.1");
+            e.setJmxPort(9999);
+            e.setMode("SINGLE_NODE_QUORUM");
+            e.setProbeMode(ControlPlaneProbeMode.ADMIN);
+            e.setJmxFallback(true);
+            return e;
+        }
+
+        Endpoint withDefaults(Endpoint d) {
+            Endpoint e = new Endpoint();
+            e.setNodeLabel(nodeLabel != null ? nodeLabel : d.getNodeLabel());
+            e.setQuorumNodeId(quorumNodeId != null ? quorumNodeId : d.getQuorumNodeId());
+            e.setListener(listener != null ? listener : d.getListener());
+            e.setJmxHost(jmxHost != null ? jmxHost : d.getJmxHost());
+            e.setJmxPort(jmxPort != null ? jmxPort : d.getJmxPort());
+            e.setMode(mode != null ? mode : d.getMode());
+            e.setProbeMode(probeMode != null ? probeMode : d.getProbeMode());
+            e.setJmxFallback(jmxFallback != null ? jmxFallback : d.getJmxFallback());
+            return e;
+        }
+    }
 }
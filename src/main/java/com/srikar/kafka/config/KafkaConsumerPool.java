@@ -0,0 +1,403 @@
+package com.srikar.kafka.config;
+
+import com.srikar.kafka.bootstrap.KafkaBootstrapResolver;
+import com.srikar.kafka.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.config.SslConfigs;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded per-cluster pool of byte-array consumers for the console (fetch / tail).
+ *
+ * Consumers are created WITHOUT a group.id: callers always assign() + seek() manually,
+ * so no group coordination or commits happen. A borrowed consumer is exclusively owned
+ * by one thread until the lease is closed (KafkaConsumer is not thread-safe).
+ *
+ * On return the consumer is unsubscribed (drops positions + buffered records) and kept
+ * connected for the next borrower. Idle consumers are closed after consumer-pool.max-idle-ms.
+ *
+ * fetch.max.bytes / max.partition.fetch.bytes are fixed per consumer, so idle consumers are
+ * kept per FetchSize bucket; borrow(cluster, FetchSize.forBudget(maxBytes)) gets one sized for
+ * the caller's byte budget. The per-cluster cap is shared by all buckets.
+ *
+ * Usage:
+ *
+ *   KafkaConsumerPool.Lease lease = consumerPool.borrow(clusterName);
+ *   try {
+ *       KafkaConsumer<byte[], byte[]> c = lease.consumer();
+ *       ...
+ *   } catch (Exception e) {
+ *       lease.invalidate();   // don't hand a possibly broken consumer to the next caller
+ *       throw ...;
+ *   } finally {
+ *       lease.close();
+ *   }
+ */
+@Slf4j
+@Component
+public class KafkaConsumerPool {
+
+    private final KafkaBootstrapResolver bootstrapResolver;
+    private final KafkaAdminProperties props;
+
+    // key = lower-cased cluster name
+    private final Map<String, ClusterPool> pools = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter creates;
+    private final Counter evictions;
+
+    public KafkaConsumerPool(KafkaBootstrapResolver bootstrapResolver,
+                             KafkaAdminProperties props,
+                             MeterRegistry meterRegistry) {
+        this.bootstrapResolver = bootstrapResolver;
+        this.props = props;
+
+        this.hits = Counter.builder("oneinfra.kafka.console.consumer.borrows")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.creates = Counter.builder("oneinfra.kafka.console.consumer.borrows")
+                .tag("outcome", "create")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("oneinfra.kafka.console.consumer.evictions")
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // Borrow / return
+    // -------------------------------------------------------
+
+    public Lease borrow(String clusterName) {
+        return borrow(clusterName, FetchSize.DEFAULT);
+    }
+
+    /** @throws ServiceBusyException no consumer freed up within consumer-pool.borrow-timeout-ms (503, retryable) */
+    public Lease borrow(String clusterName, FetchSize fetchSize) {
+        String bootstrap = bootstrapResolver.resolve(clusterName); // Redis-first
+        ClusterPool pool = poolFor(clusterName, bootstrap);
+
+        KafkaAdminProperties.ConsumerPool cfg = props.getConsumerPool();
+        boolean acquired;
+        try {
+            acquired = pool.permits.tryAcquire(cfg.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a console consumer", e);
+        }
+        if (!acquired) {
+            throw new ServiceBusyException(
+                    "Console consumer pool exhausted for cluster " + clusterName
+                            + " (max " + cfg.getMaxPerCluster() + " in use)");
+        }
+
+        return lease(pool, bootstrap, fetchSize);
+    }
+
+    /**
+     * Background borrow (page prefetch): never waits, and only while more than {@code reserve}
+     * consumers are free, so interactive requests can't be starved by it.
+     *
+     * @return null when the pool is that busy (caller skips the work)
+     */
+    public Lease tryBorrow(String clusterName, int reserve) {
+        String bootstrap = bootstrapResolver.resolve(clusterName); // Redis-first
+        ClusterPool pool = poolFor(clusterName, bootstrap);
+
+        if (pool.permits.availablePermits() <= Math.max(0, reserve) || !pool.permits.tryAcquire()) {
+            return null;
+        }
+        return lease(pool, bootstrap, FetchSize.DEFAULT);
+    }
+
+    /** Caller holds a permit; released here on failure. */
+    private Lease lease(ClusterPool pool, String bootstrap, FetchSize fetchSize) {
+        try {
+            Idle idle = pool.idle(fetchSize).pollFirst();
+            if (idle != null) {
+                hits.increment();
+                return new Lease(pool, fetchSize, idle.consumer);
+            }
+
+            creates.increment();
+            return new Lease(pool, fetchSize, create(bootstrap, fetchSize));
+
+        } catch (RuntimeException e) {
+            pool.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Unpooled consumer with the same config, for long-lived sessions (streaming tail) that
+     * would otherwise hold a pool permit for minutes. Caller owns it and must close it.
+     */
+    public KafkaConsumer<byte[], byte[]> openDedicated(String clusterName) {
+        String bootstrap = bootstrapResolver.resolve(clusterName); // Redis-first
+        creates.increment();
+        return create(bootstrap, FetchSize.DEFAULT);
+    }
+
+    private void giveBack(ClusterPool pool, FetchSize fetchSize,
+                          KafkaConsumer<byte[], byte[]> consumer, boolean broken) {
+        try {
+            if (!broken && !pool.retired) {
+                try {
+                    consumer.unsubscribe();   // also clears manual assign() + positions
+                    Idle idle = new Idle(consumer, System.nanoTime());
+                    Deque<Idle> bucket = pool.idle(fetchSize);
+                    bucket.offerFirst(idle);
+
+                    // retired concurrently → make sure it doesn't linger in a dropped pool
+                    if (pool.retired && bucket.remove(idle)) {
+                        closeQuietly(consumer);
+                    }
+                    return;
+                } catch (Exception e) {
+                    log.debug("Console consumer reset failed, closing it", e);
+                }
+            }
+            closeQuietly(consumer);
+        } finally {
+            pool.permits.release();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Idle eviction
+    // -------------------------------------------------------
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.consumer-pool.sweep-interval-ms:30000}",
+            fixedDelayString = "${oneinfra.kafka.admin.consumer-pool.sweep-interval-ms:30000}"
+    )
+    public void sweep() {
+        long maxIdleNs = TimeUnit.MILLISECONDS.toNanos(props.getConsumerPool().getMaxIdleMs());
+        long now = System.nanoTime();
+
+        for (ClusterPool pool : pools.values()) {
+            for (Deque<Idle> bucket : pool.idle.values()) {
+                Iterator<Idle> it = bucket.iterator();
+                while (it.hasNext()) {
+                    Idle idle = it.next();
+                    if (now - idle.since > maxIdleNs && bucket.remove(idle)) {
+                        evictions.increment();
+                        closeQuietly(idle.consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        pools.values().forEach(this::retire);
+        pools.clear();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    /**
+     * Pool per cluster. If the resolved bootstrap changed, the old pool is retired:
+     * its idle consumers are closed now, borrowed ones are closed when returned.
+     */
+    private ClusterPool poolFor(String clusterName, String bootstrap) {
+        String key = clusterName.trim().toLowerCase(Locale.ROOT);
+
+        ClusterPool current = pools.get(key);
+        if (current != null && current.bootstrap.equals(bootstrap)) return current;
+
+        ClusterPool fresh = new ClusterPool(bootstrap, props.getConsumerPool().getMaxPerCluster());
+        ClusterPool winner = pools.compute(key, (k, existing) ->
+                (existing != null && existing.bootstrap.equals(bootstrap)) ? existing : fresh);
+
+        if (current != null && winner != current) {
+            log.info("Bootstrap changed for cluster={}, retiring console consumer pool", clusterName);
+            retire(current);
+        }
+        return winner;
+    }
+
+    private void retire(ClusterPool pool) {
+        pool.retired = true;
+        for (Deque<Idle> bucket : pool.idle.values()) {
+            Idle idle;
+            while ((idle = bucket.pollFirst()) != null) {
+                evictions.increment();
+                closeQuietly(idle.consumer);
+            }
+        }
+    }
+
+    private KafkaConsumer<byte[], byte[]> create(String bootstrap, FetchSize fetchSize) {
+
+        int timeoutMs = safeTimeoutMsInt();
+
+        Properties p = new Properties();
+
+        // ----------------------------
+        // Core consumer config
+        // ----------------------------
+        p.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        p.put(ConsumerConfig.CLIENT_ID_CONFIG, "oneinfra-ui-console-" + UUID.randomUUID());
+
+        // No group.id: manual assign + seek only, nothing is ever committed.
+        p.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+
+        // Read bytes (services base64 encode to UI)
+        p.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        p.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+
+        // Safety limits (callers cap per-request counts themselves)
+        p.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, timeoutMs);
+        p.put(ConsumerConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, timeoutMs);
+        p.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+
+        // Fetch sizing: small byte budgets shouldn't pull 50 MB per fetch (broker still returns
+        // at least one batch if a single record is larger, so progress is guaranteed)
+        if (fetchSize.fetchMaxBytes != null) {
+            p.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, fetchSize.fetchMaxBytes);
+            p.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, fetchSize.partitionFetchBytes);
+        }
+
+        // ----------------------------
+        // SSL / mTLS
+        // ----------------------------
+        KafkaAdminProperties.Ssl ssl = props.getSsl();
+        if (ssl == null) {
+            throw new IllegalStateException("Kafka SSL settings are missing (props.getSsl() == null)");
+        }
+
+        p.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, ssl.getSecurityProtocol()); // "SSL"
+
+        p.put(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, ssl.getTruststoreLocation());
+        p.put(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, ssl.getTruststorePassword());
+        p.put(SslConfigs.SSL_TRUSTSTORE_TYPE_CONFIG, ssl.getTruststoreType());
+
+        p.put(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG, ssl.getKeystoreLocation());
+        p.put(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, ssl.getKeystorePassword());
+        p.put(SslConfigs.SSL_KEYSTORE_TYPE_CONFIG, ssl.getKeystoreType());
+        p.put(SslConfigs.SSL_KEY_PASSWORD_CONFIG, ssl.getKeyPassword());
+
+        // IP brokers → disable hostname verification
+        p.put(SslConfigs.SSL_ENDPOINT_IDENTIFICATION_ALGORITHM_CONFIG,
+                ssl.getEndpointIdentificationAlgorithm() == null ? "" : ssl.getEndpointIdentificationAlgorithm());
+
+        return new KafkaConsumer<>(p);
+    }
+
+    private int safeTimeoutMsInt() {
+        Integer ms = props.getDefaultApiTimeoutMs();
+        return (ms == null || ms < 1000) ? 15000 : ms;
+    }
+
+    private void closeQuietly(KafkaConsumer<byte[], byte[]> consumer) {
+        try {
+            consumer.close(Duration.ofSeconds(2));
+        } catch (Exception e) {
+            log.debug("Console consumer close failed", e);
+        }
+    }
+
+    private static final class ClusterPool {
+        private final String bootstrap;
+        private final Semaphore permits;
+        private final Map<FetchSize, Deque<Idle>> idle = new ConcurrentHashMap<>();
+        private volatile boolean retired;
+
+        private ClusterPool(String bootstrap, int maxPerCluster) {
+            this.bootstrap = bootstrap;
+            this.permits = new Semaphore(Math.max(1, maxPerCluster));
+        }
+
+        private Deque<Idle> idle(FetchSize fetchSize) {
+            return idle.computeIfAbsent(fetchSize, k -> new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    /**
+     * Consumer fetch sizing buckets (fetch.max.bytes / max.partition.fetch.bytes).
+     * DEFAULT keeps the Kafka client defaults (50 MB / 1 MB).
+     */
+    public enum FetchSize {
+        TINY(64 * 1024, 64 * 1024),
+        SMALL(256 * 1024, 256 * 1024),
+        MEDIUM(1024 * 1024, 1024 * 1024),
+        LARGE(8 * 1024 * 1024, 4 * 1024 * 1024),
+        DEFAULT(null, null);
+
+        private final Integer fetchMaxBytes;
+        private final Integer partitionFetchBytes;
+
+        FetchSize(Integer fetchMaxBytes, Integer partitionFetchBytes) {
+            this.fetchMaxBytes = fetchMaxBytes;
+            this.partitionFetchBytes = partitionFetchBytes;
+        }
+
+        /** Smallest bucket whose fetch.max.bytes covers the budget. */
+        public static FetchSize forBudget(Long maxBytes) {
+            if (maxBytes == null) return DEFAULT;
+            for (FetchSize f : values()) {
+                if (f.fetchMaxBytes != null && maxBytes <= f.fetchMaxBytes) return f;
+            }
+            return DEFAULT;
+        }
+    }
+
+    private record Idle(KafkaConsumer<byte[], byte[]> consumer, long since) {}
+
+    /**
+     * Exclusive handle on a pooled consumer. close() returns it to the pool.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final ClusterPool pool;
+        private final FetchSize fetchSize;
+        private final KafkaConsumer<byte[], byte[]> consumer;
+        private boolean broken;
+        private boolean closed;
+
+        private Lease(ClusterPool pool, FetchSize fetchSize, KafkaConsumer<byte[], byte[]> consumer) {
+            this.pool = pool;
+            this.fetchSize = fetchSize;
+            this.consumer = consumer;
+        }
+
+        public KafkaConsumer<byte[], byte[]> consumer() {
+            return consumer;
+        }
+
+        /** Close the consumer instead of returning it (call after unexpected errors). */
+        public void invalidate() {
+            this.broken = true;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            giveBack(pool, fetchSize, consumer, broken);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.srikar.kafka.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for per-cluster probes (overview health / control plane).
+ *
+ * - fixed number of daemon threads (overview.probe-threads)
+ * - bounded queue (overview.probe-queue-capacity); when full, submit() returns a failed
+ *   future instead of piling up work behind a dead cluster
+ *
+ * Callers own the deadline: they wait on the returned futures with their own budget
+ * and cancel what did not finish.
+ */
+@Slf4j
+@Component
+public class KafkaProbeExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public KafkaProbeExecutor(KafkaAdminProperties props) {
+        KafkaAdminProperties.Overview cfg = props.getOverview();
+        int threads = Math.max(1, cfg.getProbeThreads());
+
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, cfg.getProbeQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "kafka-probe-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (Exception e) {
+            // RejectedExecutionException → caller treats it like any other failed probe
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,344 @@
+package com.srikar.kafka.config;
+
+import com.srikar.kafka.bootstrap.KafkaBootstrapResolver;
+import com.srikar.kafka.db.KafkaClusterRepository;
+import com.srikar.kafka.entity.KafkaClusterEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.errors.AuthenticationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.errors.UnsupportedVersionException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Long-lived, shared KafkaProducer per (cluster, profile).
+ *
+ * KafkaProducer is thread-safe, so one instance serves every publish for a cluster:
+ * no producer-id allocation, TLS handshake or metadata fetch per message.
+ *
+ * Lifecycle:
+ * - created lazily from KafkaClientPropertiesFactory.base(clusterName)
+ * - recreated when the resolved bootstrap for the cluster changes
+ * - closed (and refused) when the cluster is disabled / removed in DB (periodic reconcile)
+ * - closed after producer-pool.idle-timeout-ms without use
+ *
+ * NOTE: callers must NOT close the returned producer.
+ */
+@Slf4j
+@Component
+public class KafkaProducerRegistry {
+
+    /**
+     * Delivery profile. Producers with different profiles are separate instances
+     * because acks / idempotence / batching are producer-level configs.
+     */
+    public record Profile(String acks, boolean idempotence, int lingerMs, int batchSize, String compression) {
+
+        /** Default console profile: acks=all + idempotent, no linger (single publishes) */
+        public static final Profile RELIABLE = new Profile("all", true, 0, 16384, "none");
+
+        /**
+         * Group commit: same delivery guarantees; the pipeline flushes each collected group itself,
+         * linger only keeps the group from leaving half-built
+         */
+        public static Profile groupCommit(KafkaAdminProperties.ProducerPool cfg) {
+            return new Profile("all", true, Math.max(1, cfg.getGroupCommitMaxWaitMs()), cfg.getBatchSizeBytes(), "none");
+        }
+
+        /** Bulk publish: same delivery guarantees, records batched (producer-pool.batch-*) */
+        public static Profile bulk(KafkaAdminProperties.ProducerPool cfg) {
+            return new Profile("all", true, cfg.getBatchLingerMs(), cfg.getBatchSizeBytes(), cfg.getBatchCompression());
+        }
+    }
+
+    private final KafkaClientPropertiesFactory clientProps;
+    private final KafkaBootstrapResolver bootstrapResolver;
+    private final KafkaClusterRepository clusterRepo;
+    private final KafkaAdminProperties props;
+
+    private final Map<Key, Entry> producers = new ConcurrentHashMap<>();
+
+    // lower-cased names of clusters known to be disabled in DB (refreshed by reconcile())
+    private volatile Set<String> disabledClusters = Set.of();
+
+    private final Counter hits;
+    private final Counter creates;
+    private final MeterRegistry meterRegistry;
+
+    public KafkaProducerRegistry(KafkaClientPropertiesFactory clientProps,
+                                 KafkaBootstrapResolver bootstrapResolver,
+                                 KafkaClusterRepository clusterRepo,
+                                 KafkaAdminProperties props,
+                                 MeterRegistry meterRegistry) {
+        this.clientProps = clientProps;
+        this.bootstrapResolver = bootstrapResolver;
+        this.clusterRepo = clusterRepo;
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+
+        this.hits = Counter.builder("oneinfra.kafka.producer.requests")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.creates = Counter.builder("oneinfra.kafka.producer.requests")
+                .tag("outcome", "create")
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // Lookup
+    // -------------------------------------------------------
+
+    public KafkaProducer<byte[], byte[]> get(String clusterName, Profile profile) {
+        String cluster = normalize(clusterName);
+        if (disabledClusters.contains(cluster)) {
+            throw new IllegalStateException("Cluster is disabled: " + clusterName);
+        }
+
+        String bootstrap = bootstrapResolver.resolve(clusterName); // Redis-first
+        Key key = new Key(cluster, profile);
+
+        Entry existing = producers.get(key);
+        if (existing != null && existing.bootstrap.equals(bootstrap)) {
+            existing.lastUsedNs = System.nanoTime();
+            hits.increment();
+            return existing.producer;
+        }
+
+        Entry entry = producers.compute(key, (k, current) -> {
+            if (current != null && current.bootstrap.equals(bootstrap)) return current;
+            if (current != null) {
+                log.info("Bootstrap changed for cluster={}, recreating producer", clusterName);
+                closeAsync(current, "bootstrap-changed");
+            }
+            creates.increment();
+            return new Entry(create(clusterName, profile), bootstrap);
+        });
+        entry.lastUsedNs = System.nanoTime();
+        return entry.producer;
+    }
+
+    /**
+     * Unpooled producer with its own profile, for jobs that must not share batching / acks with
+     * console traffic (perf runs). Caller owns it and must close it.
+     */
+    public KafkaProducer<byte[], byte[]> openDedicated(String clusterName, Profile profile) {
+        if (disabledClusters.contains(normalize(clusterName))) {
+            throw new IllegalStateException("Cluster is disabled: " + clusterName);
+        }
+        creates.increment();
+        return create(clusterName, profile);
+    }
+
+    /**
+     * Callers report send failures here; fatal producer errors drop the instance
+     * so the next publish builds a fresh one.
+     */
+    public void reportFailure(String clusterName, Profile profile, Throwable t) {
+        if (!isFatal(t)) return;
+        Entry removed = producers.remove(new Key(normalize(clusterName), profile));
+        if (removed != null) closeAsync(removed, "fatal-error");
+    }
+
+    // -------------------------------------------------------
+    // Reconcile with DB + idle eviction
+    // -------------------------------------------------------
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.producer-pool.reconcile-interval-ms:60000}",
+            fixedDelayString = "${oneinfra.kafka.admin.producer-pool.reconcile-interval-ms:60000}"
+    )
+    public void reconcile() {
+        Map<String, KafkaClusterEntity> byName;
+        try {
+            byName = clusterRepo.findAllByOrderByNameAsc().stream()
+                    .collect(Collectors.toMap(c -> normalize(c.getName()), c -> c, (a, b) -> a));
+        } catch (Exception e) {
+            log.debug("Producer reconcile skipped (cluster lookup failed)", e);
+            return;
+        }
+
+        disabledClusters = byName.entrySet().stream()
+                .filter(e -> !e.getValue().isEnabled())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+
+        long idleNs = TimeUnit.MILLISECONDS.toNanos(props.getProducerPool().getIdleTimeoutMs());
+        long now = System.nanoTime();
+
+        for (Map.Entry<Key, Entry> e : producers.entrySet()) {
+            KafkaClusterEntity cluster = byName.get(e.getKey().cluster());
+
+            String reason = null;
+            if (cluster == null) reason = "cluster-removed";
+            else if (!cluster.isEnabled()) reason = "cluster-disabled";
+            else if (bootstrapChanged(cluster.getName(), e.getValue().bootstrap)) reason = "bootstrap-changed";
+            else if (now - e.getValue().lastUsedNs > idleNs) reason = "idle";
+
+            if (reason != null && producers.remove(e.getKey(), e.getValue())) {
+                closeAsync(e.getValue(), reason);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        producers.forEach((k, v) -> {
+            try {
+                v.producer.close(Duration.ofMillis(props.getProducerPool().getCloseTimeoutMs()));
+            } catch (Exception e) {
+                log.debug("Producer close failed for cluster={}", k.cluster(), e);
+            }
+        });
+        producers.clear();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private KafkaProducer<byte[], byte[]> create(String clusterName, Profile profile) {
+
+        int timeoutMs = safeTimeoutMsInt();
+
+        // ✅ base includes bootstrap + SSL/mTLS + endpoint identification algo
+        Properties p = clientProps.base(clusterName);
+
+        // ----------------------------
+        // Producer-specific core
+        // ----------------------------
+        p.put(ProducerConfig.CLIENT_ID_CONFIG, "oneinfra-ui-producer-" + UUID.randomUUID());
+        p.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        p.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+
+        // ----------------------------
+        // Reliability (per profile)
+        // ----------------------------
+        p.put(ProducerConfig.ACKS_CONFIG, profile.acks());
+        p.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, profile.idempotence());
+        p.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+
+        // ----------------------------
+        // Batching (per profile)
+        // ----------------------------
+        p.put(ProducerConfig.LINGER_MS_CONFIG, profile.lingerMs());
+        p.put(ProducerConfig.BATCH_SIZE_CONFIG, profile.batchSize());
+        p.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.compression());
+
+        // ----------------------------
+        // Prevent hanging forever (Kafka expects Integer)
+        // ----------------------------
+        p.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, timeoutMs);
+        // client rejects delivery.timeout.ms < linger.ms + request.timeout.ms
+        p.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, timeoutMs + profile.lingerMs());
+        p.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, timeoutMs);
+
+        log.info("Creating shared producer for cluster={} acks={} idempotence={} linger={}ms batch={} compression={}",
+                clusterName, profile.acks(), profile.idempotence(), profile.lingerMs(), profile.batchSize(),
+                profile.compression());
+
+        return new KafkaProducer<>(p);
+    }
+
+    private void closeAsync(Entry entry, String reason) {
+        meterRegistry.counter("oneinfra.kafka.producer.evictions", "reason", reason).increment();
+
+        // close() flushes pending sends; keep it off the request thread
+        Duration closeTimeout = Duration.ofMillis(props.getProducerPool().getCloseTimeoutMs());
+        CompletableFuture.runAsync(() -> {
+            try {
+                entry.producer.close(closeTimeout);
+            } catch (Exception e) {
+                log.debug("Producer close failed (reason={})", reason, e);
+            }
+        });
+    }
+
+    /**
+     * Same source as get() (Redis-first resolver): comparing with the DB row would close the producer
+     * every run while the Redis entry is stale, only for get() to rebuild it from Redis.
+     */
+    private boolean bootstrapChanged(String clusterName, String current) {
+        try {
+            return !sameServers(bootstrapResolver.resolve(clusterName), current);
+        } catch (Exception e) {
+            log.debug("Bootstrap lookup failed for cluster={}, keeping producer", clusterName, e);
+            return false;
+        }
+    }
+
+    private boolean isFatal(Throwable t) {
+        while (t != null) {
+            if (t instanceof ProducerFencedException
+                    || t instanceof OutOfOrderSequenceException
+                    || t instanceof AuthenticationException
+                    || t instanceof UnsupportedVersionException
+                    || isProducerClosed(t)) {
+                return true;
+            }
+            t = t.getCause();
+        }
+        return false;
+    }
+
+    /** KafkaProducer's "Cannot perform operation after producer has been closed"; other ISEs aren't about the producer. */
+    private static boolean isProducerClosed(Throwable t) {
+        if (!(t instanceof IllegalStateException)) return false;
+        String m = t.getMessage() == null ? "" : t.getMessage().toLowerCase(Locale.ROOT);
+        return m.contains("producer") && m.contains("closed");
+    }
+
+    private boolean sameServers(String a, String b) {
+        return normalizeServers(a).equals(normalizeServers(b));
+    }
+
+    private String normalizeServers(String servers) {
+        if (servers == null) return "";
+        return Arrays.stream(servers.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private String normalize(String clusterName) {
+        return clusterName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int safeTimeoutMsInt() {
+        Integer ms = props.getDefaultApiTimeoutMs();
+        int resolved = (ms == null || ms < 1000) ? 15000 : ms;
+        return Math.max(resolved, 1000);
+    }
+
+    private record Key(String cluster, Profile profile) {}
+
+    private static final class Entry {
+        private final KafkaProducer<byte[], byte[]> producer;
+        private final String bootstrap;
+        private volatile long lastUsedNs = System.nanoTime();
+
+        private Entry(KafkaProducer<byte[], byte[]> producer, String bootstrap) {
+            this.producer = producer;
+            this.bootstrap = bootstrap;
+        }
+    }
+}
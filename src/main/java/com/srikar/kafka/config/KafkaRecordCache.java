@@ -0,0 +1,318 @@
+package com.srikar.kafka.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offset-addressed cache of console reads.
+ *
+ * A record at (topic, partition, offset) never changes, so fully-read offset ranges are kept as
+ * segments [from, to) per (cluster, topic, partition) and later reads of a covered range
+ * (page flips, several operators on the same window) are answered without a broker fetch.
+ *
+ * - byte budget (record-cache.max-bytes) with LRU eviction across all segments
+ * - a range is a hit only if adjacent cached segments cover it completely (gaps = miss)
+ * - segments expire after record-cache.ttl-ms: a deleted + recreated topic restarts its
+ *   offsets, and out-of-band recreates can't be observed here (console deletes call invalidate)
+ *
+ * Populated by every bounded console read: fetch from EARLIEST / OFFSET / TIMESTAMP / LAST_N
+ * ([position, min(end, position + maxMessages)) per partition), pages, single-record reads, and
+ * the contiguous range each tail poll returns. Fetch and pages consult it before polling.
+ * LATEST fetches wait for records not written yet, so there is nothing to look up for them.
+ * Bulk readers (search, streaming fetch, SSE tail) don't use it: one scan would flush everything.
+ */
+@Slf4j
+@Component
+public class KafkaRecordCache {
+
+    private static final int RECORD_OVERHEAD_BYTES = 96;
+
+    private final KafkaAdminProperties props;
+
+    // partition → segments by start offset
+    private final Map<PartitionKey, TreeMap<Long, Segment>> partitions = new HashMap<>();
+    // LRU over all segments (access order)
+    private final LinkedHashMap<Segment, Boolean> lru = new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public KafkaRecordCache(KafkaAdminProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+
+        this.hits = Counter.builder("oneinfra.kafka.console.record.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("oneinfra.kafka.console.record.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("oneinfra.kafka.console.record.cache.evictions")
+                .register(meterRegistry);
+        Gauge.builder("oneinfra.kafka.console.record.cache.bytes", bytes, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // Cache-through range read
+    // -------------------------------------------------------
+
+    /**
+     * Reads every [from, to) range (long[]{from, to} per partition): covered ranges come from
+     * the cache, the rest is polled on the given (caller-owned) consumer until each partition's
+     * position reaches its end or the deadline passes. Completed ranges are cached.
+     * Records are returned grouped per partition, in offset order.
+     */
+    public Read read(KafkaConsumer<byte[], byte[]> consumer,
+                                                     String clusterName,
+                                                     Map<TopicPartition, long[]> ranges,
+                                                     int pollTimeoutMs,
+                                                     long deadlineNs) {
+
+        List<ConsumerRecord<byte[], byte[]>> out = new ArrayList<>();
+        Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> polled = new HashMap<>();
+        Set<TopicPartition> remaining = new HashSet<>();
+
+        for (Map.Entry<TopicPartition, long[]> e : ranges.entrySet()) {
+            long from = e.getValue()[0];
+            long to = e.getValue()[1];
+            if (from >= to) continue;
+
+            List<ConsumerRecord<byte[], byte[]>> cached = get(clusterName, e.getKey(), from, to);
+            if (cached != null) {
+                out.addAll(cached);
+            } else {
+                remaining.add(e.getKey());
+                polled.put(e.getKey(), new ArrayList<>());
+            }
+        }
+        if (remaining.isEmpty()) return new Read(out, Set.of());
+
+        consumer.assign(remaining);
+        for (TopicPartition tp : remaining) consumer.seek(tp, ranges.get(tp)[0]);
+
+        while (!remaining.isEmpty() && System.nanoTime() < deadlineNs) {
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
+
+            for (TopicPartition tp : records.partitions()) {
+                long to = ranges.get(tp)[1];
+                List<ConsumerRecord<byte[], byte[]>> sink = polled.get(tp);
+                for (ConsumerRecord<byte[], byte[]> r : records.records(tp)) {
+                    if (r.offset() >= to) break;
+                    sink.add(r);
+                }
+            }
+
+            // position, not last record: compaction / txn markers can leave gaps before the end
+            List<TopicPartition> done = new ArrayList<>();
+            remaining.removeIf(tp -> {
+                boolean finished = consumer.position(tp) >= ranges.get(tp)[1];
+                if (finished) done.add(tp);
+                return finished;
+            });
+            if (!done.isEmpty()) {
+                consumer.pause(done);
+                for (TopicPartition tp : done) put(clusterName, tp, ranges.get(tp)[0], ranges.get(tp)[1], polled.get(tp));
+            }
+        }
+
+        polled.values().forEach(out::addAll);
+        return new Read(out, Set.copyOf(remaining));
+    }
+
+    /**
+     * unfinished = partitions that hit the deadline before their range end: their records are
+     * only a prefix [from, x) of the requested range.
+     */
+    public record Read(List<ConsumerRecord<byte[], byte[]>> records, Set<TopicPartition> unfinished) {}
+
+    // -------------------------------------------------------
+    // Get / put / invalidate
+    // -------------------------------------------------------
+
+    /** All records in [from, to) if fully covered by cached segments, else null. */
+    public synchronized List<ConsumerRecord<byte[], byte[]>> get(String clusterName, TopicPartition tp, long from, long to) {
+        if (!enabled()) return null;
+
+        TreeMap<Long, Segment> segments = partitions.get(PartitionKey.of(clusterName, tp));
+        long now = System.nanoTime();
+        List<ConsumerRecord<byte[], byte[]>> out = new ArrayList<>();
+        List<Segment> used = new ArrayList<>();
+
+        long pos = from;
+        while (pos < to) {
+            Map.Entry<Long, Segment> e = segments == null ? null : segments.floorEntry(pos);
+            Segment s = e == null ? null : e.getValue();
+            if (s == null || s.to <= pos || s.expiresAtNs < now) {
+                misses.increment();
+                return null;
+            }
+            for (ConsumerRecord<byte[], byte[]> r : s.records) {
+                if (r.offset() >= pos && r.offset() < to) out.add(r);
+            }
+            used.add(s);
+            pos = s.to;
+        }
+
+        used.forEach(s -> lru.get(s));   // touch
+        hits.increment();
+        return out;
+    }
+
+    /** records = every record in [from, to), offset order (gaps allowed, e.g. compaction). */
+    public synchronized void put(String clusterName, TopicPartition tp, long from, long to,
+                                 List<ConsumerRecord<byte[], byte[]>> records) {
+        if (!enabled() || from >= to) return;
+
+        KafkaAdminProperties.RecordCache cfg = props.getRecordCache();
+        long size = 0;
+        for (ConsumerRecord<byte[], byte[]> r : records) size += sizeOf(r);
+        if (size > cfg.getMaxSegmentBytes()) return;   // one huge window would evict everything else
+
+        PartitionKey key = PartitionKey.of(clusterName, tp);
+        TreeMap<Long, Segment> segments = partitions.computeIfAbsent(key, k -> new TreeMap<>());
+
+        // Drop segments the new one fully contains (keeps floorEntry() lookups exact)
+        Iterator<Segment> it = segments.subMap(from, true, to, false).values().iterator();
+        while (it.hasNext()) {
+            Segment s = it.next();
+            if (s.to <= to) {
+                it.remove();
+                lru.remove(s);
+                bytes.addAndGet(-s.bytes);
+            }
+        }
+        Segment existing = segments.get(from);
+        if (existing != null) return;   // longer segment from the same start already cached
+
+        Segment seg = new Segment(key, from, to, List.copyOf(records), size,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cfg.getTtlMs()));
+        segments.put(from, seg);
+        lru.put(seg, Boolean.TRUE);
+        bytes.addAndGet(size);
+
+        evictOverBudget(cfg.getMaxBytes());
+    }
+
+    /** Forget a topic on one cluster (topic deleted / recreated through the console). */
+    public synchronized void invalidate(String clusterName, String topicName) {
+        Iterator<Map.Entry<PartitionKey, TreeMap<Long, Segment>>> it = partitions.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<PartitionKey, TreeMap<Long, Segment>> e = it.next();
+            if (!e.getKey().matches(clusterName, topicName)) continue;
+            for (Segment s : e.getValue().values()) {
+                lru.remove(s);
+                bytes.addAndGet(-s.bytes);
+            }
+            it.remove();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.record-cache.ttl-ms:600000}",
+            fixedDelayString = "${oneinfra.kafka.admin.record-cache.ttl-ms:600000}"
+    )
+    public synchronized void sweep() {
+        long now = System.nanoTime();
+        Iterator<Segment> it = lru.keySet().iterator();
+        while (it.hasNext()) {
+            Segment s = it.next();
+            if (s.expiresAtNs >= now) continue;
+            it.remove();
+            bytes.addAndGet(-s.bytes);
+            TreeMap<Long, Segment> segments = partitions.get(s.key);
+            if (segments != null) {
+                segments.remove(s.from, s);
+                if (segments.isEmpty()) partitions.remove(s.key);
+            }
+        }
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private void evictOverBudget(long maxBytes) {
+        Iterator<Segment> it = lru.keySet().iterator();
+        while (bytes.get() > maxBytes && it.hasNext()) {
+            Segment s = it.next();
+            it.remove();
+            bytes.addAndGet(-s.bytes);
+            evictions.increment();
+
+            TreeMap<Long, Segment> segments = partitions.get(s.key);
+            if (segments != null) {
+                segments.remove(s.from, s);
+                if (segments.isEmpty()) partitions.remove(s.key);
+            }
+        }
+    }
+
+    private boolean enabled() {
+        return Boolean.TRUE.equals(props.getRecordCache().getEnabled());
+    }
+
+    private static long sizeOf(ConsumerRecord<byte[], byte[]> r) {
+        long size = RECORD_OVERHEAD_BYTES;
+        if (r.key() != null) size += r.key().length;
+        if (r.value() != null) size += r.value().length;
+        for (Header h : r.headers()) {
+            size += h.key().length() + (h.value() == null ? 0 : h.value().length);
+        }
+        return size;
+    }
+
+    private record PartitionKey(String cluster, String topic, int partition) {
+        static PartitionKey of(String clusterName, TopicPartition tp) {
+            return new PartitionKey(clusterName.trim().toLowerCase(Locale.ROOT), tp.topic(), tp.partition());
+        }
+
+        boolean matches(String clusterName, String topicName) {
+            return cluster.equals(clusterName.trim().toLowerCase(Locale.ROOT)) && topic.equals(topicName);
+        }
+    }
+
+    /** Identity equality on purpose: LRU / map removal must hit this exact segment. */
+    private static final class Segment {
+        private final PartitionKey key;
+        private final long from;
+        private final long to;
+        private final List<ConsumerRecord<byte[], byte[]>> records;
+        private final long bytes;
+        private final long expiresAtNs;
+
+        private Segment(PartitionKey key, long from, long to,
+                        List<ConsumerRecord<byte[], byte[]>> records, long bytes, long expiresAtNs) {
+            this.key = key;
+            this.from = from;
+            this.to = to;
+            this.records = records;
+            this.bytes = bytes;
+            this.expiresAtNs = expiresAtNs;
+        }
+    }
+}
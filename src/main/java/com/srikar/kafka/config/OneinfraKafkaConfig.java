@@ -2,10 +2,13 @@ package com.srikar.kafka.config;
 
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableConfigurationProperties(KafkaAdminProperties.class)
+@EnableScheduling
 public class OneinfraKafkaConfig {
     // Nothing else needed here.
-    // This just registers KafkaAdminProperties as a Spring bean.
+    // This registers KafkaAdminProperties as a Spring bean and enables @Scheduled
+    // (pooled client sweeps).
 }
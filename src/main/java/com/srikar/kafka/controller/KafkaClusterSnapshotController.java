@@ -2,7 +2,7 @@ package com.srikar.kafka.controller;
 
 import com.srikar.kafka.api.ApiResponse;
 import com.srikar.kafka.dto.cluster.KafkaClusterOverviewDto;
-import com.srikar.kafka.service.KafkaClusterSnapshotService;
+import com.srikar.kafka.service.KafkaClusterHealthMonitor;
 import com.srikar.kafka.utilities.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,11 +15,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class KafkaClusterSnapshotController {
 
-    private final KafkaClusterSnapshotService snapshotService;
+    private final KafkaClusterHealthMonitor healthMonitor;   // ✅ cached snapshot, no probe per request
 
     @GetMapping("/overview")
     public ResponseEntity<ApiResponse<List<KafkaClusterOverviewDto>>> overview() {
-        var list = snapshotService.listClustersWithHealth();
+        var list = healthMonitor.overview();
         return ResponseEntity.ok(ApiResponses.ok("Kafka clusters overview fetched successfully", list));
     }
 
@@ -2,15 +2,27 @@ package com.srikar.kafka.controller;
 
 import com.srikar.kafka.api.ApiResponse;
 import com.srikar.kafka.dto.consumer.ConsumerDto;
+import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
 import com.srikar.kafka.dto.consumer.ConsumerTailRequest;
 import com.srikar.kafka.dto.consumer.ConsumerTailResponse;
+import com.srikar.kafka.dto.consumer.SearchDto;
 import com.srikar.kafka.service.KafkaConsumerConsoleService;
+import com.srikar.kafka.service.KafkaConsumerPagingService;
+import com.srikar.kafka.service.KafkaFetchStreamService;
+import com.srikar.kafka.service.KafkaKeyLocatorService;
+import com.srikar.kafka.service.KafkaMessageSearchService;
+import com.srikar.kafka.service.KafkaTailStreamService;
 import com.srikar.kafka.utilities.ApiResponses;
+import com.srikar.kafka.utilities.RecordFrames;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,6 +33,11 @@ import org.springframework.web.bind.annotation.*;
 public class KafkaConsumerConsoleController {
 
     private final KafkaConsumerConsoleService consumerService;
+    private final KafkaConsumerPagingService pagingService;
+    private final KafkaTailStreamService tailStreamService;
+    private final KafkaFetchStreamService fetchStreamService;
+    private final KafkaMessageSearchService searchService;
+    private final KafkaKeyLocatorService keyLocator;
 
     @PostMapping(
             path = "/fetch",
@@ -36,6 +53,37 @@ public class KafkaConsumerConsoleController {
         );
     }
 
+    /** Cursor paging: pass nextCursor / prevCursor back with direction NEXT / PREV. */
+    @PostMapping(
+            path = "/page",
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<ConsumerDto.PageResponse>> page(
+            @Valid @RequestBody ConsumerDto.PageRequest req
+    ) {
+        ConsumerDto.PageResponse result = pagingService.page(req);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Page fetched successfully", result)
+        );
+    }
+
+    /** Full record (list views return value previews). */
+    @GetMapping("/record")
+    public ResponseEntity<ApiResponse<ConsumerRecordDto>> record(
+            @RequestParam String clusterName,
+            @RequestParam String topicName,
+            @RequestParam Integer partition,
+            @RequestParam Long offset,
+            @RequestParam(required = false) ConsumerDto.PayloadDecoder decoder
+    ) {
+        ConsumerRecordDto result = consumerService.getRecord(clusterName, topicName, partition, offset, decoder);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Record fetched successfully", result)
+        );
+    }
+
     @PostMapping(
             path = "/tail",
             consumes = MediaType.APPLICATION_JSON_VALUE
@@ -49,4 +97,134 @@ public class KafkaConsumerConsoleController {
                 ApiResponses.ok("Tail poll executed successfully", result)
         );
     }
+
+    /**
+     * Streaming fetch: NDJSON (one record per line + trailing {"summary": ...}),
+     * bounded by record / byte / time budgets instead of the 500-record cap.
+     */
+    @PostMapping(
+            path = "/fetch/stream",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> fetchStream(
+            @Valid @RequestBody ConsumerDto.StreamFetchRequest req
+    ) {
+        StreamingResponseBody body = fetchStreamService.open(req);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // ✅ Same stream, length-prefixed binary frames (raw key/value bytes, see RecordFrames).
+    // Opt-in via ?format=binary so Accept: */* clients keep getting NDJSON.
+    @PostMapping(
+            path = "/fetch/stream",
+            params = "format=binary",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = RecordFrames.MEDIA_TYPE
+    )
+    public ResponseEntity<StreamingResponseBody> fetchStreamBinary(
+            @Valid @RequestBody ConsumerDto.StreamFetchRequest req
+    ) {
+        StreamingResponseBody body = fetchStreamService.open(req, true);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(RecordFrames.MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Live tail over SSE (server keeps an assigned consumer for the session).
+     * POST for fetch()-based clients (supports lastSeen cursor), GET for EventSource.
+     */
+    @PostMapping(
+            path = "/tail/stream",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter tailStream(@Valid @RequestBody ConsumerTailRequest req) {
+        return tailStreamService.open(req);
+    }
+
+    @GetMapping(
+            path = "/tail/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter tailStream(
+            @RequestParam String clusterName,
+            @RequestParam String topicName,
+            @RequestParam(required = false) List<Integer> partitions,
+            @RequestParam(required = false) Integer pollTimeoutMs,
+            @RequestParam(required = false) Integer maxMessages,
+            @RequestParam(defaultValue = "true") boolean includeHeaders,
+            @RequestParam(defaultValue = "true") boolean includeKey
+    ) {
+        ConsumerTailRequest req = ConsumerTailRequest.builder()
+                .clusterName(clusterName)
+                .topicName(topicName)
+                .partitions(partitions)
+                .pollTimeoutMs(pollTimeoutMs)
+                .maxMessages(maxMessages)
+                .includeHeaders(includeHeaders)
+                .includeKey(includeKey)
+                .build();
+
+        return tailStreamService.open(req);
+    }
+
+    // -------------------------------------------------------
+    // Search (async job: start → poll progress/matches → cancel)
+    // -------------------------------------------------------
+
+    @PostMapping(
+            path = "/search",
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<SearchDto.SearchProgress>> startSearch(
+            @Valid @RequestBody SearchDto.SearchRequest req
+    ) {
+        SearchDto.SearchProgress result = searchService.start(req);
+
+        return ResponseEntity.accepted().body(
+                ApiResponses.ok("Search started", result)
+        );
+    }
+
+    /** Which partition the default partitioner puts a key on (and whether that changed). */
+    @GetMapping("/locate")
+    public ResponseEntity<ApiResponse<SearchDto.KeyLocation>> locateKey(
+            @RequestParam String clusterName,
+            @RequestParam String topicName,
+            @RequestParam String key
+    ) {
+        SearchDto.KeyLocation result = keyLocator.locate(clusterName, topicName, key);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Key located successfully", result)
+        );
+    }
+
+    @GetMapping("/search/{jobId}")
+    public ResponseEntity<ApiResponse<SearchDto.SearchProgress>> getSearch(
+            @PathVariable String jobId
+    ) {
+        SearchDto.SearchProgress result = searchService.get(jobId);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Search status fetched successfully", result)
+        );
+    }
+
+    @DeleteMapping("/search/{jobId}")
+    public ResponseEntity<ApiResponse<SearchDto.SearchProgress>> cancelSearch(
+            @PathVariable String jobId
+    ) {
+        SearchDto.SearchProgress result = searchService.cancel(jobId);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Search cancelled", result)
+        );
+    }
 }
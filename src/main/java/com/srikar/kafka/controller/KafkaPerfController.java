@@ -0,0 +1,105 @@
+package com.srikar.kafka.controller;
+
+import com.srikar.kafka.api.ApiResponse;
+import com.srikar.kafka.dto.perf.PerfDto;
+import com.srikar.kafka.service.KafkaPerfService;
+import com.srikar.kafka.utilities.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(
+        path = "/api/kafka/perf",
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+public class KafkaPerfController {
+
+    private final KafkaPerfService perfService;
+
+    /**
+     * Start a producer perf run (202; poll the run for progress)
+     * POST /api/kafka/perf/producer/runs
+     */
+    @PostMapping(
+            path = "/producer/runs",
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<PerfDto.RunReport>> startProducerRun(
+            @RequestBody PerfDto.ProducerRunRequest req
+    ) {
+        PerfDto.RunReport result = perfService.startProducerRun(req);
+
+        return ResponseEntity.accepted().body(
+                ApiResponses.ok("Perf run started", result)
+        );
+    }
+
+    /**
+     * Start a consumer read benchmark (202; poll the run for progress)
+     * POST /api/kafka/perf/consumer/runs
+     */
+    @PostMapping(
+            path = "/consumer/runs",
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<PerfDto.RunReport>> startConsumerRun(
+            @RequestBody PerfDto.ConsumerRunRequest req
+    ) {
+        PerfDto.RunReport result = perfService.startConsumerRun(req);
+
+        return ResponseEntity.accepted().body(
+                ApiResponses.ok("Perf run started", result)
+        );
+    }
+
+    /**
+     * Live progress while running, stored report afterwards
+     * GET /api/kafka/perf/runs/{runId}
+     */
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<ApiResponse<PerfDto.RunReport>> get(
+            @PathVariable String runId
+    ) {
+        PerfDto.RunReport result = perfService.get(runId);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Perf run fetched", result)
+        );
+    }
+
+    /**
+     * Stop a running run (the partial report is kept)
+     * DELETE /api/kafka/perf/runs/{runId}
+     */
+    @DeleteMapping("/runs/{runId}")
+    public ResponseEntity<ApiResponse<PerfDto.RunReport>> cancel(
+            @PathVariable String runId
+    ) {
+        PerfDto.RunReport result = perfService.cancel(runId);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Perf run cancelled", result)
+        );
+    }
+
+    /**
+     * Stored runs for a cluster (optionally one topic), newest first
+     * GET /api/kafka/perf/runs?clusterName=...&topicName=...
+     */
+    @GetMapping("/runs")
+    public ResponseEntity<ApiResponse<List<PerfDto.RunReport>>> history(
+            @RequestParam String clusterName,
+            @RequestParam(required = false) String topicName
+    ) {
+        List<PerfDto.RunReport> result = perfService.history(clusterName, topicName);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Perf runs fetched", result)
+        );
+    }
+}
@@ -3,11 +3,15 @@ package com.srikar.kafka.controller;
 import com.srikar.kafka.api.ApiResponse;
 import com.srikar.kafka.dto.producer.ProducerDto;
 import com.srikar.kafka.service.KafkaProducerConsoleService;
+import com.srikar.kafka.service.KafkaPublishTicketService;
 import com.srikar.kafka.utilities.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.InputStream;
 
 @RestController
 @RequiredArgsConstructor
@@ -18,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class KafkaProducerConsoleController {
 
     private final KafkaProducerConsoleService producerService;
+    private final KafkaPublishTicketService ticketService;
 
     /**
      * UI: Validate button (schema-mode)
@@ -54,4 +59,80 @@ public class KafkaProducerConsoleController {
                 ApiResponses.ok("Message published successfully", result)
         );
     }
+
+    /**
+     * Async publish: returns a delivery ticket immediately (202)
+     * POST /api/kafka/producer/publish/async
+     */
+    @PostMapping(
+            path = "/publish/async",
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<ProducerDto.PublishTicket>> publishAsync(
+            @RequestBody ProducerDto.PublishRequest req
+    ) {
+        ProducerDto.PublishTicket result = ticketService.submit(req);
+
+        return ResponseEntity.accepted().body(
+                ApiResponses.ok("Publish accepted", result)
+        );
+    }
+
+    @GetMapping("/publish/tickets/{ticketId}")
+    public ResponseEntity<ApiResponse<ProducerDto.PublishTicket>> ticket(
+            @PathVariable String ticketId
+    ) {
+        ProducerDto.PublishTicket result = ticketService.get(ticketId);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Publish ticket fetched successfully", result)
+        );
+    }
+
+    /** SSE: one "delivery" event once the broker acknowledges (or the send fails). */
+    @GetMapping(
+            path = "/publish/tickets/{ticketId}/events",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter ticketEvents(@PathVariable String ticketId) {
+        return ticketService.subscribe(ticketId);
+    }
+
+    /**
+     * Bulk seeding: JSON body with records[]
+     * POST /api/kafka/producer/publish/batch
+     */
+    @PostMapping(
+            path = "/publish/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<ProducerDto.BatchPublishResponse>> publishBatch(
+            @RequestBody ProducerDto.BatchPublishRequest req
+    ) {
+        ProducerDto.BatchPublishResponse result = producerService.publishBatch(req);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Batch published", result)
+        );
+    }
+
+    /**
+     * Bulk seeding: NDJSON body, one {"key","payload","partition"} per line
+     * POST /api/kafka/producer/publish/batch?clusterName=..&topicName=..
+     */
+    @PostMapping(
+            path = "/publish/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<ProducerDto.BatchPublishResponse>> publishBatchNdjson(
+            @RequestParam String clusterName,
+            @RequestParam String topicName,
+            InputStream body
+    ) {
+        ProducerDto.BatchPublishResponse result = producerService.publishBatch(clusterName, topicName, body);
+
+        return ResponseEntity.ok(
+                ApiResponses.ok("Batch published", result)
+        );
+    }
 }
@@ -0,0 +1,17 @@
+package com.srikar.kafka.db;
+
+import com.srikar.kafka.entity.KafkaPerfRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface KafkaPerfRunRepository extends JpaRepository<KafkaPerfRunEntity, UUID> {
+
+    List<KafkaPerfRunEntity> findTop50ByClusterNameIgnoreCaseOrderByStartedAtDesc(String clusterName);
+
+    List<KafkaPerfRunEntity> findTop50ByClusterNameIgnoreCaseAndTopicNameOrderByStartedAtDesc(
+            String clusterName,
+            String topicName
+    );
+}
@@ -18,4 +18,5 @@ public class KafkaClusterHealthDto {
     private List<String> brokers; // host:port
     private Instant observedAt;
     private String error;
+    private Boolean timedOut;       // true when the probe missed the overview deadline
 }
@@ -2,6 +2,8 @@ package com.srikar.kafka.dto.cluster;
 
 import lombok.*;
 
+import java.time.Instant;
+
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -16,4 +18,9 @@ public class KafkaClusterOverviewDto {
     // add:
     private KafkaKraftControlPlaneDto controlPlane;
 
+    // Monitor snapshot info (served from KafkaClusterHealthMonitor)
+    private Instant snapshotAt;   // when the snapshot was probed
+    private Long stalenessMs;     // age of the snapshot at response time
+    private Boolean stale;        // older than overview.stale-after-ms (refresh triggered)
+
 }
@@ -3,6 +3,8 @@ package com.srikar.kafka.dto.cluster;
 
 import lombok.*;
 
+import java.util.List;
+
 @Getter
 @Setter
 @Builder
@@ -15,8 +17,26 @@ public class KafkaKraftControlPlaneDto {
     private String listener;         // "192.168.66.1:9093" (controller listener)
     private Integer quorumNodeId;    // 0
     private String mode;             // "SINGLE_NODE_QUORUM"
-    private String status;           // "UP" | "DOWN" | "UNKNOWN"
+    private String status;           // "UP" | "DEGRADED" | "DOWN" | "UNKNOWN"
     private String observedAt;       // ISO string
-    private String source;           // "JMX"
+    private String source;           // "ADMIN" | "JMX"
     private String error;            // nullable
+    private Boolean timedOut;         // true when the probe missed the overview deadline
+
+    // Quorum metrics (raft-metrics via JMX; null when unavailable)
+    private Integer currentLeader;        // leader node id (-1 = no leader)
+    private Integer currentEpoch;
+    private String currentState;         // leader / follower / ...
+    private Long highWatermark;
+    private Long logEndOffset;
+    private Long highWatermarkLag;       // logEndOffset - highWatermark
+    private Double commitLatencyAvgMs;
+    private Double commitLatencyMaxMs;
+    private Double appendRecordsRate;    // records/sec
+
+    // Quorum membership (describeMetadataQuorum; ADMIN source only)
+    private List<KafkaKraftQuorumReplicaDto> voters;
+    private List<KafkaKraftQuorumReplicaDto> observers;
+    private Long maxFollowerLag;         // max lag across voters (excluding leader)
+    private Integer votersCaughtUp;
 }
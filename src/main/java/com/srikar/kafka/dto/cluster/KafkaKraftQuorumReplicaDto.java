@@ -0,0 +1,20 @@
+package com.srikar.kafka.dto.cluster;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KafkaKraftQuorumReplicaDto {
+
+    private Integer replicaId;
+    private Boolean leader;
+    private Long logEndOffset;
+    private Long lag;                    // leader log end offset - this replica's log end offset
+    private Long lastFetchTimestamp;     // epoch ms (null if unknown)
+    private Long lastCaughtUpTimestamp;  // epoch ms (null if unknown)
+    private Long lastFetchAgeMs;         // now - lastFetchTimestamp
+    private Boolean caughtUp;            // within control-plane lag / fetch-age thresholds
+}
@@ -3,6 +3,7 @@ package com.srikar.kafka.dto.consumer;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
+import java.util.Map;
 
 public final class ConsumerDto {
 
@@ -12,7 +13,32 @@ public final class ConsumerDto {
         EARLIEST,
         LATEST,
         OFFSET,
-        TIMESTAMP
+        TIMESTAMP,
+        LAST_N      // newest lastN records of each partition (fetch only)
+    }
+
+    /**
+     * Key / value representation in JSON responses.
+     * BASE64 (default) always base64; TEXT sends valid UTF-8 as-is (keyEncoding / valueEncoding = "utf8")
+     * and falls back to base64 per field for binary data.
+     */
+    public enum PayloadEncoding {
+        BASE64,
+        TEXT
+    }
+
+    /**
+     * Value decoder for fetch / record reads. null => per-topic default (decoders.topics), else NONE.
+     * AUTO uses the registry subject "<topic>-value" when present, otherwise JSON, then UTF-8.
+     * AVRO needs a registered subject; PROTOBUF decodes the wire format without field names.
+     */
+    public enum PayloadDecoder {
+        NONE,
+        AUTO,
+        UTF8,
+        JSON,
+        AVRO,
+        PROTOBUF
     }
 
     @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -25,8 +51,13 @@ public final class ConsumerDto {
             Position position,
             Long offset,
             Long timestampMs,
+            Integer lastN,        // per-partition quota for LAST_N; null => maxMessages spread over partitions
 
             Integer maxMessages,
+            Long maxBytes,        // key + value bytes; null => server cap (consumer-pool.max-response-bytes)
+            Integer previewBytes, // value preview length; null => consumer-pool.preview-bytes, 0 => full
+            PayloadEncoding encoding,
+            PayloadDecoder decoder,
             Integer pollTimeoutMs
     ) {}
 
@@ -35,6 +66,99 @@ public final class ConsumerDto {
             String clusterName,
             String topicName,
             int count,
-            List<ConsumerRecordDto> records
+            List<ConsumerRecordDto> records,
+            long bytes,           // key + value bytes returned
+            boolean truncated     // stopped by maxBytes before maxMessages / end of data
+    ) {}
+
+    // ----------------------------
+    // Streaming fetch (NDJSON)
+    // ----------------------------
+
+    public enum StreamStopReason {
+        END_OF_RANGE,    // reached the end offsets snapshotted at start
+        RECORD_BUDGET,
+        BYTE_BUDGET,
+        TIME_BUDGET,
+        ERROR
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record StreamFetchRequest(
+            String clusterName,
+            String topicName,
+
+            List<Integer> partitions,
+
+            Position position,
+            Long offset,
+            Long timestampMs,
+
+            Long maxRecords,      // null => server cap (fetch-stream.max-records)
+            Long maxBytes,        // response bytes; null => server cap (fetch-stream.max-bytes)
+            PayloadEncoding encoding,   // NDJSON only; the binary framing always carries raw bytes
+            Integer pollTimeoutMs
+    ) {}
+
+    /** Last NDJSON line: {"summary": {...}} */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record StreamSummary(
+            String clusterName,
+            String topicName,
+            long count,
+            long bytes,
+            StreamStopReason stopReason,
+            Map<Integer, Long> endOffsets,    // range end snapshotted at start (exclusive)
+            Map<Integer, Long> nextOffsets,   // resume here (position=OFFSET per partition)
+            String error
+    ) {}
+
+    // ----------------------------
+    // Cursor paging
+    // ----------------------------
+
+    public enum PageDirection {
+        NEXT,   // newer records after the cursor
+        PREV    // older records before the cursor
+    }
+
+    /**
+     * First page (no cursor): position EARLIEST / OFFSET / TIMESTAMP pages forward from there,
+     * LATEST (default) returns the newest page. Later pages: pass nextCursor / prevCursor back
+     * with direction NEXT / PREV; partitions and position are then taken from the cursor.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PageRequest(
+            String clusterName,
+            String topicName,
+
+            List<Integer> partitions,
+
+            Position position,
+            Long offset,
+            Long timestampMs,
+
+            String cursor,
+            PageDirection direction,
+
+            Integer pageSize,
+            Integer previewBytes, // value preview length; null => consumer-pool.preview-bytes, 0 => full
+            PayloadEncoding encoding,
+            Integer pollTimeoutMs
+    ) {}
+
+    /** Records are in ascending (timestamp, partition, offset) order, merged across partitions. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PageResponse(
+            String clusterName,
+            String topicName,
+            int count,
+            List<ConsumerRecordDto> records,
+            String nextCursor,    // start of the next (newer) page
+            String prevCursor,    // end of the previous (older) page
+            boolean hasNext,
+            boolean hasPrev,
+            boolean truncated,    // a partition didn't finish reading in time: page is short, cursors stay before the gap
+            boolean prefetched    // served from the speculative next-page cache
     ) {}
 }
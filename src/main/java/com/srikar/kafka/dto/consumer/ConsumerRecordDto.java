@@ -1,6 +1,7 @@
 package com.srikar.kafka.dto.consumer;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record ConsumerRecordDto(
@@ -8,12 +9,31 @@ public record ConsumerRecordDto(
         long offset,
         long timestamp,
 
-        // base64 (safe for binary)
+        // base64 (safe for binary) unless keyEncoding / valueEncoding = "utf8";
+        // value may be a preview, see valueTruncated
         String key,
         String value,
+        String keyEncoding,
+        String valueEncoding,
 
         // "k=v; k2=v2" (best effort)
         String headers,
 
-        Integer sizeBytes
-) {}
+        Integer sizeBytes,
+
+        // full value length; valueTruncated => value holds only the first previewBytes
+        // (GET /api/kafka/consumer/record returns the whole record)
+        Integer valueBytes,
+        Boolean valueTruncated,
+
+        // structured value from the selected decoder (full value, not the preview);
+        // on failure decoded stays null and decodeError says why (raw value is still in value)
+        JsonNode decoded,
+        String decoder,
+        String decodeError
+) {
+    public ConsumerRecordDto withDecoded(JsonNode decoded, String decoder, String decodeError) {
+        return new ConsumerRecordDto(partition, offset, timestamp, key, value, keyEncoding, valueEncoding,
+                headers, sizeBytes, valueBytes, valueTruncated, decoded, decoder, decodeError);
+    }
+}
@@ -23,6 +23,9 @@ public class ConsumerTailRequest {
     @Builder.Default
     private Integer maxMessages = 50;
 
+    /** optional: key + value byte budget per call. null => server cap */
+    private Long maxBytes;
+
     /** optional: restrict partitions. null/empty => all partitions */
     private List<Integer> partitions;
 
@@ -17,6 +17,12 @@ public class ConsumerTailResponse {
     /** total returned in this call */
     private int fetched;
 
+    /** key + value bytes returned in this call */
+    private long bytes;
+
+    /** true when maxBytes cut the batch short (the cursor resumes right after it) */
+    private boolean truncated;
+
     @Builder.Default
     private List<ConsumerTailRecordDto> records = new ArrayList<>();
 
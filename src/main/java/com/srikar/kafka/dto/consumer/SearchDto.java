@@ -0,0 +1,102 @@
+package com.srikar.kafka.dto.consumer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+public final class SearchDto {
+
+    private SearchDto() {}
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,           // whole range scanned
+        LIMIT_REACHED,       // early termination: limit matches found
+        BUDGET_EXHAUSTED,    // scan bytes / time budget hit
+        CANCELLED,
+        FAILED
+    }
+
+    /**
+     * All predicates are optional and AND-ed; at least one is required.
+     * key = exact key lookup: only the partition(s) the default partitioner maps it to are scanned.
+     * Range: start = startOffset | startTimestampMs | earliest, end = endOffset (exclusive) |
+     * endTimestampMs | end offsets at search start.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SearchRequest(
+            String clusterName,
+            String topicName,
+            List<Integer> partitions,
+            String key,
+
+            // ---- range ----
+            Long startOffset,
+            Long endOffset,
+            Long startTimestampMs,
+            Long endTimestampMs,
+
+            // ---- predicates (UTF-8 decoded key / value) ----
+            String keyContains,
+            String valueContains,
+            String valueRegex,
+            String jsonPointer,     // e.g. "/order/id" (RFC 6901) on the JSON value
+            String jsonEquals,      // null => pointer must exist
+            String headerKey,
+            String headerValue,     // null => header must exist
+            Boolean caseInsensitive,
+
+            // ---- limits ----
+            Integer limit,
+            Long maxScanBytes,
+            Long maxDurationMs
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PartitionProgress(
+            int partition,
+            long startOffset,
+            long endOffset,       // exclusive
+            long position,        // next offset to scan
+            boolean done
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SearchProgress(
+            String jobId,
+            String clusterName,
+            String topicName,
+            Status status,
+            long scannedRecords,
+            long scannedBytes,
+            long totalRecords,    // sum of (end - start) over partitions
+            int matched,
+            Instant startedAt,
+            Instant finishedAt,
+            String error,
+            List<PartitionProgress> partitions,
+            KeyLocation keyLocation,
+            List<ConsumerRecordDto> matches
+    ) {}
+
+    /**
+     * Where the default partitioner (murmur2 of the UTF-8 key) puts a key.
+     * A key only stays on one partition while the partition count is unchanged: if the count
+     * changed while older records are still retained, previousPartition is scanned too.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record KeyLocation(
+            String clusterName,
+            String topicName,
+            String key,
+            int partition,
+            int partitionCount,
+            Integer registeredPartitionCount,   // count in the topic registry (DB), if registered
+            Integer previousPartition,          // partition under registeredPartitionCount, if different
+            boolean partitionCountChanged,
+            Instant oldestRetainedTimestamp,
+            List<Integer> candidatePartitions,
+            List<String> warnings
+    ) {}
+}
@@ -0,0 +1,125 @@
+package com.srikar.kafka.dto.perf;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+
+import java.time.Instant;
+import java.util.List;
+
+public final class PerfDto {
+
+    private PerfDto() {}
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,     // duration / record count reached
+        CANCELLED,
+        FAILED
+    }
+
+    /**
+     * Producer load run (kafka-producer-perf-test equivalent).
+     * Stops at durationMs or numRecords, whichever comes first (at least one is required).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ProducerRunRequest(
+            String clusterName,
+            String topicName,
+
+            Long durationMs,
+            Long numRecords,
+            Integer recordsPerSec,    // null / <= 0 => as fast as possible
+            Integer recordSize,       // value bytes (random, generated once)
+            Integer keyCardinality,   // null / 0 => keyless; else keys "key-0" .. "key-(n-1)"
+
+            // ---- producer config ----
+            String acks,              // all (default) | 1 | 0
+            String compression,       // none (default) | gzip | snappy | lz4 | zstd
+            Integer lingerMs,
+            Integer batchSize,
+
+            String label              // free text stored with the result
+    ) {}
+
+    /**
+     * Consumer read run (kafka-consumer-perf-test equivalent).
+     * All partitions of the topic are assigned round-robin over numConsumers (manual assign, no group).
+     * Stops at numRecords, maxBytes or durationMs, or once every partition reaches the end offset it
+     * had at start (stopAtEnd, default true).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ConsumerRunRequest(
+            String clusterName,
+            String topicName,
+
+            Integer numConsumers,               // default 1
+            ConsumerDto.Position position,      // EARLIEST (default) | LATEST | TIMESTAMP
+            Long timestamp,                     // epoch ms (TIMESTAMP)
+
+            Long numRecords,
+            Long maxBytes,
+            Long durationMs,
+            Boolean stopAtEnd,
+
+            String label
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record LatencySummary(
+            long count,
+            double minMs,
+            double meanMs,
+            double p50Ms,
+            double p95Ms,
+            double p99Ms,
+            double p999Ms,
+            double maxMs
+    ) {}
+
+    /** One per elapsed second. */
+    public record ThroughputSample(
+            long second,
+            long records,
+            long bytes
+    ) {}
+
+    /** Consumer run: what one partition contributed. */
+    public record PartitionStat(
+            int partition,
+            int consumer,             // index of the consumer it was assigned to
+            long startOffset,
+            long endOffset,           // end offset at start (stopAtEnd target)
+            long records,
+            long bytes
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RunReport(
+            String runId,
+            String runType,           // PRODUCER | CONSUMER
+            String clusterName,
+            String topicName,
+            String label,
+            Status status,
+            String error,
+
+            Instant startedAt,
+            Instant finishedAt,
+            long elapsedMs,
+
+            long records,             // acknowledged (producer) / consumed (consumer)
+            long bytes,
+            long errors,
+            double recordsPerSec,
+            double mbPerSec,
+
+            LatencySummary latency,   // producer: send → ack; consumer: poll() returning records
+            List<ThroughputSample> perSecond,
+
+            // ---- consumer runs ----
+            List<PartitionStat> partitions,
+            Double partitionSkew,     // max / mean records per partition (1.0 = even)
+
+            Object config             // the request as run (after defaults / clamps)
+    ) {}
+}
@@ -184,4 +184,183 @@ public final class ProducerDto {
         public void setOffset(Long offset) { this.offset = offset; }
         public void setTimestamp(Long timestamp) { this.timestamp = timestamp; }
     }
+
+    // ----------------------------
+    // Batch Publish Request / Response
+    // ----------------------------
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BatchRecord {
+        // optional key (text). if null => keyless publish
+        private String key;
+
+        // required payload string
+        private String payload;
+
+        // optional explicit partition (else key hash / sticky partitioner)
+        private Integer partition;
+
+        public BatchRecord() {}
+
+        public BatchRecord(String key, String payload, Integer partition) {
+            this.key = key;
+            this.payload = payload;
+            this.partition = partition;
+        }
+
+        public String getKey() { return key; }
+        public String getPayload() { return payload; }
+        public Integer getPartition() { return partition; }
+
+        public void setKey(String key) { this.key = key; }
+        public void setPayload(String payload) { this.payload = payload; }
+        public void setPartition(Integer partition) { this.partition = partition; }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BatchPublishRequest {
+        private String clusterName;
+        private String topicName;
+        private List<BatchRecord> records;
+
+        public BatchPublishRequest() {}
+
+        public BatchPublishRequest(String clusterName, String topicName, List<BatchRecord> records) {
+            this.clusterName = clusterName;
+            this.topicName = topicName;
+            this.records = records;
+        }
+
+        public String getClusterName() { return clusterName; }
+        public String getTopicName() { return topicName; }
+        public List<BatchRecord> getRecords() { return records; }
+
+        public void setClusterName(String clusterName) { this.clusterName = clusterName; }
+        public void setTopicName(String topicName) { this.topicName = topicName; }
+        public void setRecords(List<BatchRecord> records) { this.records = records; }
+    }
+
+    /** One per input record, same order; either partition/offset or error is set. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BatchRecordResult {
+        private int index;
+        private Integer partition;
+        private Long offset;
+        private Long timestamp;
+        private String error;
+
+        public BatchRecordResult() {}
+
+        public BatchRecordResult(int index, Integer partition, Long offset, Long timestamp, String error) {
+            this.index = index;
+            this.partition = partition;
+            this.offset = offset;
+            this.timestamp = timestamp;
+            this.error = error;
+        }
+
+        public int getIndex() { return index; }
+        public Integer getPartition() { return partition; }
+        public Long getOffset() { return offset; }
+        public Long getTimestamp() { return timestamp; }
+        public String getError() { return error; }
+
+        public void setIndex(int index) { this.index = index; }
+        public void setPartition(Integer partition) { this.partition = partition; }
+        public void setOffset(Long offset) { this.offset = offset; }
+        public void setTimestamp(Long timestamp) { this.timestamp = timestamp; }
+        public void setError(String error) { this.error = error; }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BatchPublishResponse {
+        private String topic;
+        private int total;
+        private int succeeded;
+        private int failed;
+        private long elapsedMs;
+        private List<BatchRecordResult> results;
+
+        public BatchPublishResponse() {}
+
+        public BatchPublishResponse(String topic, int total, int succeeded, int failed, long elapsedMs,
+                                    List<BatchRecordResult> results) {
+            this.topic = topic;
+            this.total = total;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.elapsedMs = elapsedMs;
+            this.results = results;
+        }
+
+        public String getTopic() { return topic; }
+        public int getTotal() { return total; }
+        public int getSucceeded() { return succeeded; }
+        public int getFailed() { return failed; }
+        public long getElapsedMs() { return elapsedMs; }
+        public List<BatchRecordResult> getResults() { return results; }
+
+        public void setTopic(String topic) { this.topic = topic; }
+        public void setTotal(int total) { this.total = total; }
+        public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+        public void setFailed(int failed) { this.failed = failed; }
+        public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+        public void setResults(List<BatchRecordResult> results) { this.results = results; }
+    }
+
+    // ----------------------------
+    // Async Publish (delivery ticket)
+    // ----------------------------
+    public enum TicketStatus {
+        PENDING,
+        DELIVERED,
+        FAILED
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PublishTicket {
+        private String ticketId;
+        private TicketStatus status;
+        private String topic;
+        private Integer partition;
+        private Long offset;
+        private Long timestamp;
+        private String error;
+        private Long submittedAt;
+        private Long completedAt;
+
+        public PublishTicket() {}
+
+        public PublishTicket(String ticketId, TicketStatus status, String topic, Integer partition, Long offset,
+                             Long timestamp, String error, Long submittedAt, Long completedAt) {
+            this.ticketId = ticketId;
+            this.status = status;
+            this.topic = topic;
+            this.partition = partition;
+            this.offset = offset;
+            this.timestamp = timestamp;
+            this.error = error;
+            this.submittedAt = submittedAt;
+            this.completedAt = completedAt;
+        }
+
+        public String getTicketId() { return ticketId; }
+        public TicketStatus getStatus() { return status; }
+        public String getTopic() { return topic; }
+        public Integer getPartition() { return partition; }
+        public Long getOffset() { return offset; }
+        public Long getTimestamp() { return timestamp; }
+        public String getError() { return error; }
+        public Long getSubmittedAt() { return submittedAt; }
+        public Long getCompletedAt() { return completedAt; }
+
+        public void setTicketId(String ticketId) { this.ticketId = ticketId; }
+        public void setStatus(TicketStatus status) { this.status = status; }
+        public void setTopic(String topic) { this.topic = topic; }
+        public void setPartition(Integer partition) { this.partition = partition; }
+        public void setOffset(Long offset) { this.offset = offset; }
+        public void setTimestamp(Long timestamp) { this.timestamp = timestamp; }
+        public void setError(String error) { this.error = error; }
+        public void setSubmittedAt(Long submittedAt) { this.submittedAt = submittedAt; }
+        public void setCompletedAt(Long completedAt) { this.completedAt = completedAt; }
+    }
 }
@@ -0,0 +1,88 @@
+package com.srikar.kafka.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "kafka_perf_runs",
+        schema = "iaas_kafka",
+        indexes = {
+                @Index(name = "ix_perf_runs_cluster_started", columnList = "cluster_name, started_at")
+        }
+)
+public class KafkaPerfRunEntity {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    /** PRODUCER / CONSUMER */
+    @Column(name = "run_type", nullable = false, length = 32)
+    private String runType;
+
+    @Column(name = "cluster_name", nullable = false, length = 200)
+    private String clusterName;
+
+    @Column(name = "topic_name", nullable = false, length = 255)
+    private String topicName;
+
+    @Column(name = "label", length = 500)
+    private String label;
+
+    /** COMPLETED / CANCELLED / FAILED */
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // ---- headline numbers (queryable; the full report is in report_json) ----
+    @Column(name = "records", nullable = false)
+    private long records;
+
+    @Column(name = "bytes", nullable = false)
+    private long bytes;
+
+    @Column(name = "errors", nullable = false)
+    private long errors;
+
+    @Column(name = "records_per_sec")
+    private Double recordsPerSec;
+
+    @Column(name = "mb_per_sec")
+    private Double mbPerSec;
+
+    @Column(name = "latency_p50_ms")
+    private Double latencyP50Ms;
+
+    @Column(name = "latency_p99_ms")
+    private Double latencyP99Ms;
+
+    @Column(name = "latency_max_ms")
+    private Double latencyMaxMs;
+
+    /** PerfDto.RunReport as JSON (config, histogram summary, per-second series) */
+    @Column(name = "report_json", columnDefinition = "text", nullable = false)
+    private String reportJson;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (this.id == null) this.id = UUID.randomUUID();
+        if (this.createdAt == null) this.createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,6 @@
+package com.srikar.kafka.enums;
+
+public enum ControlPlaneProbeMode {
+    ADMIN,   // describeMetadataQuorum over the Kafka protocol (pooled AdminClient)
+    JMX      // raft-metrics over RMI/JMX
+}
@@ -2,7 +2,9 @@ package com.srikar.kafka.exception;
 
 import com.srikar.kafka.api.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -50,6 +52,19 @@ public class GlobalExceptionHandler {
                 .body(fail(ex.getMessage()));
     }
 
+    // Services validate request input with IllegalArgumentException (bad partitions, cursors, filters).
+    // Explicit JSON here and in 7): streaming endpoints (SSE / NDJSON) reject before the stream starts,
+    // and their Accept header alone would leave no writable representation for the error body.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<String>> handleIllegalArgument(IllegalArgumentException ex) {
+
+        log.warn("Invalid request: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(fail(ex.getMessage()));
+    }
+
     // ---------------------------------------------------------
     // 3) Resource not found
     // ---------------------------------------------------------
@@ -108,7 +123,21 @@ public class GlobalExceptionHandler {
     }
 
     // ---------------------------------------------------------
-    // 7) Catch-all unexpected exceptions
+    // 7) Backpressure (pools / queues full, shutting down) - retryable
+    // ---------------------------------------------------------
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusy(ServiceBusyException ex) {
+
+        log.warn("Rejected (busy): {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(fail(ex.getMessage()));
+    }
+
+    // ---------------------------------------------------------
+    // 8) Catch-all unexpected exceptions
     // ---------------------------------------------------------
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleGenericException(Exception ex) {
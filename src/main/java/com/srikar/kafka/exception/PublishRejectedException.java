@@ -0,0 +1,12 @@
+package com.srikar.kafka.exception;
+
+/**
+ * Publish refused by backpressure (queue / ticket limits, shutdown); the request itself is fine
+ * and can be retried. Mapped to 503.
+ */
+public class PublishRejectedException extends ServiceBusyException {
+
+    public PublishRejectedException(String message) {
+        super(message);
+    }
+}
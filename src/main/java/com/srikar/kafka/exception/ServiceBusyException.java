@@ -0,0 +1,12 @@
+package com.srikar.kafka.exception;
+
+/**
+ * Request refused because a bounded resource is full (consumer pool, session / run limits,
+ * queues); the request itself is fine and can be retried. Mapped to 503 + Retry-After.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
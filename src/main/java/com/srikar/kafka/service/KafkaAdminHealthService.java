@@ -1,6 +1,6 @@
 package com.srikar.kafka.service;
 
-import com.srikar.kafka.config.KafkaAdminClientFactory;
+import com.srikar.kafka.config.KafkaAdminClientRegistry;
 import com.srikar.kafka.config.KafkaAdminProperties;
 import com.srikar.kafka.dto.cluster.KafkaClusterHealthDto;
 import lombok.RequiredArgsConstructor;
@@ -17,15 +17,22 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class KafkaAdminHealthService {
 
-    private final KafkaAdminClientFactory adminFactory;
+    private final KafkaAdminClientRegistry adminRegistry;   // ✅ pooled, do NOT close
     private final KafkaAdminProperties props;
 
     public KafkaClusterHealthDto probe(String bootstrapServers) {
-        Instant observedAt = Instant.now();
+        return probe(bootstrapServers, props.getDefaultApiTimeoutMs());
+    }
 
-        long timeoutMs = props.getDefaultApiTimeoutMs();
+    /**
+     * Single describeCluster() call: clusterId + controller + nodes share one request.
+     * timeoutMs bounds each future (callers with a deadline pass their remaining budget).
+     */
+    public KafkaClusterHealthDto probe(String bootstrapServers, long timeoutMs) {
+        Instant observedAt = Instant.now();
 
-        try (AdminClient admin = adminFactory.create(bootstrapServers)) {
+        try {
+            AdminClient admin = adminRegistry.get(bootstrapServers);
 
             var desc = admin.describeCluster();
 
@@ -52,6 +59,7 @@ public class KafkaAdminHealthService {
                     .build();
 
         } catch (Exception ex) {
+            adminRegistry.reportFailure(bootstrapServers, ex);
             return KafkaClusterHealthDto.builder()
                     .status("DOWN")
                     .clusterId(null)
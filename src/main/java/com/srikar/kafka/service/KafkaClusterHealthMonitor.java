@@ -0,0 +1,197 @@
+package com.srikar.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.dto.cluster.KafkaClusterOverviewDto;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background cluster health monitor.
+ *
+ * - probes all clusters on overview.monitor-interval-ms (KafkaClusterSnapshotService fan-out)
+ * - keeps the latest overview in memory and in Redis (JSON) for other instances
+ * - a short Redis lock makes exactly one instance probe per interval; the others just load the
+ *   shared snapshot, so broker/JMX probe load is independent of viewers and instance count
+ *
+ * Reads are served from the snapshot (stale-while-revalidate):
+ * - fresh        → returned as-is
+ * - stale        → returned + one async refresh kicked off
+ * - no snapshot  → probed synchronously (cold start)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class KafkaClusterHealthMonitor {
+
+    private static final String SNAPSHOT_KEY = "oneinfra:kafka:health:overview";
+    private static final String LOCK_KEY = "oneinfra:kafka:health:lock";
+
+    private final KafkaClusterSnapshotService snapshotService;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final KafkaAdminProperties props;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicBoolean refreshQueued = new AtomicBoolean(false);
+
+    // the probe fan-out blocks on brokers / JMX; keep it off the common pool
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "kafka-health-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile Snapshot current;
+
+    // -------------------------------------------------------
+    // Read path
+    // -------------------------------------------------------
+
+    public List<KafkaClusterOverviewDto> overview() {
+        Snapshot snap = current;
+
+        if (snap == null) {
+            snap = coldStart();
+        }
+
+        long stalenessMs = Math.max(0L, Duration.between(snap.observedAt(), Instant.now()).toMillis());
+        boolean stale = stalenessMs > props.getOverview().getStaleAfterMs();
+        if (stale) {
+            refreshAsync();
+        }
+
+        Instant snapshotAt = snap.observedAt();
+        return snap.clusters().stream()
+                .map(c -> KafkaClusterOverviewDto.builder()
+                        .meta(c.getMeta())
+                        .health(c.getHealth())
+                        .controlPlane(c.getControlPlane())
+                        .snapshotAt(snapshotAt)
+                        .stalenessMs(stalenessMs)
+                        .stale(stale)
+                        .build())
+                .toList();
+    }
+
+    // -------------------------------------------------------
+    // Scheduled refresh
+    // -------------------------------------------------------
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.overview.monitor-interval-ms:15000}",
+            fixedDelayString = "${oneinfra.kafka.admin.overview.monitor-interval-ms:15000}"
+    )
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) return;
+        try {
+            if (tryAcquireProbeLock()) {
+                probeAndPublish();
+            } else {
+                Snapshot shared = loadShared();
+                if (shared == null) {
+                    // lock holder hasn't published (yet) → don't serve nothing
+                    probeAndPublish();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Cluster health refresh failed: {}", e.toString());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void refreshAsync() {
+        // at most one queued refresh: a burst of stale reads mustn't line up a probe each
+        if (refreshing.get() || !refreshQueued.compareAndSet(false, true)) return;
+        try {
+            refresher.execute(() -> {
+                refreshQueued.set(false);
+                refresh();
+            });
+        } catch (RejectedExecutionException e) {
+            refreshQueued.set(false);   // shutting down
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    /** Single-flight: concurrent first requests wait for one probe instead of each probing. */
+    private synchronized Snapshot coldStart() {
+        if (current != null) return current;
+
+        Snapshot shared = loadShared();
+        return shared != null ? shared : probeAndPublish();
+    }
+
+    private Snapshot probeAndPublish() {
+        Snapshot snap = new Snapshot(Instant.now(), snapshotService.listClustersWithHealth());
+        current = snap;
+
+        try {
+            redis.opsForValue().set(SNAPSHOT_KEY, objectMapper.writeValueAsString(snap), sharedTtl());
+        } catch (Exception e) {
+            log.debug("Unable to publish cluster health snapshot to Redis", e);
+        }
+        return snap;
+    }
+
+    /** Loads the shared snapshot if it's newer than ours; null when there is none. */
+    private Snapshot loadShared() {
+        try {
+            String json = redis.opsForValue().get(SNAPSHOT_KEY);
+            if (json == null || json.isBlank()) return null;
+
+            Snapshot shared = objectMapper.readValue(json, Snapshot.class);
+            Snapshot mine = current;
+            if (mine == null || shared.observedAt().isAfter(mine.observedAt())) {
+                current = shared;
+                return shared;
+            }
+            return mine;
+        } catch (Exception e) {
+            log.debug("Unable to read cluster health snapshot from Redis", e);
+            return null;
+        }
+    }
+
+    private boolean tryAcquireProbeLock() {
+        try {
+            // Expires on its own → a crashed holder never blocks the others for long
+            Duration ttl = Duration.ofMillis(Math.max(1000L, props.getOverview().getMonitorIntervalMs() - 500L));
+            Boolean ok = redis.opsForValue().setIfAbsent(LOCK_KEY, instanceId, ttl);
+            return Boolean.TRUE.equals(ok);
+        } catch (Exception e) {
+            // Redis down → every instance probes for itself (previous behaviour)
+            log.debug("Health monitor lock unavailable, probing locally", e);
+            return true;
+        }
+    }
+
+    private Duration sharedTtl() {
+        return Duration.ofMillis(props.getOverview().getStaleAfterMs() * 4);
+    }
+
+    record Snapshot(Instant observedAt, List<KafkaClusterOverviewDto> clusters) {}
+}
@@ -1,14 +1,16 @@
 package com.srikar.kafka.service;
 
 import com.srikar.kafka.bootstrap.KafkaBootstrapResolver;
-import com.srikar.kafka.config.KafkaAdminClientFactory;
+import com.srikar.kafka.config.KafkaAdminClientRegistry;
 import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaProbeExecutor;
 import com.srikar.kafka.db.KafkaClusterRepository;
 import com.srikar.kafka.dto.cluster.KafkaClusterHealthDto;
 import com.srikar.kafka.dto.cluster.KafkaClusterMetaDto;
 import com.srikar.kafka.dto.cluster.KafkaClusterOverviewDto;
 import com.srikar.kafka.dto.cluster.KafkaKraftControlPlaneDto;
 import com.srikar.kafka.entity.KafkaClusterEntity;
+import com.srikar.kafka.enums.ControlPlaneProbeMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClient;
@@ -18,10 +20,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -32,78 +41,128 @@ public class KafkaClusterSnapshotService {
     private final KafkaBootstrapResolver bootstrapResolver;   // Redis-first
     private final KafkaAdminHealthService healthService;
 
-    // ✅ Centralized AdminClient factory + YAML properties
-    private final KafkaAdminClientFactory adminFactory;
+    // ✅ Pooled AdminClient registry (do NOT close clients) + YAML properties
+    private final KafkaAdminClientRegistry adminRegistry;
     private final KafkaAdminProperties props;
 
-    // ✅ NEW: KRaft controller health via JMX
+    // ✅ NEW: KRaft controller health via JMX (fallback) / Admin API describeMetadataQuorum
     private final KafkaKraftJmxHealthService kraftJmxHealthService;
+    private final KafkaKraftQuorumService quorumService;
+
+    // ✅ Bounded executor for the parallel overview fan-out
+    private final KafkaProbeExecutor probeExecutor;
 
     /**
      * ✅ Overview list:
      * - returns DB meta + live health
      * - caches Kafka internal clusterId (describeCluster().clusterId()) into DB column kafka_cluster_id
      *   so UI can display it even if Kafka is down later.
-     * - ✅ Adds control-plane (KRaft) info from JMX (bare metal controller)
+     * - ✅ Adds control-plane (KRaft) info from describeMetadataQuorum or JMX (per cluster)
+     *
+     * ✅ Fan-out: per-cluster probes run concurrently on KafkaProbeExecutor and the whole request
+     * is bounded by overview.deadline-ms. A cluster that misses the deadline is returned with
+     * status UNKNOWN + timedOut=true instead of stalling the page.
+     * DB work (meta + clusterId cache) stays on the request thread / transaction.
      */
     @Transactional
     public List<KafkaClusterOverviewDto> listClustersWithHealth() {
 
-        return clusterRepo.findAllByOrderByNameAsc().stream()
-                .map(cluster -> {
-
-                    // -------------------------------------------------------
-                    // Build meta (DB)
-                    // -------------------------------------------------------
-                    KafkaClusterMetaDto meta = KafkaClusterMetaDto.builder()
-                            .id(cluster.getId())
-                            .name(cluster.getName())
-                            .environment(cluster.getEnvironment())
-                            .bootstrapServers(cluster.getBootstrapServers()) // DB value for UI display
-                            .enabled(cluster.isEnabled())
-                            .kafkaClusterId(cluster.getKafkaClusterId())     // DB cached value
-                            .updatedAt(cluster.getUpdatedAt())
-                            .build();
-
-                    // -------------------------------------------------------
-                    // Health (live) - broker/data plane
-                    // -------------------------------------------------------
-                    KafkaClusterHealthDto health;
-                    if (!cluster.isEnabled()) {
-                        health = KafkaClusterHealthDto.builder()
+        List<KafkaClusterEntity> clusters = clusterRepo.findAllByOrderByNameAsc();
+
+        long deadlineMs = props.getOverview().getDeadlineMs();
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        // Each probe bounds its own Kafka/JMX calls to the deadline, so workers free up shortly after it
+        long probeTimeoutMs = Math.min(safeTimeoutMs(), deadlineMs);
+
+        // -------------------------------------------------------
+        // 1) Fan out (workers only get plain values, never the JPA entity)
+        // -------------------------------------------------------
+        List<CompletableFuture<KafkaClusterHealthDto>> healthFutures = new ArrayList<>(clusters.size());
+        List<CompletableFuture<KafkaKraftControlPlaneDto>> controlPlaneFutures = new ArrayList<>(clusters.size());
+
+        for (KafkaClusterEntity cluster : clusters) {
+            if (!cluster.isEnabled()) {
+                healthFutures.add(null);
+                controlPlaneFutures.add(null);
+                continue;
+            }
+
+            String clusterName = cluster.getName();
+
+            healthFutures.add(probeExecutor.submit(() -> {
+                String bootstrap = bootstrapResolver.resolve(clusterName); // Redis-first
+                return healthService.probe(bootstrap, probeTimeoutMs);     // one describeCluster()
+            }));
+            KafkaAdminProperties.Endpoint endpoint = props.getControlPlane().forCluster(clusterName);
+            controlPlaneFutures.add(probeExecutor.submit(() -> probeControlPlane(clusterName, endpoint, (int) probeTimeoutMs)));
+        }
+
+        // -------------------------------------------------------
+        // 2) Join within the remaining budget
+        // -------------------------------------------------------
+        List<KafkaClusterOverviewDto> out = new ArrayList<>(clusters.size());
+
+        for (int i = 0; i < clusters.size(); i++) {
+            KafkaClusterEntity cluster = clusters.get(i);
+            KafkaAdminProperties.Endpoint endpoint = props.getControlPlane().forCluster(cluster.getName());
+
+            KafkaClusterHealthDto health;
+            KafkaKraftControlPlaneDto controlPlane;
+
+            if (!cluster.isEnabled()) {
+                health = KafkaClusterHealthDto.builder()
+                        .status("UNKNOWN")
+                        .observedAt(Instant.now())
+                        .brokerCount(0)
+                        .brokers(List.of())
+                        .error("Cluster disabled in DB")
+                        .build();
+                controlPlane = controlPlaneBase(endpoint)
+                        .status("UNKNOWN")
+                        .observedAt(Instant.now().toString())
+                        .error("Cluster disabled in DB")
+                        .build();
+            } else {
+                health = await(healthFutures.get(i), deadlineNs,
+                        () -> timedOutHealth(deadlineMs),
+                        this::failedHealth);
+
+                controlPlane = await(controlPlaneFutures.get(i), deadlineNs,
+                        () -> controlPlaneBase(endpoint)
                                 .status("UNKNOWN")
-                                .observedAt(Instant.now())
-                                .brokerCount(0)
-                                .brokers(List.of())
-                                .error("Cluster disabled in DB")
-                                .build();
-                    } else {
-                        String bootstrap = bootstrapResolver.resolve(cluster.getName()); // Redis-first
-
-                        // ✅ Cache Kafka internal clusterId into DB (best-effort)
-                        cacheKafkaClusterIdIfNeeded(cluster, bootstrap);
-
-                        // Existing live probe (uses adminFactory + props now)
-                        health = healthService.probe(bootstrap);
-                    }
-
-                    // -------------------------------------------------------
-                    // ✅ NEW: Control Plane (KRaft controller) - from JMX
-                    // -------------------------------------------------------
-                    KafkaKraftControlPlaneDto controlPlane = buildControlPlane(cluster);
-
-                    // Keep meta.kafkaClusterId in sync for this response
-                    KafkaClusterMetaDto metaFinal = meta.toBuilder()
-                            .kafkaClusterId(cluster.getKafkaClusterId())
-                            .build();
-
-                    return KafkaClusterOverviewDto.builder()
-                            .meta(metaFinal)
-                            .health(health)
-                            .controlPlane(controlPlane) // ✅ NEW
-                            .build();
-                })
-                .toList();
+                                .observedAt(Instant.now().toString())
+                                .timedOut(true)
+                                .error("Control plane probe timed out after " + deadlineMs + "ms")
+                                .build(),
+                        t -> controlPlaneBase(endpoint)
+                                .status(t instanceof RejectedExecutionException ? "UNKNOWN" : "DOWN")
+                                .observedAt(Instant.now().toString())
+                                .error(t.getClass().getSimpleName() + ": " + safeMsg(t))
+                                .build());
+
+                // ✅ Cache Kafka internal clusterId into DB (reuses the health describeCluster result)
+                cacheKafkaClusterIdIfNeeded(cluster, health.getClusterId());
+            }
+
+            KafkaClusterMetaDto meta = KafkaClusterMetaDto.builder()
+                    .id(cluster.getId())
+                    .name(cluster.getName())
+                    .environment(cluster.getEnvironment())
+                    .bootstrapServers(cluster.getBootstrapServers()) // DB value for UI display
+                    .enabled(cluster.isEnabled())
+                    .kafkaClusterId(cluster.getKafkaClusterId())     // DB cached value (after refresh)
+                    .updatedAt(cluster.getUpdatedAt())
+                    .build();
+
+            out.add(KafkaClusterOverviewDto.builder()
+                    .meta(meta)
+                    .health(health)
+                    .controlPlane(controlPlane) // ✅ NEW
+                    .build());
+        }
+
+        return out;
     }
 
     /**
@@ -120,7 +179,8 @@ public class KafkaClusterSnapshotService {
 
         long timeoutMs = safeTimeoutMs();
 
-        try (AdminClient admin = adminFactory.create(bootstrap)) {
+        try {
+            AdminClient admin = adminRegistry.get(bootstrap);
 
             DescribeClusterResult dcr = admin.describeCluster();
 
@@ -164,6 +224,7 @@ public class KafkaClusterSnapshotService {
             );
 
         } catch (Exception e) {
+            adminRegistry.reportFailure(bootstrap, e);
             log.error("Snapshot failed for cluster={} bootstrap={}", clusterName, bootstrap, e);
 
             return Map.of(
@@ -179,45 +240,68 @@ public class KafkaClusterSnapshotService {
     // ✅ NEW: Control plane builder
     // -------------------------------------------------------
 
-    private KafkaKraftControlPlaneDto buildControlPlane(KafkaClusterEntity cluster) {
-
-        // ✅ For now, your KRaft controller is bare metal and shared across clusters in LAB.
-        // Later we can move these into DB/config per cluster.
-        final String nodeLabel = "oneinfra-host";
-        final int quorumNodeId = 0;
-
-        final String controllerListener = "192.168.66.1:9093"; // your controller listener
-        final String jmxHost = "192.168.66.1";
-        final int jmxPort = 9999;
-
-        // If cluster disabled, keep it UNKNOWN
-        if (!cluster.isEnabled()) {
-            return KafkaKraftControlPlaneDto.builder()
-                    .node(nodeLabel)
-                    .role("CONTROLLER")
-                    .listener(controllerListener)
-                    .quorumNodeId(quorumNodeId)
-                    .mode("SINGLE_NODE_QUORUM")
-                    .status("UNKNOWN")
-                    .observedAt(Instant.now().toString())
-                    .source("JMX")
-                    .error("Cluster disabled in DB")
-                    .build();
+    // ✅ Controller endpoint (listener / JMX host:port / probe mode) comes from
+    // oneinfra.kafka.admin.control-plane (defaults + per-cluster overrides)
+    private KafkaKraftControlPlaneDto.KafkaKraftControlPlaneDtoBuilder controlPlaneBase(KafkaAdminProperties.Endpoint ep) {
+        return KafkaKraftControlPlaneDto.builder()
+                .node(ep.getNodeLabel())
+                .role("CONTROLLER")
+                .listener(ep.getListener())
+                .quorumNodeId(ep.getQuorumNodeId())
+                .mode(ep.getMode())
+                .source(ep.getProbeMode().name());
+    }
+
+    /**
+     * Runs on the probe executor (no DB / entity access).
+     * ADMIN: describeMetadataQuorum; falls back to JMX only if the Admin API call itself failed.
+     */
+    private KafkaKraftControlPlaneDto probeControlPlane(String clusterName, KafkaAdminProperties.Endpoint ep, int timeoutMs) {
+
+        if (ep.getProbeMode() == ControlPlaneProbeMode.ADMIN) {
+            String bootstrap = bootstrapResolver.resolve(clusterName); // Redis-first
+            KafkaKraftQuorumService.Result q = quorumService.probe(bootstrap, timeoutMs);
+
+            if (!q.isFailed() || !Boolean.TRUE.equals(ep.getJmxFallback())) {
+                return controlPlaneBase(ep)
+                        .status(q.getStatus())
+                        .observedAt(q.getObservedAt())
+                        .error(q.getError())
+                        .currentLeader(q.getLeaderId())
+                        .currentEpoch(q.getLeaderEpoch() == null ? null : q.getLeaderEpoch().intValue())
+                        .highWatermark(q.getHighWatermark())
+                        .logEndOffset(q.getLeaderLogEndOffset())
+                        .highWatermarkLag(q.getLeaderLogEndOffset() == null || q.getHighWatermark() == null
+                                ? null
+                                : Math.max(0L, q.getLeaderLogEndOffset() - q.getHighWatermark()))
+                        .voters(q.getVoters())
+                        .observers(q.getObservers())
+                        .maxFollowerLag(q.getMaxFollowerLag())
+                        .votersCaughtUp(q.getVotersCaughtUp())
+                        .build();
+            }
+
+            log.debug("describeMetadataQuorum failed for cluster={} ({}), falling back to JMX",
+                    clusterName, q.getError());
         }
 
         KafkaKraftJmxHealthService.Result r =
-                kraftJmxHealthService.probe(jmxHost, jmxPort, (int) safeTimeoutMs());
+                kraftJmxHealthService.probe(ep.getJmxHost(), ep.getJmxPort(), timeoutMs);
 
-        return KafkaKraftControlPlaneDto.builder()
-                .node(nodeLabel)
-                .role("CONTROLLER")
-                .listener(controllerListener)
-                .quorumNodeId(quorumNodeId)
-                .mode("SINGLE_NODE_QUORUM")
+        return controlPlaneBase(ep)
+                .source(ControlPlaneProbeMode.JMX.name())
                 .status(r.getStatus())
                 .observedAt(r.getObservedAt())
-                .source("JMX")
                 .error(r.getError())
+                .currentLeader(r.getCurrentLeader())
+                .currentEpoch(r.getCurrentEpoch())
+                .currentState(r.getCurrentState())
+                .highWatermark(r.getHighWatermark())
+                .logEndOffset(r.getLogEndOffset())
+                .highWatermarkLag(r.getHighWatermarkLag())
+                .commitLatencyAvgMs(r.getCommitLatencyAvgMs())
+                .commitLatencyMaxMs(r.getCommitLatencyMaxMs())
+                .appendRecordsRate(r.getAppendRecordsRate())
                 .build();
     }
 
@@ -225,6 +309,48 @@ public class KafkaClusterSnapshotService {
     // Helpers
     // -------------------------------------------------------
 
+    /**
+     * Waits for a probe until the shared deadline. Late probes are cancelled and replaced
+     * by onTimeout; failed ones (incl. executor rejection) are mapped by onError.
+     */
+    private <T> T await(CompletableFuture<T> future, long deadlineNs,
+                        Supplier<T> onTimeout, Function<Throwable, T> onError) {
+        long remainingNs = Math.max(0L, deadlineNs - System.nanoTime());
+        try {
+            return future.get(remainingNs, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return onTimeout.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return onTimeout.get();
+        } catch (ExecutionException e) {
+            return onError.apply(e.getCause() == null ? e : e.getCause());
+        }
+    }
+
+    private KafkaClusterHealthDto timedOutHealth(long deadlineMs) {
+        return KafkaClusterHealthDto.builder()
+                .status("UNKNOWN")
+                .brokerCount(0)
+                .brokers(List.of())
+                .observedAt(Instant.now())
+                .timedOut(true)
+                .error("Health probe timed out after " + deadlineMs + "ms")
+                .build();
+    }
+
+    private KafkaClusterHealthDto failedHealth(Throwable t) {
+        return KafkaClusterHealthDto.builder()
+                .status(t instanceof RejectedExecutionException ? "UNKNOWN" : "DOWN")
+                .brokerCount(0)
+                .brokers(List.of())
+                .observedAt(Instant.now())
+                .error(t.getClass().getSimpleName() + ": " + safeMsg(t))
+                .build();
+    }
+
     private long safeTimeoutMs() {
         Integer ms = props.getDefaultApiTimeoutMs();
         return (ms == null || ms < 1000) ? 15000L : ms.longValue();
@@ -237,16 +363,16 @@ public class KafkaClusterSnapshotService {
     }
 
     /**
-     * Best-effort: opens an AdminClient and caches kafka_cluster_id into DB if missing or changed.
-     * Does NOT fail the main flow if Kafka is down.
+     * Caches kafka_cluster_id into DB if missing or changed (no-op when the probe didn't return one).
+     * Must run on the request thread (inside the transaction).
      */
-    private void cacheKafkaClusterIdIfNeeded(KafkaClusterEntity cluster, String bootstrap) {
-        long timeoutMs = safeTimeoutMs();
-        try (AdminClient admin = adminFactory.create(bootstrap)) {
-            cacheKafkaClusterIdIfNeeded(cluster, admin, timeoutMs);
-        } catch (Exception e) {
-            log.debug("Unable to fetch/cache Kafka clusterId for cluster={} bootstrap={}",
-                    cluster.getName(), bootstrap, e);
+    private void cacheKafkaClusterIdIfNeeded(KafkaClusterEntity cluster, String kafkaClusterId) {
+        if (kafkaClusterId == null || kafkaClusterId.isBlank()) return;
+
+        if (cluster.getKafkaClusterId() == null || !cluster.getKafkaClusterId().equals(kafkaClusterId)) {
+            cluster.setKafkaClusterId(kafkaClusterId);
+            clusterRepo.save(cluster);
+            log.info("Cached kafka_cluster_id={} for cluster name={}", kafkaClusterId, cluster.getName());
         }
     }
 
@@ -259,13 +385,7 @@ public class KafkaClusterSnapshotService {
                     .clusterId()
                     .get(timeoutMs, TimeUnit.MILLISECONDS);
 
-            if (kafkaClusterId == null || kafkaClusterId.isBlank()) return;
-
-            if (cluster.getKafkaClusterId() == null || !cluster.getKafkaClusterId().equals(kafkaClusterId)) {
-                cluster.setKafkaClusterId(kafkaClusterId);
-                clusterRepo.save(cluster);
-                log.info("Cached kafka_cluster_id={} for cluster name={}", kafkaClusterId, cluster.getName());
-            }
+            cacheKafkaClusterIdIfNeeded(cluster, kafkaClusterId);
         } catch (Exception e) {
             log.debug("Unable to fetch/cache Kafka clusterId for cluster={}", cluster.getName(), e);
         }
@@ -1,48 +1,47 @@
 package com.srikar.kafka.service;
 
-import com.srikar.kafka.bootstrap.KafkaBootstrapResolver;
 import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.config.KafkaRecordCache;
 import com.srikar.kafka.dto.consumer.ConsumerDto;
 import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
 import com.srikar.kafka.dto.consumer.ConsumerTailCursor;
-import com.srikar.kafka.dto.consumer.ConsumerTailHeaderDto;
 import com.srikar.kafka.dto.consumer.ConsumerTailRecordDto;
 import com.srikar.kafka.dto.consumer.ConsumerTailRequest;
 import com.srikar.kafka.dto.consumer.ConsumerTailResponse;
+import com.srikar.kafka.exception.ResourceNotFoundException;
+import com.srikar.kafka.utilities.ConsumerPartitions;
+import com.srikar.kafka.utilities.ConsumerRecordMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.CommonClientConfigs;
-import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.TopicPartition;
-import org.apache.kafka.common.config.SslConfigs;
-import org.apache.kafka.common.header.Header;
-import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class KafkaConsumerConsoleService {
 
-    private final KafkaBootstrapResolver bootstrapResolver;
+    private final KafkaConsumerPool consumerPool;   // ✅ pooled byte-array consumers per cluster
+    private final KafkaRecordCache recordCache;     // ✅ offset-addressed cache (bounded fetches, tail polls)
+    private final KafkaPayloadDecoderService decoders;   // ✅ compiled value decoders (per schema fingerprint)
     private final KafkaAdminProperties props;
 
     /**
      * One-shot fetch:
-     * - creates consumer
+     * - borrows a pooled consumer
      * - assigns partitions (all or subset)
      * - seeks based on position
-     * - polls until maxMessages or poll timeout budget
-     * - closes consumer
+     * - EARLIEST / OFFSET / TIMESTAMP / LAST_N: reads existing records through the record cache
+     * - LATEST (or nothing in range): polls until maxMessages, maxBytes or poll timeout budget
+     * - returns consumer to the pool
      */
     public ConsumerDto.FetchResponse fetch(ConsumerDto.FetchRequest req) {
 
@@ -53,96 +52,238 @@ public class KafkaConsumerConsoleService {
         final String clusterName = req.clusterName().trim();
         final String topicName = req.topicName().trim();
 
-        final String bootstrap = bootstrapResolver.resolve(clusterName);
-
         final int pollTimeoutMs = resolvePollTimeoutMs(req);
         final int maxMessages = resolveMaxMessages(req);
+        final long maxBytes = resolveMaxBytes(req.maxBytes());
+        final int previewBytes = resolvePreviewBytes(req.previewBytes());
+        final boolean text = req.encoding() == ConsumerDto.PayloadEncoding.TEXT;
+
+        // resolved before borrowing: the registry lookup shouldn't hold a consumer
+        final KafkaPayloadDecoderService.ValueDecoder decoder = decoders.resolve(clusterName, topicName, req.decoder());
 
         // Budget for the overall fetch: don’t let this call hang forever.
         final int totalBudgetMs = Math.max(pollTimeoutMs, safeTimeoutMsInt());
 
-        Properties p = new Properties();
-
-        // ----------------------------
-        // Core consumer config
-        // ----------------------------
-        p.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
-        p.put(ConsumerConfig.CLIENT_ID_CONFIG, "oneinfra-ui-consumer-" + UUID.randomUUID());
-
-        // Console fetch should NOT join any real group (so we use a random group id)
-        p.put(ConsumerConfig.GROUP_ID_CONFIG, "oneinfra-ui-consumer-console-" + UUID.randomUUID());
-
-        // We manually assign + seek; do not auto-commit.
-        p.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
-
-        // Read bytes (we’ll base64 encode to UI)
-        p.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
-        p.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
-
-        // Safety limits
-        p.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, totalBudgetMs);
-        p.put(ConsumerConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, totalBudgetMs);
-        p.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, Math.max(30000, totalBudgetMs));
-        p.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(maxMessages, 500)); // cap per poll
-
-        // ----------------------------
-        // SSL / mTLS
-        // ----------------------------
-        KafkaAdminProperties.Ssl ssl = props.getSsl();
-        if (ssl == null) {
-            throw new IllegalStateException("Kafka SSL settings are missing (props.getSsl() == null)");
-        }
-
-        p.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, ssl.getSecurityProtocol()); // "SSL"
-
-        p.put(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, ssl.getTruststoreLocation());
-        p.put(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, ssl.getTruststorePassword());
-        p.put(SslConfigs.SSL_TRUSTSTORE_TYPE_CONFIG, ssl.getTruststoreType());
-
-        p.put(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG, ssl.getKeystoreLocation());
-        p.put(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, ssl.getKeystorePassword());
-        p.put(SslConfigs.SSL_KEYSTORE_TYPE_CONFIG, ssl.getKeystoreType());
-        p.put(SslConfigs.SSL_KEY_PASSWORD_CONFIG, ssl.getKeyPassword());
-
-        // IP brokers → disable hostname verification
-        p.put(SslConfigs.SSL_ENDPOINT_IDENTIFICATION_ALGORITHM_CONFIG,
-                ssl.getEndpointIdentificationAlgorithm() == null ? "" : ssl.getEndpointIdentificationAlgorithm());
-
         List<ConsumerRecordDto> out = new ArrayList<>(Math.min(maxMessages, 200));
+        long bytes = 0;
+        boolean truncated = false;
 
-        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(p)) {
+        // Pooled, pre-connected consumer (no group, manual assign), fetch-sized for the byte budget
+        KafkaConsumerPool.Lease lease = consumerPool.borrow(clusterName, KafkaConsumerPool.FetchSize.forBudget(maxBytes));
+
+        try {
+            KafkaConsumer<byte[], byte[]> consumer = lease.consumer();
 
             // 1) Resolve partitions to read
-            List<TopicPartition> tps = resolveTopicPartitions(consumer, topicName, req.partitions());
+            List<TopicPartition> tps = ConsumerPartitions.resolve(consumer, topicName, req.partitions());
             if (tps.isEmpty()) {
-                return new ConsumerDto.FetchResponse(clusterName, topicName, 0, List.of());
+                return new ConsumerDto.FetchResponse(clusterName, topicName, 0, List.of(), 0, false);
             }
 
             // 2) Assign (no group coordination)
             consumer.assign(tps);
 
+            if (req.position() == ConsumerDto.Position.LAST_N) {
+                int quota = resolveLastN(req, maxMessages, tps.size());
+                long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalBudgetMs);
+                return fetchLastN(consumer, clusterName, topicName, tps, quota, maxMessages, maxBytes,
+                        previewBytes, text, decoder, pollTimeoutMs, deadlineNs);
+            }
+
             // 3) Seek based on requested start position
-            applySeek(consumer, tps, req);
+            ConsumerPartitions.seek(consumer, tps, req.position(), req.offset(), req.timestampMs());
 
-            // 4) Poll loop until maxMessages or budget exhausted
             long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalBudgetMs);
+            if (req.position() != null && req.position() != ConsumerDto.Position.LATEST) {
+                ConsumerDto.FetchResponse bounded = fetchBounded(consumer, clusterName, topicName, tps, maxMessages,
+                        maxBytes, previewBytes, text, decoder, pollTimeoutMs, deadlineNs);
+                if (bounded != null) return bounded;
+            }
+
+            // 4) Poll loop until maxMessages or budget exhausted
 
+            poll:
             while (out.size() < maxMessages && System.nanoTime() < deadlineNs) {
                 ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
                 if (records.isEmpty()) break;
 
                 for (ConsumerRecord<byte[], byte[]> r : records) {
-                    out.add(toDto(r));
+                    long size = ConsumerRecordMapper.responseBytes(r, previewBytes);
+                    // always return at least one record, even if it alone exceeds the budget
+                    if (!out.isEmpty() && bytes + size > maxBytes) {
+                        truncated = true;
+                        break poll;
+                    }
+                    out.add(decoders.apply(ConsumerRecordMapper.toRecordDto(r, previewBytes, text), r.value(), decoder));
+                    bytes += size;
                     if (out.size() >= maxMessages) break;
                 }
             }
 
-            return new ConsumerDto.FetchResponse(clusterName, topicName, out.size(), out);
+            return new ConsumerDto.FetchResponse(clusterName, topicName, out.size(), out, bytes, truncated);
 
         } catch (Exception e) {
-            log.error("Fetch failed cluster={} topic={} bootstrap={}", clusterName, topicName, bootstrap, e);
+            lease.invalidate();
+            log.error("Fetch failed cluster={} topic={}", clusterName, topicName, e);
             throw new RuntimeException("Fetch failed: " + safeMsg(e), e);
+        } finally {
+            lease.close();
+        }
+    }
+
+    /**
+     * LAST_N: read [max(begin, end - quota), end) of every partition (batched offset lookups,
+     * through the record cache), then merge newest-first by timestamp and keep at most maxMessages
+     * / maxBytes. Unlike LATEST this returns existing data instead of waiting for new writes.
+     */
+    private ConsumerDto.FetchResponse fetchLastN(KafkaConsumer<byte[], byte[]> consumer,
+                                                 String clusterName,
+                                                 String topicName,
+                                                 List<TopicPartition> tps,
+                                                 int quota,
+                                                 int maxMessages,
+                                                 long maxBytes,
+                                                 int previewBytes,
+                                                 boolean text,
+                                                 KafkaPayloadDecoderService.ValueDecoder decoder,
+                                                 int pollTimeoutMs,
+                                                 long deadlineNs) {
+
+        Map<TopicPartition, long[]> ranges = ConsumerPartitions.lastNRanges(consumer, tps, quota);
+        List<ConsumerRecord<byte[], byte[]>> collected =
+                new ArrayList<>(recordCache.read(consumer, clusterName, ranges, pollTimeoutMs, deadlineNs).records());
+
+        collected.sort(Comparator.comparingLong((ConsumerRecord<byte[], byte[]> r) -> r.timestamp()).reversed());
+
+        List<ConsumerRecordDto> out = new ArrayList<>(Math.min(maxMessages, collected.size()));
+        long bytes = 0;
+        boolean truncated = false;
+        for (ConsumerRecord<byte[], byte[]> r : collected) {
+            if (out.size() >= maxMessages) break;
+            long size = ConsumerRecordMapper.responseBytes(r, previewBytes);
+            if (!out.isEmpty() && bytes + size > maxBytes) {
+                truncated = true;
+                break;
+            }
+            out.add(decoders.apply(ConsumerRecordMapper.toRecordDto(r, previewBytes, text), r.value(), decoder));
+            bytes += size;
         }
+        return new ConsumerDto.FetchResponse(clusterName, topicName, out.size(), out, bytes, truncated);
+    }
+
+    /**
+     * Existing records from each partition's seek position: [position, min(end, position + maxMessages)),
+     * read through the record cache (same shape as LAST_N), then merged in timestamp order keeping
+     * each partition's records contiguous. Null when every range is empty, so the caller polls for
+     * new writes as before.
+     */
+    private ConsumerDto.FetchResponse fetchBounded(KafkaConsumer<byte[], byte[]> consumer,
+                                                   String clusterName,
+                                                   String topicName,
+                                                   List<TopicPartition> tps,
+                                                   int maxMessages,
+                                                   long maxBytes,
+                                                   int previewBytes,
+                                                   boolean text,
+                                                   KafkaPayloadDecoderService.ValueDecoder decoder,
+                                                   int pollTimeoutMs,
+                                                   long deadlineNs) {
+
+        Map<TopicPartition, Long> begin = consumer.beginningOffsets(tps);
+        Map<TopicPartition, Long> end = consumer.endOffsets(tps);
+
+        Map<TopicPartition, long[]> ranges = new HashMap<>();
+        boolean any = false;
+        for (TopicPartition tp : tps) {
+            long b = begin.getOrDefault(tp, 0L);
+            long e = end.getOrDefault(tp, b);
+            long from = Math.max(b, Math.min(consumer.position(tp), e));   // OFFSET may be outside the log
+            long to = Math.min(e, from + maxMessages);
+            ranges.put(tp, new long[]{from, to});
+            any |= from < to;
+        }
+        if (!any) return null;
+
+        List<ConsumerRecord<byte[], byte[]>> read =
+                recordCache.read(consumer, clusterName, ranges, pollTimeoutMs, deadlineNs).records();
+
+        List<ConsumerRecordDto> out = new ArrayList<>(Math.min(maxMessages, read.size()));
+        long bytes = 0;
+        boolean truncated = false;
+        for (ConsumerRecord<byte[], byte[]> r : KafkaConsumerPagingService.selectPage(read, maxMessages, true)) {
+            long size = ConsumerRecordMapper.responseBytes(r, previewBytes);
+            if (!out.isEmpty() && bytes + size > maxBytes) {
+                truncated = true;
+                break;
+            }
+            out.add(decoders.apply(ConsumerRecordMapper.toRecordDto(r, previewBytes, text), r.value(), decoder));
+            bytes += size;
+        }
+        return new ConsumerDto.FetchResponse(clusterName, topicName, out.size(), out, bytes, truncated);
+    }
+
+    /**
+     * Single full record by (partition, offset), for expanding a previewed list row.
+     * Record cache first; otherwise a TINY-fetch consumer reads just enough to reach the offset.
+     */
+    public ConsumerRecordDto getRecord(String clusterName, String topicName, Integer partition, Long offset,
+                                       ConsumerDto.PayloadDecoder decoderMode) {
+
+        if (isBlank(clusterName)) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(topicName)) throw new IllegalArgumentException("topicName is required");
+        if (partition == null || partition < 0) throw new IllegalArgumentException("partition is required and must be >= 0");
+        if (offset == null || offset < 0) throw new IllegalArgumentException("offset is required and must be >= 0");
+
+        final String cluster = clusterName.trim();
+        final String topic = topicName.trim();
+        final TopicPartition tp = new TopicPartition(topic, partition);
+        final KafkaPayloadDecoderService.ValueDecoder decoder = decoders.resolve(cluster, topic, decoderMode);
+
+        List<ConsumerRecord<byte[], byte[]>> cached = recordCache.get(cluster, tp, offset, offset + 1);
+        if (cached != null) {
+            if (cached.isEmpty()) throw notFound(topic, partition, offset);
+            ConsumerRecord<byte[], byte[]> r = cached.get(0);
+            return decoders.apply(ConsumerRecordMapper.toRecordDto(r), r.value(), decoder);
+        }
+
+        KafkaConsumerPool.Lease lease = consumerPool.borrow(cluster, KafkaConsumerPool.FetchSize.TINY);
+        try {
+            KafkaConsumer<byte[], byte[]> consumer = lease.consumer();
+
+            ConsumerPartitions.resolve(consumer, topic, List.of(partition));   // validates partition
+            consumer.assign(List.of(tp));
+            consumer.seek(tp, offset);
+
+            long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(safeTimeoutMsInt());
+            while (System.nanoTime() < deadlineNs) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(500));
+                for (ConsumerRecord<byte[], byte[]> r : records.records(tp)) {
+                    if (r.offset() < offset) continue;
+                    if (r.offset() > offset) throw notFound(topic, partition, offset);   // compacted / marker
+                    recordCache.put(cluster, tp, offset, offset + 1, List.of(r));
+                    return decoders.apply(ConsumerRecordMapper.toRecordDto(r), r.value(), decoder);
+                }
+                // nothing returned and already past the offset (or at the end) → no such record
+                if (records.isEmpty() && consumer.position(tp) > offset) throw notFound(topic, partition, offset);
+                if (records.isEmpty() && offset >= consumer.endOffsets(List.of(tp)).getOrDefault(tp, 0L)) {
+                    throw notFound(topic, partition, offset);
+                }
+            }
+            throw new IllegalStateException("Timed out reading " + topic + "-" + partition + "@" + offset);
+
+        } catch (ResourceNotFoundException | IllegalArgumentException | IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            lease.invalidate();
+            log.error("Record read failed cluster={} topic={} partition={} offset={}", cluster, topic, partition, offset, e);
+            throw new RuntimeException("Record read failed: " + safeMsg(e), e);
+        } finally {
+            lease.close();
+        }
+    }
+
+    private ResourceNotFoundException notFound(String topic, int partition, long offset) {
+        return new ResourceNotFoundException("No record at " + topic + "-" + partition + " offset " + offset);
     }
 
     /* =========================================================
@@ -159,62 +300,24 @@ public class KafkaConsumerConsoleService {
         final String clusterName = req.getClusterName().trim();
         final String topicName = req.getTopicName().trim();
 
-        final String bootstrap = bootstrapResolver.resolve(clusterName);
-
         final int pollTimeoutMs = clamp(req.getPollTimeoutMs(), 100, 10000, 1000);
         final int maxMessages = clamp(req.getMaxMessages(), 1, 500, 50);
+        final long maxBytes = resolveMaxBytes(req.getMaxBytes());
 
         final boolean includeHeaders = readBoolean(req, true, "getIncludeHeaders", "isIncludeHeaders", "includeHeaders");
         final boolean includeKey = readBoolean(req, true, "getIncludeKey", "isIncludeKey", "includeKey");
 
-        Properties p = new Properties();
-
-        // Core consumer config
-        p.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
-        p.put(ConsumerConfig.CLIENT_ID_CONFIG, "oneinfra-ui-tail-" + UUID.randomUUID());
-
-        // random group, no commits
-        p.put(ConsumerConfig.GROUP_ID_CONFIG, "oneinfra-ui-tail-console-" + UUID.randomUUID());
-        p.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
-
-        // bytes -> base64 to UI
-        p.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
-        p.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
-
-        // keep short
-        int timeoutMs = Math.max(safeTimeoutMsInt(), pollTimeoutMs);
-        p.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, timeoutMs);
-        p.put(ConsumerConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, timeoutMs);
-        p.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, Math.max(30000, timeoutMs));
-        p.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(maxMessages, 500));
-
-        // SSL / mTLS (same as fetch)
-        KafkaAdminProperties.Ssl ssl = props.getSsl();
-        if (ssl == null) {
-            throw new IllegalStateException("Kafka SSL settings are missing (props.getSsl() == null)");
-        }
-
-        p.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, ssl.getSecurityProtocol()); // "SSL"
-
-        p.put(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, ssl.getTruststoreLocation());
-        p.put(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, ssl.getTruststorePassword());
-        p.put(SslConfigs.SSL_TRUSTSTORE_TYPE_CONFIG, ssl.getTruststoreType());
-
-        p.put(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG, ssl.getKeystoreLocation());
-        p.put(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, ssl.getKeystorePassword());
-        p.put(SslConfigs.SSL_KEYSTORE_TYPE_CONFIG, ssl.getKeystoreType());
-        p.put(SslConfigs.SSL_KEY_PASSWORD_CONFIG, ssl.getKeyPassword());
-
-        p.put(SslConfigs.SSL_ENDPOINT_IDENTIFICATION_ALGORITHM_CONFIG,
-                ssl.getEndpointIdentificationAlgorithm() == null ? "" : ssl.getEndpointIdentificationAlgorithm());
-
         List<ConsumerTailRecordDto> out = new ArrayList<>(Math.min(maxMessages, 200));
         List<String> warnings = new ArrayList<>();
 
-        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(p)) {
+        // Pooled consumer: a tail poll is now seek + poll, no connect per UI interval
+        KafkaConsumerPool.Lease lease = consumerPool.borrow(clusterName, KafkaConsumerPool.FetchSize.forBudget(maxBytes));
+
+        try {
+            KafkaConsumer<byte[], byte[]> consumer = lease.consumer();
 
             // 1) resolve partitions (all or subset)
-            List<TopicPartition> tps = resolveTopicPartitions(consumer, topicName, req.getPartitions());
+            List<TopicPartition> tps = ConsumerPartitions.resolve(consumer, topicName, req.getPartitions());
             if (tps.isEmpty()) {
                 return ConsumerTailResponse.builder()
                         .clusterName(clusterName)
@@ -252,27 +355,26 @@ public class KafkaConsumerConsoleService {
             // 4) poll ONCE (UI repeats)
             ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
 
-            for (ConsumerRecord<byte[], byte[]> r : records) {
-                out.add(toTailDto(r, includeHeaders, includeKey));
-                if (out.size() >= maxMessages) break;
+            // everything from a partition's first returned record up to its new position was read:
+            // cache it for fetches / pages over the same window (the whole poll, not just the cut)
+            for (TopicPartition tp : records.partitions()) {
+                List<ConsumerRecord<byte[], byte[]>> polled = records.records(tp);
+                recordCache.put(clusterName, tp, polled.get(0).offset(), consumer.position(tp), polled);
             }
 
-            // 5) next cursor: update per-partition offsets
-            Map<Integer, Long> nextMap = new HashMap<>();
-            if (last != null) nextMap.putAll(last);
-
-            // For each returned record, keep the max offset per partition
-            for (ConsumerTailRecordDto rec : out) {
-                Integer part = rec.getPartition();
-                Long off = rec.getOffset();
-                if (part == null || off == null) continue;
-
-                Long prev = nextMap.get(part);
-                if (prev == null || off > prev) {
-                    nextMap.put(part, off);
-                }
+            TailCut cut = TailCut.of(records, maxMessages, maxBytes);
+            for (ConsumerRecord<byte[], byte[]> r : cut.kept()) {
+                out.add(ConsumerRecordMapper.toTailDto(r, includeHeaders, includeKey));
+            }
+            long bytes = cut.bytes();
+            boolean truncated = cut.truncated();
+            if (truncated) {
+                warnings.add("Response truncated at maxBytes=" + maxBytes + "; next poll resumes after the last returned record");
             }
 
+            // 5) next cursor: update per-partition offsets
+            Map<Integer, Long> nextMap = cut.nextOffsets(last);
+
             ConsumerTailCursor nextCursor = ConsumerTailCursor.builder()
                     .offsetsByPartition(nextMap.isEmpty() ? null : nextMap)
                     .build();
@@ -281,185 +383,113 @@ public class KafkaConsumerConsoleService {
                     .clusterName(clusterName)
                     .topicName(topicName)
                     .fetched(out.size())
+                    .bytes(bytes)
+                    .truncated(truncated)
                     .records(out)
                     .nextCursor(nextCursor)
                     .warnings(warnings)
                     .build();
 
         } catch (Exception e) {
-            log.error("Tail failed cluster={} topic={} bootstrap={}", clusterName, topicName, bootstrap, e);
+            lease.invalidate();
+            log.error("Tail failed cluster={} topic={}", clusterName, topicName, e);
             throw new RuntimeException("Tail failed: " + safeMsg(e), e);
+        } finally {
+            lease.close();
         }
     }
 
     // ----------------------------
-    // Seek logic (FETCH only)
+    // Defaults / guards
     // ----------------------------
 
-    private void applySeek(KafkaConsumer<byte[], byte[]> consumer,
-                           List<TopicPartition> tps,
-                           ConsumerDto.FetchRequest req) {
-
-        ConsumerDto.Position pos = req.position() == null ? ConsumerDto.Position.LATEST : req.position();
-
-        switch (pos) {
-            case EARLIEST -> consumer.seekToBeginning(tps);
-            case LATEST -> consumer.seekToEnd(tps);
-
-            case OFFSET -> {
-                if (req.offset() == null || req.offset() < 0) {
-                    throw new IllegalArgumentException("offset is required and must be >= 0 when position=OFFSET");
-                }
-                long off = req.offset();
-                for (TopicPartition tp : tps) {
-                    consumer.seek(tp, off);
-                }
-            }
-
-            case TIMESTAMP -> {
-                if (req.timestampMs() == null || req.timestampMs() <= 0) {
-                    throw new IllegalArgumentException("timestampMs is required and must be > 0 when position=TIMESTAMP");
-                }
-                Map<TopicPartition, Long> query = new HashMap<>();
-                for (TopicPartition tp : tps) query.put(tp, req.timestampMs());
-
-                Map<TopicPartition, org.apache.kafka.clients.consumer.OffsetAndTimestamp> offsets =
-                        consumer.offsetsForTimes(query);
-
-                // If broker returns null (no offset at that timestamp), fall back to end
-                for (TopicPartition tp : tps) {
-                    var oat = offsets.get(tp);
-                    if (oat != null) consumer.seek(tp, oat.offset());
-                    else consumer.seekToEnd(List.of(tp));
-                }
-            }
-        }
+    private int resolvePollTimeoutMs(ConsumerDto.FetchRequest req) {
+        Integer ms = req.pollTimeoutMs();
+        if (ms == null) return 1000;
+        if (ms < 100) return 100;
+        if (ms > 10000) return 10000;
+        return ms;
     }
 
-    private List<TopicPartition> resolveTopicPartitions(KafkaConsumer<byte[], byte[]> consumer,
-                                                        String topic,
-                                                        List<Integer> requested) {
-
-        var partitions = consumer.partitionsFor(topic);
-        if (partitions == null || partitions.isEmpty()) return List.of();
-
-        Set<Integer> all = partitions.stream().map(pi -> pi.partition()).collect(Collectors.toSet());
-
-        // If user didn’t pass partitions → all
-        if (requested == null || requested.isEmpty()) {
-            return all.stream().sorted().map(p -> new TopicPartition(topic, p)).toList();
-        }
+    private int resolveMaxMessages(ConsumerDto.FetchRequest req) {
+        Integer m = req.maxMessages();
+        if (m == null) return 50;
+        if (m < 1) return 1;
+        if (m > 500) return 500;
+        return m;
+    }
 
-        // Validate subset
-        for (Integer p : requested) {
-            if (p == null || !all.contains(p)) {
-                throw new IllegalArgumentException("Invalid partition: " + p + " for topic: " + topic);
-            }
-        }
+    private int resolveLastN(ConsumerDto.FetchRequest req, int maxMessages, int partitionCount) {
+        Integer n = req.lastN();
+        if (n == null) return Math.max(1, maxMessages / Math.max(1, partitionCount));
+        if (n < 1) return 1;
+        return Math.min(n, maxMessages);
+    }
 
-        return requested.stream()
-                .distinct()
-                .sorted()
-                .map(p -> new TopicPartition(topic, p))
-                .toList();
+    private long resolveMaxBytes(Long requested) {
+        long cap = props.getConsumerPool().getMaxResponseBytes();
+        if (requested == null) return cap;
+        return Math.max(1, Math.min(requested, cap));
     }
 
-    // ----------------------------
-    // Mapping helpers
-    // ----------------------------
+    private int resolvePreviewBytes(Integer requested) {
+        if (requested == null) return props.getConsumerPool().getPreviewBytes();
+        return Math.max(0, requested);
+    }
 
-    private ConsumerRecordDto toDto(ConsumerRecord<byte[], byte[]> r) {
-        String keyB64 = r.key() == null ? null : Base64.getEncoder().encodeToString(r.key());
-        String valB64 = r.value() == null ? null : Base64.getEncoder().encodeToString(r.value());
+    /**
+     * One tail poll cut to maxMessages / maxBytes.
+     * Once a partition has a skipped record, every later record of that partition is skipped too,
+     * so what is kept per partition is a contiguous run and the cursor can't jump over anything.
+     */
+    record TailCut(List<ConsumerRecord<byte[], byte[]>> kept,
+                   Map<Integer, Long> firstSkipped,
+                   long bytes,
+                   boolean truncated) {
+
+        static TailCut of(Iterable<ConsumerRecord<byte[], byte[]>> records, int maxMessages, long maxBytes) {
+            List<ConsumerRecord<byte[], byte[]>> kept = new ArrayList<>();
+            // first record NOT returned per partition (cut by maxMessages / maxBytes)
+            Map<Integer, Long> firstSkipped = new HashMap<>();
+            long bytes = 0;
+            boolean truncated = false;
 
-        String headers = null;
-        if (r.headers() != null) {
-            List<String> parts = new ArrayList<>();
-            for (Header h : r.headers()) {
-                String v = h.value() == null ? "" : safeUtf8(h.value());
-                parts.add(h.key() + "=" + v);
+            for (ConsumerRecord<byte[], byte[]> r : records) {
+                if (firstSkipped.containsKey(r.partition())) continue;
+
+                long size = sizeOf(r);
+                boolean full = kept.size() >= maxMessages || (!kept.isEmpty() && bytes + size > maxBytes);
+                if (full) {
+                    if (kept.size() < maxMessages) truncated = true;
+                    firstSkipped.put(r.partition(), r.offset());
+                    continue;
+                }
+                kept.add(r);
+                bytes += size;
             }
-            headers = parts.isEmpty() ? null : String.join("; ", parts);
+            return new TailCut(kept, firstSkipped, bytes, truncated);
         }
 
-        Integer sizeBytes = null;
-        try {
-            int vSize = r.serializedValueSize();
-            int kSize = r.serializedKeySize();
-            if (vSize >= 0 || kSize >= 0) sizeBytes = Math.max(0, vSize) + Math.max(0, kSize);
-        } catch (Exception ignored) {
-        }
-
-        return new ConsumerRecordDto(
-                r.partition(),
-                r.offset(),
-                r.timestamp(),
-                keyB64,
-                valB64,
-                headers,
-                sizeBytes
-        );
-    }
-
-    private ConsumerTailRecordDto toTailDto(ConsumerRecord<byte[], byte[]> r,
-                                            boolean includeHeaders,
-                                            boolean includeKey) {
-
-        String keyB64 = null;
-        if (includeKey && r.key() != null) {
-            keyB64 = Base64.getEncoder().encodeToString(r.key());
-        }
+        /** Cursor after this poll: last returned offset per partition, or just before the first skipped one. */
+        Map<Integer, Long> nextOffsets(Map<Integer, Long> last) {
+            Map<Integer, Long> next = new HashMap<>();
+            if (last != null) next.putAll(last);
 
-        String valB64 = r.value() == null ? null : Base64.getEncoder().encodeToString(r.value());
+            // Partitions cut short with nothing returned: resume just before the first skipped record
+            // (otherwise a live tail without a cursor entry would jump to the end and lose them)
+            firstSkipped.forEach((part, off) -> next.merge(part, off - 1, Math::max));
 
-        List<ConsumerTailHeaderDto> headers = new ArrayList<>();
-        if (includeHeaders && r.headers() != null) {
-            for (Header h : r.headers()) {
-                String v = h.value() == null ? "" : safeUtf8(h.value());
-                headers.add(ConsumerTailHeaderDto.builder()
-                        .key(h.key())
-                        .value(v)
-                        .build());
+            // kept offsets of a partition are all below its first skipped one
+            for (ConsumerRecord<byte[], byte[]> r : kept) {
+                next.merge(r.partition(), r.offset(), Math::max);
             }
-        }
-
-        return ConsumerTailRecordDto.builder()
-                .topic(r.topic())
-                .partition(r.partition())
-                .offset(r.offset())
-                .timestamp(r.timestamp())
-                .key(keyB64)
-                .value(valB64)
-                .headers(headers)
-                .build();
-    }
-
-    private String safeUtf8(byte[] bytes) {
-        try {
-            return new String(bytes, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            return Base64.getEncoder().encodeToString(bytes);
+            return next;
         }
     }
 
-    // ----------------------------
-    // Defaults / guards
-    // ----------------------------
-
-    private int resolvePollTimeoutMs(ConsumerDto.FetchRequest req) {
-        Integer ms = req.pollTimeoutMs();
-        if (ms == null) return 1000;
-        if (ms < 100) return 100;
-        if (ms > 10000) return 10000;
-        return ms;
-    }
-
-    private int resolveMaxMessages(ConsumerDto.FetchRequest req) {
-        Integer m = req.maxMessages();
-        if (m == null) return 50;
-        if (m < 1) return 1;
-        if (m > 500) return 500;
-        return m;
+    private static long sizeOf(ConsumerRecord<byte[], byte[]> r) {
+        Integer size = ConsumerRecordMapper.sizeBytes(r);
+        return size == null ? 0 : size;
     }
 
     private int safeTimeoutMsInt() {
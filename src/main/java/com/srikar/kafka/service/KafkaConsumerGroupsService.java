@@ -1,6 +1,6 @@
 package com.srikar.kafka.service;
 
-import com.srikar.kafka.config.KafkaAdminClientFactory;
+import com.srikar.kafka.config.KafkaAdminClientRegistry;
 import com.srikar.kafka.db.KafkaClusterRepository;
 import com.srikar.kafka.dto.consumer.ConsumerGroupDetailDto;
 import com.srikar.kafka.dto.consumer.ConsumerGroupPartitionLagDto;
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -24,7 +25,10 @@ import java.util.concurrent.TimeUnit;
 public class KafkaConsumerGroupsService {
 
     private final KafkaClusterRepository clusterRepository;
-    private final KafkaAdminClientFactory adminFactory;
+    private final KafkaAdminClientRegistry adminRegistry;   // ✅ pooled, do NOT close
+
+    // Groups per multi-group ListConsumerGroupOffsets request
+    private static final int LAG_GROUP_CHUNK_SIZE = 100;
 
     private AdminClient adminForCluster(UUID clusterId) {
         KafkaClusterEntity cluster = clusterRepository.findById(clusterId)
@@ -39,11 +43,12 @@ public class KafkaConsumerGroupsService {
             throw new IllegalStateException("bootstrapServers is empty for cluster: " + cluster.getName() + " (" + clusterId + ")");
         }
 
-        return adminFactory.create(bootstrap);
+        return adminRegistry.forCluster(cluster);
     }
 
     public List<ConsumerGroupSummaryDto> listGroups(UUID clusterId) {
-        try (AdminClient admin = adminForCluster(clusterId)) {
+        try {
+            AdminClient admin = adminForCluster(clusterId);
 
             Collection<ConsumerGroupListing> listings =
                     admin.listConsumerGroups(new ListConsumerGroupsOptions().timeoutMs(15_000))
@@ -63,13 +68,16 @@ public class KafkaConsumerGroupsService {
                             .all()
                             .get(15, TimeUnit.SECONDS);
 
+            // ✅ Batched: constant number of admin round trips regardless of group count
+            Map<String, GroupOffsetsAndLag> lagByGroup = computeLag(admin, groupIds);
+
             List<ConsumerGroupSummaryDto> out = new ArrayList<>(groupIds.size());
 
             for (String gid : groupIds) {
                 ConsumerGroupDescription d = descMap.get(gid);
                 if (d == null) continue;
 
-                GroupOffsetsAndLag lag = computeLag(admin, gid);
+                GroupOffsetsAndLag lag = lagByGroup.get(gid);
 
                 out.add(ConsumerGroupSummaryDto.builder()
                         .groupId(gid)
@@ -88,7 +96,8 @@ public class KafkaConsumerGroupsService {
     }
 
     public ConsumerGroupDetailDto getGroupDetail(UUID clusterId, String groupId) {
-        try (AdminClient admin = adminForCluster(clusterId)) {
+        try {
+            AdminClient admin = adminForCluster(clusterId);
 
             Map<String, ConsumerGroupDescription> map =
                     admin.describeConsumerGroups(List.of(groupId), new DescribeConsumerGroupsOptions().timeoutMs(15_000))
@@ -98,7 +107,7 @@ public class KafkaConsumerGroupsService {
             ConsumerGroupDescription d = map.get(groupId);
             if (d == null) throw new NoSuchElementException("Group not found: " + groupId);
 
-            GroupOffsetsAndLag lag = computeLag(admin, groupId);
+            GroupOffsetsAndLag lag = computeLag(admin, List.of(groupId)).get(groupId);
 
             List<String> clientIds = d.members() == null ? List.of() :
                     d.members().stream()
@@ -133,26 +142,71 @@ public class KafkaConsumerGroupsService {
             List<ConsumerGroupPartitionLagDto> partitions
     ) {}
 
-    private GroupOffsetsAndLag computeLag(AdminClient admin, String groupId) throws Exception {
-
-        Map<TopicPartition, OffsetAndMetadata> committed =
-                admin.listConsumerGroupOffsets(groupId, new ListConsumerGroupOffsetsOptions().timeoutMs(15_000))
-                        .partitionsToOffsetAndMetadata()
-                        .get(15, TimeUnit.SECONDS);
+    /**
+     * Batched lag engine (replaces one listConsumerGroupOffsets + one listOffsets per group):
+     * 1) committed offsets for all groups via multi-group ListConsumerGroupOffsets (chunked,
+     *    chunks issued concurrently)
+     * 2) union of all committed partitions -> ONE listOffsets(latest) call
+     * 3) lag aggregated per group
+     */
+    private Map<String, GroupOffsetsAndLag> computeLag(AdminClient admin, List<String> groupIds) throws Exception {
+
+        // 1) Committed offsets (fire all chunks first, then wait)
+        List<ListConsumerGroupOffsetsResult> pending = new ArrayList<>();
+        for (int i = 0; i < groupIds.size(); i += LAG_GROUP_CHUNK_SIZE) {
+            Map<String, ListConsumerGroupOffsetsSpec> specs = new LinkedHashMap<>();
+            for (String gid : groupIds.subList(i, Math.min(i + LAG_GROUP_CHUNK_SIZE, groupIds.size()))) {
+                specs.put(gid, new ListConsumerGroupOffsetsSpec()); // all partitions
+            }
+            pending.add(admin.listConsumerGroupOffsets(specs, new ListConsumerGroupOffsetsOptions().timeoutMs(15_000)));
+        }
 
-        if (committed == null || committed.isEmpty()) {
-            return new GroupOffsetsAndLag(0, 0L, List.of());
+        Map<String, Map<TopicPartition, OffsetAndMetadata>> committedByGroup = new HashMap<>();
+        int chunk = 0;
+        for (ListConsumerGroupOffsetsResult result : pending) {
+            int from = chunk * LAG_GROUP_CHUNK_SIZE;
+            for (String gid : groupIds.subList(from, Math.min(from + LAG_GROUP_CHUNK_SIZE, groupIds.size()))) {
+                committedByGroup.put(gid, result.partitionsToOffsetAndMetadata(gid).get(15, TimeUnit.SECONDS));
+            }
+            chunk++;
         }
 
+        // 2) End offsets for the union of partitions (single request, per-partition results)
         Map<TopicPartition, OffsetSpec> req = new HashMap<>();
-        for (TopicPartition tp : committed.keySet()) {
-            req.put(tp, OffsetSpec.latest());
+        for (Map<TopicPartition, OffsetAndMetadata> committed : committedByGroup.values()) {
+            if (committed == null) continue;
+            for (TopicPartition tp : committed.keySet()) {
+                req.put(tp, OffsetSpec.latest());
+            }
         }
 
-        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end =
-                admin.listOffsets(req, new ListOffsetsOptions().timeoutMs(15_000))
-                        .all()
-                        .get(15, TimeUnit.SECONDS);
+        Map<TopicPartition, Long> end = new HashMap<>();
+        if (!req.isEmpty()) {
+            ListOffsetsResult offsets = admin.listOffsets(req, new ListOffsetsOptions().timeoutMs(15_000));
+            for (TopicPartition tp : req.keySet()) {
+                try {
+                    end.put(tp, offsets.partitionResult(tp).get(15, TimeUnit.SECONDS).offset());
+                } catch (ExecutionException e) {
+                    // e.g. topic deleted since the commit -> unknown end offset, lag 0 (same as before)
+                    end.put(tp, -1L);
+                }
+            }
+        }
+
+        // 3) Aggregate per group
+        Map<String, GroupOffsetsAndLag> out = new HashMap<>();
+        for (String gid : groupIds) {
+            out.put(gid, aggregateLag(committedByGroup.get(gid), end));
+        }
+        return out;
+    }
+
+    private GroupOffsetsAndLag aggregateLag(Map<TopicPartition, OffsetAndMetadata> committed,
+                                            Map<TopicPartition, Long> end) {
+
+        if (committed == null || committed.isEmpty()) {
+            return new GroupOffsetsAndLag(0, 0L, List.of());
+        }
 
         long totalLag = 0L;
         List<ConsumerGroupPartitionLagDto> rows = new ArrayList<>(committed.size());
@@ -161,7 +215,7 @@ public class KafkaConsumerGroupsService {
             TopicPartition tp = e.getKey();
 
             long committedOffset = e.getValue() == null ? -1L : e.getValue().offset();
-            long endOffset = end.get(tp) == null ? -1L : end.get(tp).offset();
+            long endOffset = end.getOrDefault(tp, -1L);
 
             long lag = 0L;
             if (committedOffset >= 0 && endOffset >= 0) {
@@ -205,7 +259,8 @@ public class KafkaConsumerGroupsService {
         final Instant timestamp = req.getTimestamp();
         final long tsMillis = timestamp.toEpochMilli();
 
-        try (AdminClient admin = adminForCluster(clusterId)) {
+        try {
+            AdminClient admin = adminForCluster(clusterId);
 
             // 1) Ensure group exists
             Map<String, ConsumerGroupDescription> map =
@@ -0,0 +1,452 @@
+package com.srikar.kafka.service;
+
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.config.KafkaRecordCache;
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
+import com.srikar.kafka.utilities.ConsumerPartitions;
+import com.srikar.kafka.utilities.ConsumerRecordMapper;
+import com.srikar.kafka.utilities.PageCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bidirectional paging through a topic with opaque per-partition cursors.
+ *
+ * A page is a set of per-partition ranges [start, end):
+ * - NEXT from cursor C: read up to pageSize records from C in every partition, keep the
+ *   pageSize OLDEST (by timestamp) → nextCursor = end of the kept records per partition
+ * - PREV from cursor C: seek each partition to C - pageSize and read forward to C, keep the
+ *   pageSize NEWEST → prevCursor = start of the kept records per partition
+ * - "oldest / newest" is a timestamp merge over partition heads (tails for PREV), so what is kept
+ *   per partition is always a contiguous prefix (suffix) of its range: with out-of-order
+ *   CreateTime timestamps the cursors can't jump over records that were never shown
+ *
+ * Ranges are read through KafkaRecordCache, so re-visited pages don't hit the brokers.
+ * After each page the following page in the same direction is loaded on a small background
+ * pool into a short-lived cache, so scrolling mostly hits memory instead of the brokers.
+ * Prefetch never waits for a console consumer and leaves paging.prefetch-reserved-consumers free.
+ */
+@Slf4j
+@Service
+public class KafkaConsumerPagingService {
+
+    private static final Comparator<ConsumerRecord<byte[], byte[]>> ORDER =
+            Comparator.comparingLong((ConsumerRecord<byte[], byte[]> r) -> r.timestamp())
+                    .thenComparingInt(ConsumerRecord::partition)
+                    .thenComparingLong(ConsumerRecord::offset);
+
+    private final KafkaConsumerPool consumerPool;
+    private final KafkaRecordCache recordCache;
+    private final KafkaAdminProperties props;
+
+    private final Map<PageKey, Prefetched> prefetched = new ConcurrentHashMap<>();
+    private final Set<PageKey> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor prefetchExecutor;
+
+    private final Counter prefetchHits;
+    private final Counter prefetchMisses;
+
+    public KafkaConsumerPagingService(KafkaConsumerPool consumerPool,
+                                      KafkaRecordCache recordCache,
+                                      KafkaAdminProperties props,
+                                      MeterRegistry meterRegistry) {
+        this.consumerPool = consumerPool;
+        this.recordCache = recordCache;
+        this.props = props;
+
+        KafkaAdminProperties.Paging cfg = props.getPaging();
+        int threads = Math.max(1, cfg.getPrefetchThreads());
+
+        AtomicInteger seq = new AtomicInteger();
+        this.prefetchExecutor = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, cfg.getPrefetchQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "kafka-page-prefetch-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.prefetchExecutor.allowCoreThreadTimeOut(true);
+
+        this.prefetchHits = Counter.builder("oneinfra.kafka.console.page.prefetch")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.prefetchMisses = Counter.builder("oneinfra.kafka.console.page.prefetch")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // API
+    // -------------------------------------------------------
+
+    public ConsumerDto.PageResponse page(ConsumerDto.PageRequest req) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (isBlank(req.clusterName())) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(req.topicName())) throw new IllegalArgumentException("topicName is required");
+
+        KafkaAdminProperties.Paging cfg = props.getPaging();
+
+        String clusterName = req.clusterName().trim();
+        String topicName = req.topicName().trim();
+        int pageSize = clamp(req.pageSize(), 1, cfg.getMaxPageSize(), 50);
+        int pollTimeoutMs = clamp(req.pollTimeoutMs(), 100, 10000, 1000);
+        int previewBytes = req.previewBytes() == null
+                ? props.getConsumerPool().getPreviewBytes() : Math.max(0, req.previewBytes());
+        boolean text = req.encoding() == ConsumerDto.PayloadEncoding.TEXT;
+        ConsumerDto.PageDirection direction = req.direction() == null ? ConsumerDto.PageDirection.NEXT : req.direction();
+        String cursor = isBlank(req.cursor()) ? null : req.cursor().trim();
+
+        if (cursor != null) {
+            PageKey key = new PageKey(clusterName.toLowerCase(Locale.ROOT), topicName, cursor, direction, pageSize, previewBytes, text);
+            Prefetched hit = prefetched.remove(key);
+            if (hit != null && hit.expiresAtMs > System.currentTimeMillis()) {
+                prefetchHits.increment();
+                schedulePrefetch(clusterName, topicName, hit.response, direction, pageSize, previewBytes, text, pollTimeoutMs);
+                return hit.response;
+            }
+            prefetchMisses.increment();
+        }
+
+        ConsumerDto.PageResponse page;
+        try (KafkaConsumerPool.Lease lease = consumerPool.borrow(clusterName)) {
+            try {
+                page = load(lease.consumer(), clusterName, topicName, req, cursor, direction, pageSize, previewBytes, text,
+                        pollTimeoutMs, false);
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (Exception e) {
+                lease.invalidate();
+                log.error("Page fetch failed cluster={} topic={}", clusterName, topicName, e);
+                throw new RuntimeException("Page fetch failed: " + safeMsg(e), e);
+            }
+        }
+
+        // First page: continue in the direction the user will most likely scroll
+        ConsumerDto.PageDirection scroll = cursor != null ? direction
+                : (isBackwardStart(req.position()) ? ConsumerDto.PageDirection.PREV : ConsumerDto.PageDirection.NEXT);
+        schedulePrefetch(clusterName, topicName, page, scroll, pageSize, previewBytes, text, pollTimeoutMs);
+
+        return page;
+    }
+
+    // -------------------------------------------------------
+    // Page load
+    // -------------------------------------------------------
+
+    private ConsumerDto.PageResponse load(KafkaConsumer<byte[], byte[]> consumer,
+                                          String clusterName,
+                                          String topicName,
+                                          ConsumerDto.PageRequest req,
+                                          String cursor,
+                                          ConsumerDto.PageDirection direction,
+                                          int pageSize,
+                                          int previewBytes,
+                                          boolean text,
+                                          int pollTimeoutMs,
+                                          boolean prefetch) {
+
+        // 1) anchor offsets + direction
+        List<TopicPartition> tps;
+        Map<TopicPartition, Long> anchor = new HashMap<>();
+        boolean forward;
+
+        if (cursor != null) {
+            PageCursor pc = PageCursor.decode(cursor);
+            if (!topicName.equals(pc.topic())) {
+                throw new IllegalArgumentException("Cursor belongs to topic " + pc.topic() + ", not " + topicName);
+            }
+            tps = pc.offsets().keySet().stream().map(p -> new TopicPartition(topicName, p)).toList();
+            for (TopicPartition tp : tps) anchor.put(tp, pc.offsets().get(tp.partition()));
+            forward = direction != ConsumerDto.PageDirection.PREV;
+        } else {
+            tps = ConsumerPartitions.resolve(consumer, topicName, req.partitions());
+            if (tps.isEmpty()) {
+                return new ConsumerDto.PageResponse(clusterName, topicName, 0, List.of(),
+                        null, null, false, false, false, false);
+            }
+            forward = !isBackwardStart(req.position());
+        }
+
+        // 2) batched bounds (one call each for all partitions)
+        Map<TopicPartition, Long> begin = consumer.beginningOffsets(tps);
+        Map<TopicPartition, Long> end = consumer.endOffsets(tps);
+
+        if (cursor == null) {
+            anchor = firstPageAnchor(consumer, tps, req, begin, end);
+        }
+
+        // 3) per-partition read ranges
+        Map<TopicPartition, long[]> ranges = new HashMap<>();
+        for (TopicPartition tp : tps) {
+            long b = begin.getOrDefault(tp, 0L);
+            long e = end.getOrDefault(tp, b);
+            long a = Math.max(b, Math.min(anchor.getOrDefault(tp, e), e));   // retention may have moved begin
+            ranges.put(tp, forward
+                    ? new long[]{a, Math.min(e, a + pageSize)}
+                    : new long[]{Math.max(b, a - pageSize), a});
+        }
+
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+                Math.max(pollTimeoutMs, props.getDefaultApiTimeoutMs() == null ? 15000 : props.getDefaultApiTimeoutMs()));
+        KafkaRecordCache.Read result = recordCache.read(consumer, clusterName, ranges, pollTimeoutMs, deadlineNs);
+        List<ConsumerRecord<byte[], byte[]>> read = new ArrayList<>(result.records());
+
+        // A partition that ran out of time holds only a prefix of its range. Forward that is the
+        // start of the page anyway; backward its newest records are missing, so keep none of it
+        // and leave its cursor at the anchor rather than jump over the unread tail.
+        boolean truncated = !result.unfinished().isEmpty();
+        if (truncated && !forward) {
+            read.removeIf(r -> result.unfinished().contains(new TopicPartition(r.topic(), r.partition())));
+        }
+
+        // 4) merge across partitions and keep one page
+        List<ConsumerRecord<byte[], byte[]>> kept = selectPage(read, pageSize, forward);
+
+        // 5) page bounds per partition → cursors
+        Map<Integer, Long> startOffsets = new TreeMap<>();
+        Map<Integer, Long> endOffsets = new TreeMap<>();
+        for (TopicPartition tp : tps) {
+            long a = forward ? ranges.get(tp)[0] : ranges.get(tp)[1];
+            startOffsets.put(tp.partition(), a);
+            endOffsets.put(tp.partition(), a);
+        }
+        for (ConsumerRecord<byte[], byte[]> r : kept) {
+            startOffsets.merge(r.partition(), r.offset(), Math::min);
+            endOffsets.merge(r.partition(), r.offset() + 1, Math::max);
+        }
+
+        boolean hasPrev = false;
+        boolean hasNext = false;
+        for (TopicPartition tp : tps) {
+            if (startOffsets.get(tp.partition()) > begin.getOrDefault(tp, 0L)) hasPrev = true;
+            if (endOffsets.get(tp.partition()) < end.getOrDefault(tp, 0L)) hasNext = true;
+        }
+
+        List<ConsumerRecordDto> records = new ArrayList<>(kept.size());
+        for (ConsumerRecord<byte[], byte[]> r : kept) records.add(ConsumerRecordMapper.toRecordDto(r, previewBytes, text));
+
+        return new ConsumerDto.PageResponse(
+                clusterName, topicName, records.size(), records,
+                new PageCursor(topicName, endOffsets).encode(),
+                new PageCursor(topicName, startOffsets).encode(),
+                hasNext, hasPrev, truncated, prefetch);
+    }
+
+    /**
+     * The page's records in display order (timestamp, partition, offset).
+     * Forward: repeatedly take the oldest of the partitions' next unread records; backward: the
+     * newest of their last unkept ones. Each partition contributes a contiguous run from its
+     * range start (end), and the page is never empty while records were read.
+     */
+    static List<ConsumerRecord<byte[], byte[]>> selectPage(List<ConsumerRecord<byte[], byte[]>> read,
+                                                          int pageSize, boolean forward) {
+        Map<Integer, List<ConsumerRecord<byte[], byte[]>>> byPartition = new HashMap<>();
+        for (ConsumerRecord<byte[], byte[]> r : read) {
+            byPartition.computeIfAbsent(r.partition(), p -> new ArrayList<>()).add(r);
+        }
+
+        PriorityQueue<PartitionRun> heads = new PriorityQueue<>(
+                Comparator.comparing(PartitionRun::head, forward ? ORDER : ORDER.reversed()));
+        for (List<ConsumerRecord<byte[], byte[]>> recs : byPartition.values()) {
+            recs.sort(Comparator.comparingLong(ConsumerRecord::offset));
+            heads.add(new PartitionRun(recs, forward));
+        }
+
+        List<ConsumerRecord<byte[], byte[]>> kept = new ArrayList<>(Math.min(pageSize, read.size()));
+        while (kept.size() < pageSize && !heads.isEmpty()) {
+            PartitionRun run = heads.poll();
+            kept.add(run.head());
+            if (run.advance()) heads.add(run);
+        }
+
+        kept.sort(ORDER);
+        return kept;
+    }
+
+    private Map<TopicPartition, Long> firstPageAnchor(KafkaConsumer<byte[], byte[]> consumer,
+                                                      List<TopicPartition> tps,
+                                                      ConsumerDto.PageRequest req,
+                                                      Map<TopicPartition, Long> begin,
+                                                      Map<TopicPartition, Long> end) {
+
+        ConsumerDto.Position pos = req.position() == null ? ConsumerDto.Position.LATEST : req.position();
+        Map<TopicPartition, Long> anchor = new HashMap<>();
+
+        switch (pos) {
+            case EARLIEST -> tps.forEach(tp -> anchor.put(tp, begin.getOrDefault(tp, 0L)));
+            case LATEST, LAST_N -> tps.forEach(tp -> anchor.put(tp, end.getOrDefault(tp, 0L)));
+
+            case OFFSET -> {
+                if (req.offset() == null || req.offset() < 0) {
+                    throw new IllegalArgumentException("offset is required and must be >= 0 when position=OFFSET");
+                }
+                tps.forEach(tp -> anchor.put(tp, req.offset()));
+            }
+
+            case TIMESTAMP -> {
+                if (req.timestampMs() == null || req.timestampMs() <= 0) {
+                    throw new IllegalArgumentException("timestampMs is required and must be > 0 when position=TIMESTAMP");
+                }
+                Map<TopicPartition, Long> query = new HashMap<>();
+                for (TopicPartition tp : tps) query.put(tp, req.timestampMs());
+
+                Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(query);
+                for (TopicPartition tp : tps) {
+                    OffsetAndTimestamp oat = offsets.get(tp);
+                    anchor.put(tp, oat != null ? oat.offset() : end.getOrDefault(tp, 0L));
+                }
+            }
+        }
+        return anchor;
+    }
+
+    // -------------------------------------------------------
+    // Prefetch
+    // -------------------------------------------------------
+
+    private void schedulePrefetch(String clusterName, String topicName, ConsumerDto.PageResponse page,
+                                  ConsumerDto.PageDirection direction, int pageSize, int previewBytes,
+                                  boolean text, int pollTimeoutMs) {
+
+        KafkaAdminProperties.Paging cfg = props.getPaging();
+        if (!Boolean.TRUE.equals(cfg.getPrefetch())) return;
+
+        boolean next = direction == ConsumerDto.PageDirection.NEXT;
+        if (next ? !page.hasNext() : !page.hasPrev()) return;
+
+        String cursor = next ? page.nextCursor() : page.prevCursor();
+        PageKey key = new PageKey(clusterName.toLowerCase(Locale.ROOT), topicName, cursor, direction, pageSize, previewBytes, text);
+
+        if (prefetched.containsKey(key) || prefetched.size() >= cfg.getPrefetchMaxEntries()) return;
+        if (!inFlight.add(key)) return;
+
+        Runnable task = () -> {
+            KafkaConsumerPool.Lease lease = consumerPool.tryBorrow(clusterName, cfg.getPrefetchReservedConsumers());
+            if (lease == null) {
+                inFlight.remove(key);   // pool busy with interactive reads: skip, the page loads on demand
+                return;
+            }
+            try (lease) {
+                try {
+                    ConsumerDto.PageResponse loaded = load(lease.consumer(), clusterName, topicName, null,
+                            cursor, direction, pageSize, previewBytes, text, pollTimeoutMs, true);
+                    // a short page is retried on demand rather than served from the cache
+                    if (!loaded.truncated()) {
+                        prefetched.put(key, new Prefetched(loaded, System.currentTimeMillis() + cfg.getPrefetchTtlMs()));
+                    }
+                } catch (RuntimeException e) {
+                    lease.invalidate();
+                    throw e;
+                }
+            } catch (Exception e) {
+                log.debug("Page prefetch failed cluster={} topic={}", clusterName, topicName, e);
+            } finally {
+                inFlight.remove(key);
+            }
+        };
+
+        try {
+            prefetchExecutor.execute(task);
+        } catch (RejectedExecutionException busy) {
+            inFlight.remove(key);   // prefetch is best-effort
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.paging.prefetch-ttl-ms:30000}",
+            fixedDelayString = "${oneinfra.kafka.admin.paging.prefetch-ttl-ms:30000}"
+    )
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        prefetched.values().removeIf(p -> p.expiresAtMs <= now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+        prefetched.clear();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private boolean isBackwardStart(ConsumerDto.Position position) {
+        return position == null || position == ConsumerDto.Position.LATEST || position == ConsumerDto.Position.LAST_N;
+    }
+
+    private int clamp(Integer value, int min, int max, int def) {
+        if (value == null) return def;
+        if (value < min) return min;
+        if (value > max) return max;
+        return value;
+    }
+
+    private boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? t.getClass().getSimpleName() : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+
+    private record PageKey(String cluster, String topic, String cursor,
+                           ConsumerDto.PageDirection direction, int pageSize, int previewBytes,
+                           boolean text) {}
+
+    private record Prefetched(ConsumerDto.PageResponse response, long expiresAtMs) {}
+
+    /** One partition's records (by offset) consumed from the front (forward) or the back. */
+    private static final class PartitionRun {
+        private final List<ConsumerRecord<byte[], byte[]>> records;
+        private final int step;
+        private int index;
+
+        private PartitionRun(List<ConsumerRecord<byte[], byte[]>> records, boolean forward) {
+            this.records = records;
+            this.step = forward ? 1 : -1;
+            this.index = forward ? 0 : records.size() - 1;
+        }
+
+        ConsumerRecord<byte[], byte[]> head() {
+            return records.get(index);
+        }
+
+        boolean advance() {
+            index += step;
+            return index >= 0 && index < records.size();
+        }
+    }
+}
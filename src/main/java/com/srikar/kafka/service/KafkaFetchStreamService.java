@@ -0,0 +1,311 @@
+package com.srikar.kafka.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+import com.srikar.kafka.exception.ServiceBusyException;
+import com.srikar.kafka.utilities.ConsumerPartitions;
+import com.srikar.kafka.utilities.ConsumerRecordMapper;
+import com.srikar.kafka.utilities.RecordFrames;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming fetch: records are written straight to the response while polling, so heap stays
+ * constant regardless of range size. Two wire formats:
+ * - NDJSON (default): one ConsumerRecordDto per line, base64 or UTF-8 text payloads
+ * - binary (?format=binary, RecordFrames.MEDIA_TYPE): length-prefixed raw bytes, no encoding work at all
+ *
+ * - range end = end offsets snapshotted at start (doesn't chase new writes)
+ * - stops at END_OF_RANGE or when a record / byte / time budget is hit
+ * - last line / frame is the StreamSummary with stopReason + nextOffsets to resume from
+ *
+ * Errors before the first byte are normal HTTP errors (validation → 400, too many streams → 503);
+ * errors mid-stream end the stream with stopReason=ERROR in the summary.
+ */
+@Slf4j
+@Service
+public class KafkaFetchStreamService {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final KafkaConsumerPool consumerPool;
+    private final KafkaAdminProperties props;
+    private final ObjectWriter writer;
+    private final Semaphore permits;
+
+    public KafkaFetchStreamService(KafkaConsumerPool consumerPool,
+                                   KafkaAdminProperties props,
+                                   ObjectMapper objectMapper) {
+        this.consumerPool = consumerPool;
+        this.props = props;
+        this.writer = objectMapper.writer();
+        this.permits = new Semaphore(Math.max(1, props.getFetchStream().getMaxConcurrent()));
+    }
+
+    public StreamingResponseBody open(ConsumerDto.StreamFetchRequest req) {
+        return open(req, false);
+    }
+
+    /** binary = RecordFrames framing instead of NDJSON. */
+    public StreamingResponseBody open(ConsumerDto.StreamFetchRequest req, boolean binary) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (isBlank(req.clusterName())) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(req.topicName())) throw new IllegalArgumentException("topicName is required");
+        if (req.position() == ConsumerDto.Position.LAST_N) {
+            throw new IllegalArgumentException("position=LAST_N is not supported for streaming fetch; use /fetch");
+        }
+
+        KafkaAdminProperties.FetchStream cfg = props.getFetchStream();
+
+        final String clusterName = req.clusterName().trim();
+        final String topicName = req.topicName().trim();
+        final long maxRecords = clampLong(req.maxRecords(), 1, cfg.getMaxRecords());
+        final long maxBytes = clampLong(req.maxBytes(), 1, cfg.getMaxBytes());
+        final int pollTimeoutMs = req.pollTimeoutMs() == null ? 1000 : Math.max(100, Math.min(req.pollTimeoutMs(), 10000));
+
+        if (!permits.tryAcquire()) {
+            throw new ServiceBusyException(
+                    "Too many streaming fetches in progress (max " + cfg.getMaxConcurrent() + ")");
+        }
+
+        // Cluster / partitions / start position resolved before the body is returned, so a bad
+        // request is a 400, not a 200 with an ERROR summary
+        KafkaConsumer<byte[], byte[]> consumer = null;
+        List<TopicPartition> tps;
+        try {
+            // Dedicated consumer: a pull can run for minutes, don't hold a pooled console consumer
+            consumer = consumerPool.openDedicated(clusterName);
+            tps = ConsumerPartitions.resolve(consumer, topicName, req.partitions());
+            if (tps.isEmpty()) throw new IllegalArgumentException("No partitions found for topic " + topicName);
+
+            consumer.assign(tps);
+            ConsumerPartitions.seek(consumer, tps, req.position(), req.offset(), req.timestampMs());
+        } catch (RuntimeException e) {
+            if (consumer != null) closeQuietly(consumer);
+            permits.release();
+            throw e;
+        }
+
+        final KafkaConsumer<byte[], byte[]> opened = consumer;
+        return out -> {
+            try {
+                RecordSink sink = binary
+                        ? new FrameSink(out)
+                        : new NdjsonSink(out, req.encoding() == ConsumerDto.PayloadEncoding.TEXT);
+                stream(sink, opened, tps, clusterName, topicName, maxRecords, maxBytes, pollTimeoutMs);
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    // -------------------------------------------------------
+    // Stream loop
+    // -------------------------------------------------------
+
+    private void stream(RecordSink out, KafkaConsumer<byte[], byte[]> consumer, List<TopicPartition> tps,
+                        String clusterName, String topicName,
+                        long maxRecords, long maxBytes, int pollTimeoutMs) throws IOException {
+
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(props.getFetchStream().getMaxDurationMs());
+
+        long count = 0;
+        long bytes = 0;
+        Map<Integer, Long> endOffsets = new TreeMap<>();
+        Map<Integer, Long> nextOffsets = new TreeMap<>();
+        ConsumerDto.StreamStopReason reason = ConsumerDto.StreamStopReason.END_OF_RANGE;
+        String error = null;
+
+        try {
+            // Snapshot the range end once → bounded pull even on a hot topic
+            Map<TopicPartition, Long> end = consumer.endOffsets(tps);
+            Set<TopicPartition> remaining = new HashSet<>();
+            for (TopicPartition tp : tps) {
+                long endOff = end.getOrDefault(tp, 0L);
+                long pos = consumer.position(tp);
+                endOffsets.put(tp.partition(), endOff);
+                nextOffsets.put(tp.partition(), pos);
+                if (pos < endOff) remaining.add(tp);
+            }
+            pauseAllBut(consumer, tps, remaining);
+
+            outer:
+            while (!remaining.isEmpty()) {
+                if (System.nanoTime() > deadlineNs) {
+                    reason = ConsumerDto.StreamStopReason.TIME_BUDGET;
+                    break;
+                }
+
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
+
+                for (TopicPartition tp : records.partitions()) {
+                    long endOff = end.getOrDefault(tp, 0L);
+
+                    for (ConsumerRecord<byte[], byte[]> r : records.records(tp)) {
+                        if (r.offset() >= endOff) break;
+
+                        count++;
+                        bytes += out.record(r);
+                        nextOffsets.put(tp.partition(), r.offset() + 1);
+
+                        if (count >= maxRecords) {
+                            reason = ConsumerDto.StreamStopReason.RECORD_BUDGET;
+                            break outer;
+                        }
+                        if (bytes >= maxBytes) {
+                            reason = ConsumerDto.StreamStopReason.BYTE_BUDGET;
+                            break outer;
+                        }
+                    }
+                }
+
+                // Done partitions (incl. compaction / txn-marker gaps): position reached the snapshot end
+                boolean changed = remaining.removeIf(tp -> consumer.position(tp) >= end.getOrDefault(tp, 0L));
+                if (changed) pauseAllBut(consumer, tps, remaining);
+
+                out.flush();
+            }
+
+        } catch (JsonProcessingException e) {
+            log.error("Fetch stream serialization failed cluster={} topic={}", clusterName, topicName, e);
+            reason = ConsumerDto.StreamStopReason.ERROR;
+            error = safeMsg(e);
+        } catch (IOException clientGone) {
+            log.debug("Fetch stream aborted by client cluster={} topic={}", clusterName, topicName);
+            return;
+        } catch (Exception e) {
+            log.error("Fetch stream failed cluster={} topic={}", clusterName, topicName, e);
+            reason = ConsumerDto.StreamStopReason.ERROR;
+            error = safeMsg(e);
+        } finally {
+            closeQuietly(consumer);
+        }
+
+        ConsumerDto.StreamSummary summary = new ConsumerDto.StreamSummary(
+                clusterName, topicName, count, bytes, reason, endOffsets, nextOffsets, error);
+
+        out.summary(summary);
+        out.flush();
+    }
+
+    // -------------------------------------------------------
+    // Wire formats
+    // -------------------------------------------------------
+
+    private interface RecordSink {
+        /** @return bytes written */
+        long record(ConsumerRecord<byte[], byte[]> r) throws IOException;
+
+        void summary(ConsumerDto.StreamSummary summary) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private final class NdjsonSink implements RecordSink {
+        private final OutputStream out;
+        private final boolean text;
+
+        private NdjsonSink(OutputStream raw, boolean text) {
+            this.out = new BufferedOutputStream(raw, BUFFER_BYTES);
+            this.text = text;
+        }
+
+        @Override
+        public long record(ConsumerRecord<byte[], byte[]> r) throws IOException {
+            byte[] line = writer.writeValueAsBytes(ConsumerRecordMapper.toRecordDto(r, 0, text));
+            out.write(line);
+            out.write('\n');
+            return line.length + 1;
+        }
+
+        @Override
+        public void summary(ConsumerDto.StreamSummary summary) throws IOException {
+            out.write(writer.writeValueAsBytes(Map.of("summary", summary)));
+            out.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    private final class FrameSink implements RecordSink {
+        private final DataOutputStream out;
+
+        private FrameSink(OutputStream raw) {
+            this.out = new DataOutputStream(new BufferedOutputStream(raw, BUFFER_BYTES));
+        }
+
+        @Override
+        public long record(ConsumerRecord<byte[], byte[]> r) throws IOException {
+            return RecordFrames.writeRecord(out, r);
+        }
+
+        @Override
+        public void summary(ConsumerDto.StreamSummary summary) throws IOException {
+            RecordFrames.writeSummary(out, writer.writeValueAsBytes(summary));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private void pauseAllBut(KafkaConsumer<byte[], byte[]> consumer,
+                             List<TopicPartition> tps,
+                             Set<TopicPartition> active) {
+        List<TopicPartition> done = tps.stream().filter(tp -> !active.contains(tp)).toList();
+        if (!done.isEmpty()) consumer.pause(done);
+    }
+
+    private void closeQuietly(KafkaConsumer<byte[], byte[]> consumer) {
+        try {
+            consumer.close(Duration.ofSeconds(2));
+        } catch (Exception e) {
+            log.debug("Fetch stream consumer close failed", e);
+        }
+    }
+
+    private long clampLong(Long value, long min, long max) {
+        if (value == null) return max;
+        return Math.max(min, Math.min(value, max));
+    }
+
+    private boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? t.getClass().getSimpleName() : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+}
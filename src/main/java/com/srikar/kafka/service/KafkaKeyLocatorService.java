@@ -0,0 +1,154 @@
+package com.srikar.kafka.service;
+
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.db.KafkaClusterRepository;
+import com.srikar.kafka.db.KafkaTopicRepository;
+import com.srikar.kafka.dto.consumer.SearchDto;
+import com.srikar.kafka.entity.KafkaTopicEntity;
+import com.srikar.kafka.exception.ServiceBusyException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Key → partition, the way the default producer partitioner does it for keyed records:
+ * toPositive(murmur2(keyBytes)) % partitionCount.
+ *
+ * That mapping only holds for records written under the CURRENT partition count. The live
+ * count is compared with the topic registry (DB) and with the oldest retained record, so
+ * callers know when older records for the key may sit on a different partition.
+ *
+ * Keys are taken as UTF-8 strings, matching what the producer console sends.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KafkaKeyLocatorService {
+
+    private final KafkaConsumerPool consumerPool;
+    private final KafkaClusterRepository clusterRepository;
+    private final KafkaTopicRepository topicRepository;
+
+    public SearchDto.KeyLocation locate(String clusterName, String topicName, String key) {
+
+        if (isBlank(clusterName)) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(topicName)) throw new IllegalArgumentException("topicName is required");
+        if (key == null || key.isEmpty()) throw new IllegalArgumentException("key is required");
+
+        try (KafkaConsumerPool.Lease lease = consumerPool.borrow(clusterName.trim())) {
+            return locate(lease.consumer(), clusterName.trim(), topicName.trim(), key);
+        } catch (IllegalArgumentException | IllegalStateException | ServiceBusyException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Key locate failed: " + safeMsg(e), e);
+        }
+    }
+
+    /** Same as above on a consumer the caller already holds (metadata calls only). */
+    public SearchDto.KeyLocation locate(KafkaConsumer<byte[], byte[]> consumer,
+                                        String clusterName, String topicName, String key) {
+
+        List<PartitionInfo> infos = consumer.partitionsFor(topicName);
+        if (infos == null || infos.isEmpty()) {
+            throw new IllegalArgumentException("Topic not found: " + topicName);
+        }
+
+        int count = infos.size();
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int partition = partitionFor(keyBytes, count);
+
+        List<String> warnings = new ArrayList<>();
+        Instant oldest = oldestRetainedTimestamp(consumer, topicName, infos);
+
+        // ---- registry comparison ----
+        Optional<KafkaTopicEntity> registered = registeredTopic(clusterName, topicName);
+        Integer registeredCount = registered.map(KafkaTopicEntity::getPartitions).orElse(null);
+
+        boolean changed = registeredCount != null && registeredCount > 0 && registeredCount != count;
+        Integer previous = null;
+
+        if (changed) {
+            int prev = partitionFor(keyBytes, registeredCount);
+            if (prev != partition && prev < count) previous = prev;
+            warnings.add("Live partition count (" + count + ") differs from the registry (" + registeredCount
+                    + "); records written before the change may be on partition " + prev);
+        } else if (registered.isPresent() && oldest != null
+                && registered.get().getUpdatedAt() != null
+                && registered.get().getUpdatedAt().isAfter(oldest)) {
+            // Partition increases through this console update the registry row, so a registry
+            // change inside the retention window is the only trace we have of one
+            warnings.add("Topic registry changed at " + registered.get().getUpdatedAt()
+                    + ", after the oldest retained record (" + oldest + "); if partitions were increased"
+                    + " then, older records for this key may be on another partition");
+        }
+        if (registered.isEmpty()) {
+            warnings.add("Topic is not in the registry; partition count history unknown");
+        }
+
+        List<Integer> candidates = previous == null ? List.of(partition) : List.of(partition, previous);
+
+        return new SearchDto.KeyLocation(
+                clusterName, topicName, key,
+                partition, count, registeredCount, previous, changed,
+                oldest, candidates, warnings);
+    }
+
+    /** Default partitioner mapping for a non-null key. */
+    public static int partitionFor(byte[] keyBytes, int numPartitions) {
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    /** Timestamp of the oldest retained record across partitions (offsetsForTimes(0) = first record). */
+    private Instant oldestRetainedTimestamp(KafkaConsumer<byte[], byte[]> consumer,
+                                            String topicName, List<PartitionInfo> infos) {
+        try {
+            Map<TopicPartition, Long> query = new HashMap<>();
+            for (PartitionInfo pi : infos) query.put(new TopicPartition(topicName, pi.partition()), 0L);
+
+            long min = Long.MAX_VALUE;
+            for (OffsetAndTimestamp ot : consumer.offsetsForTimes(query).values()) {
+                if (ot != null) min = Math.min(min, ot.timestamp());
+            }
+            return min == Long.MAX_VALUE ? null : Instant.ofEpochMilli(min);
+        } catch (Exception e) {
+            log.debug("Oldest retained timestamp lookup failed topic={}", topicName, e);
+            return null;
+        }
+    }
+
+    private Optional<KafkaTopicEntity> registeredTopic(String clusterName, String topicName) {
+        try {
+            return clusterRepository.findByNameIgnoreCase(clusterName)
+                    .flatMap(c -> topicRepository.findByCluster_IdAndTopicName(c.getId(), topicName));
+        } catch (Exception e) {
+            log.debug("Topic registry lookup failed cluster={} topic={}", clusterName, topicName, e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? t.getClass().getSimpleName() : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+}
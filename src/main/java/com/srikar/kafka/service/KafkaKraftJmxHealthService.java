@@ -1,77 +1,296 @@
 package com.srikar.kafka.service;
 
+import com.srikar.kafka.config.KafkaAdminProperties;
+import jakarta.annotation.PreDestroy;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
+import javax.management.remote.JMXConnectionNotification;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * KRaft controller health over JMX.
+ *
+ * - one long-lived JMXConnector per endpoint (host:port); the RMI handshake is paid once
+ * - connects run outside the pool map on a connect thread bounded by the probe timeout; a connector
+ *   that only arrives after the timeout is closed, and a connect that loses the race is discarded
+ * - connectors are dropped on connection failure/close notifications or I/O errors and
+ *   re-established on the next probe (one retry per probe)
+ * - reads real raft-metrics attributes instead of only counting MBean names
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class KafkaKraftJmxHealthService {
 
+    private static final String RAFT_METRICS = "kafka.server:type=raft-metrics";
+
+    private static final String[] RAFT_ATTRIBUTES = {
+            "current-leader",
+            "current-epoch",
+            "current-state",
+            "high-watermark",
+            "log-end-offset",
+            "commit-latency-avg",
+            "commit-latency-max",
+            "append-records-rate"
+    };
+
+    private final KafkaAdminProperties props;
+
+    // key = host:port
+    private final Map<String, Pooled> connectors = new ConcurrentHashMap<>();
+
+    // RMI connect blocks with no timeout knob; keep it off the common pool
+    private final ExecutorService connectPool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "kafka-jmx-connect");
+        t.setDaemon(true);
+        return t;
+    });
+
     public Result probe(String host, int port, int timeoutMs) {
         String observedAt = Instant.now().toString();
-        String url = "service:jmx:rmi:///jndi/rmi://" + host + ":" + port + "/jmxrmi";
+        String endpoint = host + ":" + port;
 
-        Map<String, Object> env = new HashMap<>();
+        try {
+            try {
+                return read(connection(host, port, timeoutMs), observedAt);
+            } catch (IOException stale) {
+                // Pooled connection died (controller restart, firewall idle cut) → reconnect once
+                log.debug("JMX connection to {} failed, reconnecting", endpoint, stale);
+                drop(endpoint);
+                return read(connection(host, port, timeoutMs), observedAt);
+            }
+        } catch (Exception e) {
+            drop(endpoint);
+            return Result.builder()
+                    .status("DOWN")
+                    .observedAt(observedAt)
+                    .error(e.getClass().getSimpleName() + ": " + safeMsg(e))
+                    .build();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Query layer
+    // -------------------------------------------------------
 
-        try (JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(url), env)) {
-            MBeanServerConnection mbean = connector.getMBeanServerConnection();
+    private Result read(MBeanServerConnection mbean, String observedAt) throws Exception {
 
-            // 1) Quick sanity: how many kafka.* mbeans exist?
-            Set<ObjectName> kafkaAll = mbean.queryNames(new ObjectName("kafka.*:*"), null);
+        Set<ObjectName> raft = mbean.queryNames(new ObjectName(RAFT_METRICS + ",*"), null);
 
-            // 2) KRaft signals: metadata quorum / raft metrics / controller
+        if (raft.isEmpty()) {
+            // Older brokers / unexpected layout: fall back to the MBean sanity check
             Set<ObjectName> quorum = mbean.queryNames(new ObjectName("kafka.server:type=metadata-quorum,*"), null);
-            Set<ObjectName> raft = mbean.queryNames(new ObjectName("kafka.server:type=raft-metrics,*"), null);
             Set<ObjectName> controller = mbean.queryNames(new ObjectName("kafka.controller:*"), null);
 
-            boolean up = !(quorum.isEmpty() && raft.isEmpty() && controller.isEmpty());
-
-            if (up) {
-                String details =
-                        "kafkaMBeans=" + kafkaAll.size() +
-                                ", metadataQuorum=" + quorum.size() +
-                                ", raftMetrics=" + raft.size() +
-                                ", controller=" + controller.size();
-
+            if (quorum.isEmpty() && controller.isEmpty()) {
+                int kafkaAll = mbean.queryNames(new ObjectName("kafka.*:*"), null).size();
                 return Result.builder()
-                        .status("UP")
+                        .status("DOWN")
                         .observedAt(observedAt)
-                        .details(details)
+                        .error("JMX reachable but no KRaft MBeans found. kafkaMBeans=" + kafkaAll)
                         .build();
             }
 
-            // If JMX is reachable but no expected kafka mbeans -> return DOWN with info
             return Result.builder()
-                    .status("DOWN")
+                    .status("UP")
                     .observedAt(observedAt)
-                    .error("JMX reachable but no KRaft MBeans found. kafkaMBeans=" + kafkaAll.size())
+                    .details("metadataQuorum=" + quorum.size() + ", controller=" + controller.size())
                     .build();
+        }
+
+        Map<String, Object> attrs = new HashMap<>();
+        AttributeList list = mbean.getAttributes(raft.iterator().next(), RAFT_ATTRIBUTES);
+        for (Attribute a : list.asList()) {
+            attrs.put(a.getName(), a.getValue());
+        }
+
+        Integer leader = toInt(attrs.get("current-leader"));
+        Long highWatermark = toLong(attrs.get("high-watermark"));
+        Long logEndOffset = toLong(attrs.get("log-end-offset"));
+
+        Long hwLag = (highWatermark != null && logEndOffset != null && highWatermark >= 0)
+                ? Math.max(0L, logEndOffset - highWatermark)
+                : null;
+
+        boolean hasLeader = leader != null && leader >= 0;
+
+        return Result.builder()
+                .status(hasLeader ? "UP" : "DOWN")
+                .observedAt(observedAt)
+                .currentLeader(leader)
+                .currentEpoch(toInt(attrs.get("current-epoch")))
+                .currentState(attrs.get("current-state") == null ? null : String.valueOf(attrs.get("current-state")))
+                .highWatermark(highWatermark)
+                .logEndOffset(logEndOffset)
+                .highWatermarkLag(hwLag)
+                .commitLatencyAvgMs(toDouble(attrs.get("commit-latency-avg")))
+                .commitLatencyMaxMs(toDouble(attrs.get("commit-latency-max")))
+                .appendRecordsRate(toDouble(attrs.get("append-records-rate")))
+                .error(hasLeader ? null : "Metadata quorum has no leader")
+                .build();
+    }
+
+    // -------------------------------------------------------
+    // Connector pool
+    // -------------------------------------------------------
+
+    private MBeanServerConnection connection(String host, int port, int timeoutMs) throws Exception {
+        String endpoint = host + ":" + port;
+
+        Pooled pooled = connectors.get(endpoint);
+        if (pooled == null) {
+            // network I/O outside the map; concurrent probes may both connect, the loser closes its own
+            Pooled fresh = connect(host, port, timeoutMs);
+            Pooled winner = connectors.putIfAbsent(endpoint, fresh);
+            if (winner != null) {
+                closeQuietly(fresh.connector);
+                pooled = winner;
+            } else {
+                pooled = fresh;
+            }
+        }
+        pooled.lastUsedNs = System.nanoTime();
+        return pooled.connection;
+    }
+
+    private Pooled connect(String host, int port, int timeoutMs) {
+        String endpoint = host + ":" + port;
+        String url = "service:jmx:rmi:///jndi/rmi://" + endpoint + "/jmxrmi";
+
+        // RMI connect has no timeout knob → bound it here
+        CompletableFuture<JMXConnector> pending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return JMXConnectorFactory.connect(new JMXServiceURL(url), new HashMap<>());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, connectPool);
+
+        JMXConnector connector = null;
+        try {
+            try {
+                connector = pending.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // nobody waits for it any more: close it whenever it does connect
+                pending.whenComplete((late, err) -> {
+                    if (late != null) closeQuietly(late);
+                });
+                throw e;
+            }
+
+            Pooled pooled = new Pooled(connector, connector.getMBeanServerConnection());
+            connector.addConnectionNotificationListener((notification, handback) -> {
+                String type = notification.getType();
+                if (JMXConnectionNotification.FAILED.equals(type) || JMXConnectionNotification.CLOSED.equals(type)) {
+                    log.info("JMX connection to {} {}, dropping pooled connector", endpoint, type);
+                    // only this connector's entry (a replacement may already be pooled)
+                    if (connectors.remove(endpoint, pooled)) closeQuietly(pooled.connector);
+                }
+            }, null, null);
+
+            log.info("Opened pooled JMX connector to {}", endpoint);
+            return pooled;
 
         } catch (Exception e) {
-            return Result.builder()
-                    .status("DOWN")
-                    .observedAt(observedAt)
-                    .error(e.getClass().getSimpleName() + ": " + safeMsg(e))
-                    .build();
+            if (connector != null) closeQuietly(connector);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException("JMX connect to " + endpoint + " failed: " + safeMsg(cause), cause);
         }
     }
 
+    private void drop(String endpoint) {
+        Pooled removed = connectors.remove(endpoint);
+        if (removed != null) closeQuietly(removed.connector);
+    }
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.control-plane.jmx-sweep-interval-ms:30000}",
+            fixedDelayString = "${oneinfra.kafka.admin.control-plane.jmx-sweep-interval-ms:30000}"
+    )
+    public void sweep() {
+        long idleNs = TimeUnit.MILLISECONDS.toNanos(props.getControlPlane().getJmxIdleTimeoutMs());
+        long now = System.nanoTime();
+
+        connectors.forEach((endpoint, pooled) -> {
+            if (now - pooled.lastUsedNs > idleNs && connectors.remove(endpoint, pooled)) {
+                closeQuietly(pooled.connector);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        connectors.values().forEach(p -> closeQuietly(p.connector));
+        connectors.clear();
+        connectPool.shutdownNow();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private static void closeQuietly(JMXConnector connector) {
+        try {
+            connector.close();
+        } catch (Exception ignored) {
+            // already broken
+        }
+    }
+
+    private static Integer toInt(Object v) {
+        return v instanceof Number n ? (int) n.doubleValue() : null;
+    }
+
+    private static Long toLong(Object v) {
+        return v instanceof Number n ? (long) n.doubleValue() : null;
+    }
+
+    private static Double toDouble(Object v) {
+        if (!(v instanceof Number n)) return null;
+        double d = n.doubleValue();
+        return Double.isNaN(d) || Double.isInfinite(d) ? null : d;
+    }
+
     private static String safeMsg(Throwable t) {
         String m = t.getMessage();
         if (m == null) return "";
         return m.length() > 300 ? m.substring(0, 300) : m;
     }
 
+    private static final class Pooled {
+        private final JMXConnector connector;
+        private final MBeanServerConnection connection;
+        private volatile long lastUsedNs = System.nanoTime();
+
+        private Pooled(JMXConnector connector, MBeanServerConnection connection) {
+            this.connector = connector;
+            this.connection = connection;
+        }
+    }
+
     @Getter
     @Builder
     public static class Result {
@@ -79,5 +298,16 @@ public class KafkaKraftJmxHealthService {
         private String observedAt;
         private String details;
         private String error;
+
+        // raft-metrics (null when not exposed)
+        private Integer currentLeader;
+        private Integer currentEpoch;
+        private String currentState;
+        private Long highWatermark;
+        private Long logEndOffset;
+        private Long highWatermarkLag;
+        private Double commitLatencyAvgMs;
+        private Double commitLatencyMaxMs;
+        private Double appendRecordsRate;
     }
 }
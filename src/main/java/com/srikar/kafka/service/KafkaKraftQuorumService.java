@@ -0,0 +1,167 @@
+package com.srikar.kafka.service;
+
+import com.srikar.kafka.config.KafkaAdminClientRegistry;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.dto.cluster.KafkaKraftQuorumReplicaDto;
+import com.srikar.kafka.enums.KafkaHealthStatus;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeMetadataQuorumOptions;
+import org.apache.kafka.clients.admin.QuorumInfo;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KRaft quorum status over the Kafka protocol (DescribeQuorum via the pooled AdminClient).
+ *
+ * One request returns leader / epoch / high watermark plus per-voter and per-observer
+ * log end offsets and fetch timestamps → follower lag and quorum health, without RMI.
+ */
+@Service
+@RequiredArgsConstructor
+public class KafkaKraftQuorumService {
+
+    private final KafkaAdminClientRegistry adminRegistry;   // ✅ pooled, do NOT close
+    private final KafkaAdminProperties props;
+
+    public Result probe(String bootstrapServers, long timeoutMs) {
+        Instant observedAt = Instant.now();
+
+        try {
+            AdminClient admin = adminRegistry.get(bootstrapServers);
+
+            QuorumInfo q = admin.describeMetadataQuorum(
+                            new DescribeMetadataQuorumOptions().timeoutMs((int) timeoutMs))
+                    .quorumInfo()
+                    .get(timeoutMs, TimeUnit.MILLISECONDS);
+
+            int leaderId = q.leaderId();
+            long leaderLeo = q.voters().stream()
+                    .filter(v -> v.replicaId() == leaderId)
+                    .mapToLong(QuorumInfo.ReplicaState::logEndOffset)
+                    .findFirst()
+                    .orElse(q.highWatermark());
+
+            long nowMs = observedAt.toEpochMilli();
+
+            List<KafkaKraftQuorumReplicaDto> voters = toReplicas(q.voters(), leaderId, leaderLeo, nowMs);
+            List<KafkaKraftQuorumReplicaDto> observers = toReplicas(q.observers(), leaderId, leaderLeo, nowMs);
+
+            long maxFollowerLag = voters.stream()
+                    .filter(v -> !v.getLeader())
+                    .mapToLong(KafkaKraftQuorumReplicaDto::getLag)
+                    .max()
+                    .orElse(0L);
+
+            int caughtUp = (int) voters.stream().filter(KafkaKraftQuorumReplicaDto::getCaughtUp).count();
+            int majority = voters.size() / 2 + 1;
+
+            KafkaHealthStatus status;
+            String error = null;
+            if (leaderId < 0) {
+                status = KafkaHealthStatus.DOWN;
+                error = "Metadata quorum has no leader";
+            } else if (caughtUp == voters.size()) {
+                status = KafkaHealthStatus.UP;
+            } else if (caughtUp >= majority) {
+                status = KafkaHealthStatus.DEGRADED;
+                error = (voters.size() - caughtUp) + " voter(s) lagging";
+            } else {
+                status = KafkaHealthStatus.DOWN;
+                error = "Only " + caughtUp + "/" + voters.size() + " voters caught up (majority " + majority + ")";
+            }
+
+            return Result.builder()
+                    .status(status.name())
+                    .observedAt(observedAt.toString())
+                    .error(error)
+                    .leaderId(leaderId)
+                    .leaderEpoch(q.leaderEpoch())
+                    .highWatermark(q.highWatermark())
+                    .leaderLogEndOffset(leaderLeo)
+                    .voters(voters)
+                    .observers(observers)
+                    .maxFollowerLag(maxFollowerLag)
+                    .votersCaughtUp(caughtUp)
+                    .build();
+
+        } catch (Exception e) {
+            adminRegistry.reportFailure(bootstrapServers, e);
+            return Result.builder()
+                    .status(KafkaHealthStatus.DOWN.name())
+                    .observedAt(observedAt.toString())
+                    .failed(true)
+                    .error(shortError(e))
+                    .build();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private List<KafkaKraftQuorumReplicaDto> toReplicas(List<QuorumInfo.ReplicaState> states,
+                                                        int leaderId, long leaderLeo, long nowMs) {
+        KafkaAdminProperties.ControlPlane cfg = props.getControlPlane();
+
+        List<KafkaKraftQuorumReplicaDto> out = new ArrayList<>(states.size());
+        for (QuorumInfo.ReplicaState s : states) {
+            boolean leader = s.replicaId() == leaderId;
+            long lag = Math.max(0L, leaderLeo - s.logEndOffset());
+
+            Long lastFetch = s.lastFetchTimestamp().isPresent() ? s.lastFetchTimestamp().getAsLong() : null;
+            Long lastCaughtUp = s.lastCaughtUpTimestamp().isPresent() ? s.lastCaughtUpTimestamp().getAsLong() : null;
+            Long fetchAge = lastFetch == null ? null : Math.max(0L, nowMs - lastFetch);
+
+            boolean caughtUp = leader
+                    || (lag <= cfg.getMaxFollowerLag()
+                    && (fetchAge == null || fetchAge <= cfg.getMaxFetchAgeMs()));
+
+            out.add(KafkaKraftQuorumReplicaDto.builder()
+                    .replicaId(s.replicaId())
+                    .leader(leader)
+                    .logEndOffset(s.logEndOffset())
+                    .lag(lag)
+                    .lastFetchTimestamp(lastFetch)
+                    .lastCaughtUpTimestamp(lastCaughtUp)
+                    .lastFetchAgeMs(fetchAge)
+                    .caughtUp(caughtUp)
+                    .build());
+        }
+        out.sort(Comparator.comparing(KafkaKraftQuorumReplicaDto::getReplicaId));
+        return out;
+    }
+
+    private String shortError(Throwable t) {
+        Throwable root = t;
+        while (root.getCause() != null) root = root.getCause();
+        String msg = root.getMessage();
+        if (msg == null || msg.isBlank()) msg = root.getClass().getSimpleName();
+        return msg.length() > 200 ? msg.substring(0, 200) : msg;
+    }
+
+    @Getter
+    @Builder
+    public static class Result {
+        private String status;
+        private String observedAt;
+        private String error;
+        private boolean failed;          // request itself failed (vs. quorum reported unhealthy)
+
+        private Integer leaderId;
+        private Long leaderEpoch;
+        private Long highWatermark;
+        private Long leaderLogEndOffset;
+        private List<KafkaKraftQuorumReplicaDto> voters;
+        private List<KafkaKraftQuorumReplicaDto> observers;
+        private Long maxFollowerLag;
+        private Integer votersCaughtUp;
+    }
+}
@@ -0,0 +1,486 @@
+package com.srikar.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
+import com.srikar.kafka.dto.consumer.SearchDto;
+import com.srikar.kafka.exception.ResourceNotFoundException;
+import com.srikar.kafka.exception.ServiceBusyException;
+import com.srikar.kafka.utilities.ConsumerPartitions;
+import com.srikar.kafka.utilities.ConsumerRecordMapper;
+import com.srikar.kafka.utilities.RecordPredicates;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Server-side message search as an async job.
+ *
+ * - range (start/end offsets per partition) is resolved up front with one pooled consumer;
+ *   the end is fixed at start, so a search over a hot topic still terminates
+ * - partitions are spread across up to max-groups-per-job groups, each scanned by its own
+ *   dedicated consumer on the shared scanner pool → partitions are read in parallel
+ * - predicates are evaluated here, only matches are kept (capped by limit)
+ * - a key lookup (key set, no partitions) scans only the key's partition(s), see KafkaKeyLocatorService
+ * - first of limit reached / byte budget / time budget / cancel stops every group (wakeup)
+ *
+ * Jobs live in memory on this node; finished jobs are evicted after job-ttl-ms.
+ */
+@Slf4j
+@Service
+public class KafkaMessageSearchService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final KafkaConsumerPool consumerPool;
+    private final KafkaKeyLocatorService keyLocator;
+    private final KafkaAdminProperties props;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService scanners;
+    private final Semaphore jobPermits;
+
+    public KafkaMessageSearchService(KafkaConsumerPool consumerPool,
+                                     KafkaKeyLocatorService keyLocator,
+                                     KafkaAdminProperties props,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.consumerPool = consumerPool;
+        this.keyLocator = keyLocator;
+        this.props = props;
+        this.objectMapper = objectMapper;
+
+        KafkaAdminProperties.Search cfg = props.getSearch();
+        AtomicInteger seq = new AtomicInteger();
+        this.scanners = Executors.newFixedThreadPool(Math.max(1, cfg.getThreads()), r -> {
+            Thread t = new Thread(r, "kafka-search-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.jobPermits = new Semaphore(Math.max(1, cfg.getMaxConcurrentJobs()));
+
+        Gauge.builder("oneinfra.kafka.console.search.jobs.running", jobs,
+                        m -> m.values().stream().filter(j -> j.finishedAt == null).count())
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // API
+    // -------------------------------------------------------
+
+    public SearchDto.SearchProgress start(SearchDto.SearchRequest req) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (isBlank(req.clusterName())) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(req.topicName())) throw new IllegalArgumentException("topicName is required");
+
+        // Compile first: a bad regex / pointer is a 400 before any Kafka work
+        Predicate<ConsumerRecord<byte[], byte[]>> predicate = RecordPredicates.compile(req, objectMapper);
+
+        KafkaAdminProperties.Search cfg = props.getSearch();
+        String clusterName = req.clusterName().trim();
+        String topicName = req.topicName().trim();
+
+        if (!jobPermits.tryAcquire()) {
+            throw new ServiceBusyException(
+                    "Too many searches in progress (max " + cfg.getMaxConcurrentJobs() + ")");
+        }
+
+        Job job;
+        try {
+            Plan plan = resolvePlan(clusterName, topicName, req);
+
+            job = new Job(
+                    UUID.randomUUID().toString(),
+                    clusterName,
+                    topicName,
+                    predicate,
+                    plan.ranges(),
+                    plan.keyLocation(),
+                    clampInt(req.limit(), 1, cfg.getMaxLimit()),
+                    clampLong(req.maxScanBytes(), 1, cfg.getMaxScanBytes()),
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+                            clampLong(req.maxDurationMs(), 1, cfg.getMaxDurationMs()))
+            );
+            jobs.put(job.id, job);
+
+            List<CompletableFuture<Void>> groups = new ArrayList<>();
+            for (List<Range> group : partitionGroups(job.ranges, cfg.getMaxGroupsPerJob())) {
+                groups.add(CompletableFuture.runAsync(() -> scanGroup(job, group), scanners));
+            }
+
+            CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new))
+                    .whenComplete((v, t) -> {
+                        job.status.compareAndSet(SearchDto.Status.RUNNING, SearchDto.Status.COMPLETED);
+                        job.finishedAt = Instant.now();
+                        jobPermits.release();
+                        log.info("Search {} finished cluster={} topic={} status={} scanned={} matched={}",
+                                job.id, clusterName, topicName, job.status.get(),
+                                job.scannedRecords.get(), job.matchCount());
+                    });
+
+        } catch (RuntimeException e) {
+            jobPermits.release();
+            throw e;
+        }
+
+        return job.snapshot();
+    }
+
+    public SearchDto.SearchProgress get(String jobId) {
+        return find(jobId).snapshot();
+    }
+
+    public SearchDto.SearchProgress cancel(String jobId) {
+        Job job = find(jobId);
+        job.stop(SearchDto.Status.CANCELLED, null);
+        return job.snapshot();
+    }
+
+    private Job find(String jobId) {
+        Job job = jobId == null ? null : jobs.get(jobId);
+        if (job == null) throw new ResourceNotFoundException("Search job not found: " + jobId);
+        return job;
+    }
+
+    // -------------------------------------------------------
+    // Range resolution (one pooled consumer, metadata only)
+    // -------------------------------------------------------
+
+    private Plan resolvePlan(String clusterName, String topicName, SearchDto.SearchRequest req) {
+        try (KafkaConsumerPool.Lease lease = consumerPool.borrow(clusterName)) {
+            KafkaConsumer<byte[], byte[]> c = lease.consumer();
+
+            // Key lookup without explicit partitions → only the key's partition(s)
+            SearchDto.KeyLocation location = null;
+            List<Integer> partitions = req.partitions();
+            if (req.key() != null && !req.key().isEmpty() && (partitions == null || partitions.isEmpty())) {
+                location = keyLocator.locate(c, clusterName, topicName, req.key());
+                partitions = location.candidatePartitions();
+            }
+
+            List<TopicPartition> tps = ConsumerPartitions.resolve(c, topicName, partitions);
+            if (tps.isEmpty()) throw new IllegalArgumentException("No partitions found for topic " + topicName);
+
+            Map<TopicPartition, Long> begin = c.beginningOffsets(tps);
+            Map<TopicPartition, Long> end = c.endOffsets(tps);
+            Map<TopicPartition, OffsetAndTimestamp> startByTime = req.startTimestampMs() == null
+                    ? Map.of() : nonNull(c.offsetsForTimes(timestamps(tps, req.startTimestampMs())));
+            Map<TopicPartition, OffsetAndTimestamp> endByTime = req.endTimestampMs() == null
+                    ? Map.of() : nonNull(c.offsetsForTimes(timestamps(tps, req.endTimestampMs())));
+
+            List<Range> ranges = new ArrayList<>(tps.size());
+            for (TopicPartition tp : tps) {
+                long lo = begin.getOrDefault(tp, 0L);
+                long hi = end.getOrDefault(tp, 0L);
+
+                long from = lo;
+                if (req.startOffset() != null) from = Math.max(lo, req.startOffset());
+                else if (req.startTimestampMs() != null) {
+                    OffsetAndTimestamp ot = startByTime.get(tp);
+                    from = ot == null ? hi : ot.offset();   // nothing at/after start time
+                }
+
+                long to = hi;
+                if (req.endOffset() != null) to = Math.min(hi, req.endOffset());
+                if (req.endTimestampMs() != null) {
+                    OffsetAndTimestamp ot = endByTime.get(tp);
+                    if (ot != null) to = Math.min(to, ot.offset());
+                }
+
+                ranges.add(new Range(tp, from, Math.max(from, to)));
+            }
+            return new Plan(ranges, location);
+
+        } catch (IllegalArgumentException | ServiceBusyException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Search range resolution failed: " + safeMsg(e), e);
+        }
+    }
+
+    private Map<TopicPartition, Long> timestamps(List<TopicPartition> tps, long ts) {
+        Map<TopicPartition, Long> m = new HashMap<>();
+        for (TopicPartition tp : tps) m.put(tp, ts);
+        return m;
+    }
+
+    private Map<TopicPartition, OffsetAndTimestamp> nonNull(Map<TopicPartition, OffsetAndTimestamp> m) {
+        Map<TopicPartition, OffsetAndTimestamp> out = new HashMap<>();
+        m.forEach((k, v) -> { if (v != null) out.put(k, v); });
+        return out;
+    }
+
+    /** Round-robin non-empty ranges into at most maxGroups groups. */
+    private List<List<Range>> partitionGroups(List<Range> ranges, int maxGroups) {
+        List<Range> work = ranges.stream().filter(r -> !r.done).toList();
+        int n = Math.max(1, Math.min(maxGroups, work.size()));
+
+        List<List<Range>> groups = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) groups.add(new ArrayList<>());
+        for (int i = 0; i < work.size(); i++) groups.get(i % n).add(work.get(i));
+        return groups.stream().filter(g -> !g.isEmpty()).toList();
+    }
+
+    // -------------------------------------------------------
+    // Scan loop (one dedicated consumer per group)
+    // -------------------------------------------------------
+
+    private void scanGroup(Job job, List<Range> group) {
+        if (!job.running()) return;
+
+        KafkaConsumer<byte[], byte[]> consumer;
+        try {
+            consumer = consumerPool.openDedicated(job.clusterName);
+        } catch (Exception e) {
+            job.stop(SearchDto.Status.FAILED, safeMsg(e));
+            return;
+        }
+        job.consumers.add(consumer);
+
+        try {
+            Map<TopicPartition, Range> byTp = new HashMap<>();
+            for (Range r : group) byTp.put(r.tp, r);
+
+            consumer.assign(byTp.keySet());
+            for (Range r : group) consumer.seek(r.tp, r.start);
+
+            while (job.running() && byTp.values().stream().anyMatch(r -> !r.done)) {
+
+                if (System.nanoTime() > job.deadlineNs) {
+                    job.stop(SearchDto.Status.BUDGET_EXHAUSTED, "time budget exhausted");
+                    break;
+                }
+
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+
+                for (TopicPartition tp : records.partitions()) {
+                    if (!job.running()) break;
+                    Range range = byTp.get(tp);
+                    if (range.done) continue;
+
+                    long bytes = 0;
+                    long count = 0;
+                    for (ConsumerRecord<byte[], byte[]> r : records.records(tp)) {
+                        if (r.offset() >= range.end) break;
+
+                        count++;
+                        Integer size = ConsumerRecordMapper.sizeBytes(r);
+                        bytes += size == null ? 0 : size;
+                        range.position = r.offset() + 1;
+
+                        if (job.predicate.test(r) && !job.addMatch(ConsumerRecordMapper.toRecordDto(r, props.getConsumerPool().getPreviewBytes()))) {
+                            break;   // limit reached
+                        }
+                    }
+                    job.scannedRecords.addAndGet(count);
+                    if (job.scannedBytes.addAndGet(bytes) >= job.maxScanBytes) {
+                        job.stop(SearchDto.Status.BUDGET_EXHAUSTED, "scan byte budget exhausted");
+                    }
+                }
+                if (!job.running()) break;
+
+                // Position (not last record) so compaction / txn-marker gaps also complete a partition
+                List<TopicPartition> finished = new ArrayList<>();
+                for (Range r : byTp.values()) {
+                    if (r.done) continue;
+                    long pos = consumer.position(r.tp);
+                    r.position = Math.max(r.position, Math.min(pos, r.end));
+                    if (pos >= r.end) {
+                        r.done = true;
+                        finished.add(r.tp);
+                    }
+                }
+                if (!finished.isEmpty()) consumer.pause(finished);
+            }
+
+        } catch (WakeupException ignored) {
+            // stop() from another group / cancel
+        } catch (Exception e) {
+            log.warn("Search {} group failed cluster={} topic={}", job.id, job.clusterName, job.topicName, e);
+            job.stop(SearchDto.Status.FAILED, safeMsg(e));
+        } finally {
+            job.consumers.remove(consumer);
+            closeQuietly(consumer);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Eviction / shutdown
+    // -------------------------------------------------------
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.search.sweep-interval-ms:60000}",
+            fixedDelayString = "${oneinfra.kafka.admin.search.sweep-interval-ms:60000}"
+    )
+    public void sweep() {
+        Instant cutoff = Instant.now().minusMillis(props.getSearch().getJobTtlMs());
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(j -> j.stop(SearchDto.Status.CANCELLED, "shutdown"));
+        scanners.shutdownNow();
+    }
+
+    private void closeQuietly(KafkaConsumer<byte[], byte[]> consumer) {
+        try {
+            consumer.close(Duration.ofSeconds(2));
+        } catch (Exception e) {
+            log.debug("Search consumer close failed", e);
+        }
+    }
+
+    private int clampInt(Integer value, int min, int max) {
+        if (value == null) return Math.min(100, max);
+        return Math.max(min, Math.min(value, max));
+    }
+
+    private long clampLong(Long value, long min, long max) {
+        if (value == null) return max;
+        return Math.max(min, Math.min(value, max));
+    }
+
+    private boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? t.getClass().getSimpleName() : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+
+    // -------------------------------------------------------
+    // Job state
+    // -------------------------------------------------------
+
+    private record Plan(List<Range> ranges, SearchDto.KeyLocation keyLocation) {}
+
+    private static final class Range {
+        private final TopicPartition tp;
+        private final long start;
+        private final long end;               // exclusive
+        private volatile long position;
+        private volatile boolean done;
+
+        private Range(TopicPartition tp, long start, long end) {
+            this.tp = tp;
+            this.start = start;
+            this.end = end;
+            this.position = start;
+            this.done = start >= end;
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String clusterName;
+        private final String topicName;
+        private final Predicate<ConsumerRecord<byte[], byte[]>> predicate;
+        private final List<Range> ranges;
+        private final SearchDto.KeyLocation keyLocation;
+        private final int limit;
+        private final long maxScanBytes;
+        private final long deadlineNs;
+
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private final AtomicReference<SearchDto.Status> status = new AtomicReference<>(SearchDto.Status.RUNNING);
+        private volatile String error;
+
+        private final AtomicLong scannedRecords = new AtomicLong();
+        private final AtomicLong scannedBytes = new AtomicLong();
+        private final List<ConsumerRecordDto> matches = new ArrayList<>();
+        private final List<KafkaConsumer<byte[], byte[]>> consumers = new CopyOnWriteArrayList<>();
+
+        private Job(String id, String clusterName, String topicName,
+                    Predicate<ConsumerRecord<byte[], byte[]>> predicate, List<Range> ranges,
+                    SearchDto.KeyLocation keyLocation, int limit, long maxScanBytes, long deadlineNs) {
+            this.id = id;
+            this.clusterName = clusterName;
+            this.topicName = topicName;
+            this.predicate = predicate;
+            this.ranges = ranges;
+            this.keyLocation = keyLocation;
+            this.limit = limit;
+            this.maxScanBytes = maxScanBytes;
+            this.deadlineNs = deadlineNs;
+        }
+
+        private boolean running() {
+            return status.get() == SearchDto.Status.RUNNING;
+        }
+
+        /** First terminal status wins; wakes every group's consumer out of poll(). */
+        private void stop(SearchDto.Status terminal, String reason) {
+            if (!status.compareAndSet(SearchDto.Status.RUNNING, terminal)) return;
+            if (terminal == SearchDto.Status.FAILED) error = reason;
+            consumers.forEach(KafkaConsumer::wakeup);
+        }
+
+        /** @return false once the limit is reached (caller stops scanning). */
+        private boolean addMatch(ConsumerRecordDto dto) {
+            synchronized (matches) {
+                if (matches.size() >= limit) return false;
+                matches.add(dto);
+                if (matches.size() < limit) return true;
+            }
+            stop(SearchDto.Status.LIMIT_REACHED, null);
+            return false;
+        }
+
+        private int matchCount() {
+            synchronized (matches) {
+                return matches.size();
+            }
+        }
+
+        private SearchDto.SearchProgress snapshot() {
+            List<SearchDto.PartitionProgress> partitions = ranges.stream()
+                    .map(r -> new SearchDto.PartitionProgress(r.tp.partition(), r.start, r.end, r.position, r.done))
+                    .toList();
+            long total = ranges.stream().mapToLong(r -> r.end - r.start).sum();
+
+            List<ConsumerRecordDto> found;
+            synchronized (matches) {
+                found = List.copyOf(matches);
+            }
+
+            return new SearchDto.SearchProgress(
+                    id, clusterName, topicName, status.get(),
+                    scannedRecords.get(), scannedBytes.get(), total, found.size(),
+                    startedAt, finishedAt, error, partitions, keyLocation, found);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.srikar.kafka.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.db.KafkaClusterRepository;
+import com.srikar.kafka.db.KafkaSchemaSubjectRepository;
+import com.srikar.kafka.db.KafkaSchemaVersionRepository;
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
+import com.srikar.kafka.dto.schema.SchemaPart;
+import com.srikar.kafka.utilities.AvroBinaryDecoder;
+import com.srikar.kafka.utilities.ConsumerRecordMapper;
+import com.srikar.kafka.utilities.ProtobufWireDecoder;
+import com.srikar.kafka.utilities.SchemaSubjects;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Value decoders for console reads (UTF-8, JSON, Avro, Protobuf).
+ *
+ * resolve() runs once per request: it picks the decoder (request → per-topic default → NONE),
+ * looks up the topic's registry subject (cached for decoders.subject-ttl-ms) and returns a
+ * decoder compiled once per schema fingerprint (LRU, decoders.max-compiled). Per record only
+ * the compiled decoder runs.
+ *
+ * apply() never throws: a record that doesn't decode keeps its raw value and gets decodeError.
+ *
+ * Schema-registry framed payloads (magic byte 0 + 4-byte schema id) are unwrapped; the id is not
+ * looked up (the registry here versions by subject, not by global id), the subject's latest
+ * version is used.
+ */
+@Slf4j
+@Service
+public class KafkaPayloadDecoderService {
+
+    /** Compiled, thread-safe, reused for every record of a request. */
+    public interface ValueDecoder {
+        String name();
+
+        JsonNode decode(byte[] value) throws Exception;
+    }
+
+    private static final byte MAGIC = 0;
+    private static final int FRAME_HEADER_BYTES = 5;
+
+    private final KafkaAdminProperties props;
+    private final KafkaClusterRepository clusterRepository;
+    private final KafkaSchemaSubjectRepository subjectRepository;
+    private final KafkaSchemaVersionRepository versionRepository;
+    private final ObjectMapper objectMapper;
+
+    private final ValueDecoder utf8;
+    private final ValueDecoder json;
+    private final ValueDecoder protobuf;
+    private final ValueDecoder sniff;
+
+    // cluster|subject → latest schema (or none), short-lived
+    private final Map<String, SubjectEntry> subjects = new ConcurrentHashMap<>();
+    // schema fingerprint → compiled decoder (access order = LRU)
+    private final LinkedHashMap<String, ValueDecoder> compiled = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final Counter failures;
+
+    public KafkaPayloadDecoderService(KafkaAdminProperties props,
+                                      KafkaClusterRepository clusterRepository,
+                                      KafkaSchemaSubjectRepository subjectRepository,
+                                      KafkaSchemaVersionRepository versionRepository,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.props = props;
+        this.clusterRepository = clusterRepository;
+        this.subjectRepository = subjectRepository;
+        this.versionRepository = versionRepository;
+        this.objectMapper = objectMapper;
+
+        this.utf8 = named("utf8", v -> {
+            if (!ConsumerRecordMapper.isUtf8(v, v.length)) throw new IllegalArgumentException("Not valid UTF-8");
+            return objectMapper.getNodeFactory().textNode(new String(v, StandardCharsets.UTF_8));
+        });
+        this.json = named("json", v -> {
+            int from = framed(v) ? FRAME_HEADER_BYTES : 0;   // JSON text never starts with 0x00
+            return objectMapper.readTree(v, from, v.length - from);
+        });
+        this.protobuf = named("protobuf", ProtobufWireDecoder::decode);
+        this.sniff = named("auto", v -> {
+            int first = firstNonWhitespace(v);
+            if (first >= 0 && (v[first] == '{' || v[first] == '[')) {
+                try {
+                    return json.decode(v);
+                } catch (Exception notJson) {
+                    // fall through to text
+                }
+            }
+            return utf8.decode(v);
+        });
+
+        this.failures = Counter.builder("oneinfra.kafka.console.decode.failures")
+                .register(meterRegistry);
+        Gauge.builder("oneinfra.kafka.console.decoders.compiled", this, s -> s.compiledCount())
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // API
+    // -------------------------------------------------------
+
+    /** null = no decoding (NONE). Explicit AVRO without a registered Avro subject is a request error. */
+    public ValueDecoder resolve(String clusterName, String topicName, ConsumerDto.PayloadDecoder requested) {
+        ConsumerDto.PayloadDecoder mode = requested != null ? requested : topicDefault(topicName);
+
+        switch (mode) {
+            case NONE:
+                return null;
+            case UTF8:
+                return utf8;
+            case JSON:
+                return json;
+            case PROTOBUF:
+                return protobuf;
+            case AVRO: {
+                SubjectSchema schema = subjectSchema(clusterName, topicName).orElse(null);
+                if (schema == null || !"AVRO".equals(schema.type())) {
+                    throw new IllegalArgumentException("No Avro schema registered for subject "
+                            + SchemaSubjects.topicSubject(topicName, SchemaPart.VALUE));
+                }
+                return avro(schema);
+            }
+            default: {
+                // AUTO: registry subject decides, else sniff per record
+                SubjectSchema schema = subjectSchema(clusterName, topicName).orElse(null);
+                if (schema == null) return sniff;
+                return switch (schema.type()) {
+                    case "AVRO" -> avroOrSniff(schema, topicName);
+                    case "PROTOBUF" -> protobuf;
+                    default -> json;   // JSON / JSON_SCHEMA
+                };
+            }
+        }
+    }
+
+    /** Decodes the full value into the DTO; failures are recorded on the record, never thrown. */
+    public ConsumerRecordDto apply(ConsumerRecordDto dto, byte[] value, ValueDecoder decoder) {
+        if (decoder == null || value == null) return dto;
+        try {
+            return dto.withDecoded(decoder.decode(value), decoder.name(), null);
+        } catch (Exception e) {
+            failures.increment();
+            return dto.withDecoded(null, decoder.name(), safeMsg(e));
+        }
+    }
+
+    // -------------------------------------------------------
+    // Registry lookups + compiled cache
+    // -------------------------------------------------------
+
+    private ConsumerDto.PayloadDecoder topicDefault(String topicName) {
+        String configured = props.getDecoders().getTopics().get(topicName);
+        if (configured == null || configured.isBlank()) return ConsumerDto.PayloadDecoder.NONE;
+        try {
+            return ConsumerDto.PayloadDecoder.valueOf(configured.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unknown decoder '{}' configured for topic {}", configured, topicName);
+            return ConsumerDto.PayloadDecoder.NONE;
+        }
+    }
+
+    private Optional<SubjectSchema> subjectSchema(String clusterName, String topicName) {
+        String subject = SchemaSubjects.topicSubject(topicName, SchemaPart.VALUE);
+        String key = clusterName.toLowerCase(Locale.ROOT) + "|" + subject;
+        long now = System.currentTimeMillis();
+
+        SubjectEntry cached = subjects.get(key);
+        if (cached != null && cached.expiresAtMs() > now) return cached.schema();
+
+        Optional<SubjectSchema> schema;
+        try {
+            schema = clusterRepository.findByNameIgnoreCase(clusterName)
+                    .flatMap(c -> subjectRepository.findByClusterIdAndSubject(c.getId(), subject))
+                    .filter(s -> s.isEnabled())
+                    .flatMap(s -> versionRepository.findFirstBySubjectIdOrderByVersionDesc(s.getId())
+                            .map(v -> new SubjectSchema(s.getSchemaType().trim().toUpperCase(Locale.ROOT),
+                                    v.getSchemaHash(), v.getSchemaRaw())));
+        } catch (Exception e) {
+            // registry down: decode without it rather than failing the read
+            log.debug("Schema lookup failed cluster={} subject={}", clusterName, subject, e);
+            return Optional.empty();
+        }
+
+        subjects.put(key, new SubjectEntry(schema, now + props.getDecoders().getSubjectTtlMs()));
+        return schema;
+    }
+
+    /** AUTO is best effort: a registered schema we can't compile shouldn't fail the read. */
+    private ValueDecoder avroOrSniff(SubjectSchema schema, String topicName) {
+        try {
+            return avro(schema);
+        } catch (IllegalArgumentException e) {
+            log.debug("Falling back to sniffing for topic {}: {}", topicName, e.getMessage());
+            return sniff;
+        }
+    }
+
+    private ValueDecoder avro(SubjectSchema schema) {
+        synchronized (compiled) {
+            ValueDecoder d = compiled.get(schema.fingerprint());
+            if (d != null) return d;
+        }
+
+        AvroBinaryDecoder reader;
+        try {
+            reader = AvroBinaryDecoder.compile(objectMapper.readTree(schema.text()));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Registered Avro schema can't be compiled: " + safeMsg(e));
+        }
+        ValueDecoder d = named("avro", v -> {
+            if (framed(v)) {
+                try {
+                    return reader.decode(v, FRAME_HEADER_BYTES);
+                } catch (IllegalArgumentException unframed) {
+                    // a plain datum can start with 0 too
+                }
+            }
+            return reader.decode(v, 0);
+        });
+
+        synchronized (compiled) {
+            compiled.put(schema.fingerprint(), d);
+            int max = props.getDecoders().getMaxCompiled();
+            var it = compiled.keySet().iterator();
+            while (compiled.size() > max && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        return d;
+    }
+
+    private int compiledCount() {
+        synchronized (compiled) {
+            return compiled.size();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private interface DecodeFn {
+        JsonNode decode(byte[] value) throws Exception;
+    }
+
+    private static ValueDecoder named(String name, DecodeFn fn) {
+        return new ValueDecoder() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public JsonNode decode(byte[] value) throws Exception {
+                return fn.decode(value);
+            }
+        };
+    }
+
+    private static boolean framed(byte[] v) {
+        return v.length > FRAME_HEADER_BYTES && v[0] == MAGIC;
+    }
+
+    private static int firstNonWhitespace(byte[] v) {
+        for (int i = 0; i < v.length; i++) {
+            if (!Character.isWhitespace(v[i])) return i;
+        }
+        return -1;
+    }
+
+    private String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? t.getClass().getSimpleName() : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+
+    private record SubjectSchema(String type, String fingerprint, String text) {}
+
+    private record SubjectEntry(Optional<SubjectSchema> schema, long expiresAtMs) {}
+}
@@ -0,0 +1,697 @@
+package com.srikar.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.config.KafkaProducerRegistry;
+import com.srikar.kafka.db.KafkaPerfRunRepository;
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+import com.srikar.kafka.dto.perf.PerfDto;
+import com.srikar.kafka.entity.KafkaPerfRunEntity;
+import com.srikar.kafka.exception.ResourceNotFoundException;
+import com.srikar.kafka.exception.ServiceBusyException;
+import com.srikar.kafka.utilities.LatencyHistogram;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Built-in perf runs, so validating a cluster's throughput doesn't need a shell on a broker.
+ *
+ * Producer run (kafka-producer-perf-test equivalent):
+ * - dedicated producer from the same client config as the console (bootstrap + SSL), with the
+ *   run's acks / compression / linger / batch size
+ * - fixed random payload, keys cycled over keyCardinality, optional target rate
+ * - latency = send() → callback, in a log-linear histogram; acknowledged records / bytes per second
+ *
+ * Consumer run (kafka-consumer-perf-test equivalent):
+ * - all partitions assigned round-robin over N dedicated consumers (console consumer config, so the
+ *   same SSL setup), each on its own worker thread; manual assign, nothing committed
+ * - start at earliest / latest / timestamp; stop at record / byte budget, duration, or the end
+ *   offsets captured at start
+ * - latency = poll() calls that returned records; per-partition counts give the skew
+ *
+ * Runs are async jobs (GET for live progress, DELETE to cancel); the final report is stored in
+ * kafka_perf_runs so clusters can be compared over time.
+ */
+@Slf4j
+@Service
+public class KafkaPerfService {
+
+    public static final String PRODUCER = "PRODUCER";
+    public static final String CONSUMER = "CONSUMER";
+
+    private static final Set<String> ACKS = Set.of("all", "-1", "1", "0");
+    private static final Set<String> COMPRESSION = Set.of("none", "gzip", "snappy", "lz4", "zstd");
+    private static final int MAX_PRECOMPUTED_KEYS = 65536;
+
+    private final KafkaProducerRegistry producerRegistry;
+    private final KafkaConsumerPool consumerPool;
+    private final KafkaPerfRunRepository runRepository;
+    private final KafkaAdminProperties props;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final ExecutorService runners;
+    private final ExecutorService consumerWorkers;
+    private final Semaphore runPermits;
+
+    public KafkaPerfService(KafkaProducerRegistry producerRegistry,
+                            KafkaConsumerPool consumerPool,
+                            KafkaPerfRunRepository runRepository,
+                            KafkaAdminProperties props,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.producerRegistry = producerRegistry;
+        this.consumerPool = consumerPool;
+        this.runRepository = runRepository;
+        this.props = props;
+        this.objectMapper = objectMapper;
+
+        int max = Math.max(1, props.getPerf().getMaxConcurrentRuns());
+        AtomicInteger seq = new AtomicInteger();
+        this.runners = Executors.newFixedThreadPool(max, r -> {
+            Thread t = new Thread(r, "kafka-perf-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.runPermits = new Semaphore(max);
+
+        // bounded by runPermits × maxConsumersPerRun
+        AtomicInteger workerSeq = new AtomicInteger();
+        this.consumerWorkers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "kafka-perf-consumer-" + workerSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("oneinfra.kafka.perf.runs.running", runs,
+                        m -> m.values().stream().filter(Run::running).count())
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // API
+    // -------------------------------------------------------
+
+    public PerfDto.RunReport startProducerRun(PerfDto.ProducerRunRequest req) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (isBlank(req.clusterName())) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(req.topicName())) throw new IllegalArgumentException("topicName is required");
+        if (req.durationMs() == null && req.numRecords() == null) {
+            throw new IllegalArgumentException("durationMs or numRecords is required");
+        }
+
+        KafkaAdminProperties.Perf cfg = props.getPerf();
+        String acks = isBlank(req.acks()) ? "all" : req.acks().trim().toLowerCase(Locale.ROOT);
+        String compression = isBlank(req.compression()) ? "none" : req.compression().trim().toLowerCase(Locale.ROOT);
+        if (!ACKS.contains(acks)) throw new IllegalArgumentException("acks must be one of " + ACKS);
+        if (!COMPRESSION.contains(compression)) throw new IllegalArgumentException("compression must be one of " + COMPRESSION);
+
+        // effective config (defaults + clamps) is what gets reported and stored
+        PerfDto.ProducerRunRequest run = new PerfDto.ProducerRunRequest(
+                req.clusterName().trim(),
+                req.topicName().trim(),
+                clampLong(req.durationMs(), 1, cfg.getMaxDurationMs(), cfg.getMaxDurationMs()),
+                req.numRecords() == null ? null : Math.max(1, req.numRecords()),
+                req.recordsPerSec() == null || req.recordsPerSec() <= 0 ? null : req.recordsPerSec(),
+                clampInt(req.recordSize(), 0, cfg.getMaxRecordSize(), 100),
+                req.keyCardinality() == null || req.keyCardinality() <= 0 ? null : req.keyCardinality(),
+                acks,
+                compression,
+                clampInt(req.lingerMs(), 0, 60000, 5),
+                clampInt(req.batchSize(), 0, 16 * 1024 * 1024, 64 * 1024),
+                req.label()
+        );
+
+        Run job = new Run(PRODUCER, run.clusterName(), run.topicName(), run.label(), run);
+        return submit(job, () -> produce(job, run));
+    }
+
+    public PerfDto.RunReport startConsumerRun(PerfDto.ConsumerRunRequest req) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (isBlank(req.clusterName())) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(req.topicName())) throw new IllegalArgumentException("topicName is required");
+
+        ConsumerDto.Position position = req.position() == null ? ConsumerDto.Position.EARLIEST : req.position();
+        if (position != ConsumerDto.Position.EARLIEST
+                && position != ConsumerDto.Position.LATEST
+                && position != ConsumerDto.Position.TIMESTAMP) {
+            throw new IllegalArgumentException("position must be EARLIEST, LATEST or TIMESTAMP");
+        }
+        if (position == ConsumerDto.Position.TIMESTAMP && req.timestamp() == null) {
+            throw new IllegalArgumentException("timestamp is required for position=TIMESTAMP");
+        }
+
+        KafkaAdminProperties.Perf cfg = props.getPerf();
+        PerfDto.ConsumerRunRequest run = new PerfDto.ConsumerRunRequest(
+                req.clusterName().trim(),
+                req.topicName().trim(),
+                clampInt(req.numConsumers(), 1, cfg.getMaxConsumersPerRun(), 1),
+                position,
+                position == ConsumerDto.Position.TIMESTAMP ? req.timestamp() : null,
+                req.numRecords() == null || req.numRecords() <= 0 ? null : req.numRecords(),
+                req.maxBytes() == null || req.maxBytes() <= 0 ? null : req.maxBytes(),
+                clampLong(req.durationMs(), 1, cfg.getMaxDurationMs(), cfg.getMaxDurationMs()),
+                // reading from latest never "reaches" the end captured at start
+                position != ConsumerDto.Position.LATEST && !Boolean.FALSE.equals(req.stopAtEnd()),
+                req.label()
+        );
+
+        Run job = new Run(CONSUMER, run.clusterName(), run.topicName(), run.label(), run);
+        return submit(job, () -> consume(job, run));
+    }
+
+    public PerfDto.RunReport get(String runId) {
+        Run run = runId == null ? null : runs.get(runId);
+        if (run != null) return run.report();
+
+        return stored(runId).orElseThrow(() -> new ResourceNotFoundException("Perf run not found: " + runId));
+    }
+
+    public PerfDto.RunReport cancel(String runId) {
+        Run run = runId == null ? null : runs.get(runId);
+        if (run == null) throw new ResourceNotFoundException("Perf run not running: " + runId);
+        run.status.compareAndSet(PerfDto.Status.RUNNING, PerfDto.Status.CANCELLED);
+        return run.report();
+    }
+
+    /** Stored runs, newest first (last 50). */
+    public List<PerfDto.RunReport> history(String clusterName, String topicName) {
+        if (isBlank(clusterName)) throw new IllegalArgumentException("clusterName is required");
+
+        List<KafkaPerfRunEntity> rows = isBlank(topicName)
+                ? runRepository.findTop50ByClusterNameIgnoreCaseOrderByStartedAtDesc(clusterName.trim())
+                : runRepository.findTop50ByClusterNameIgnoreCaseAndTopicNameOrderByStartedAtDesc(
+                        clusterName.trim(), topicName.trim());
+
+        List<PerfDto.RunReport> out = new ArrayList<>(rows.size());
+        for (KafkaPerfRunEntity row : rows) {
+            PerfDto.RunReport r = parse(row);
+            if (r != null) out.add(r);
+        }
+        return out;
+    }
+
+    // -------------------------------------------------------
+    // Run lifecycle
+    // -------------------------------------------------------
+
+    private PerfDto.RunReport submit(Run run, RunBody body) {
+        if (!runPermits.tryAcquire()) {
+            throw new ServiceBusyException(
+                    "Too many perf runs in progress (max " + props.getPerf().getMaxConcurrentRuns() + ")");
+        }
+
+        runs.put(run.id, run);
+        try {
+            runners.execute(() -> {
+                try {
+                    body.run();
+                    run.status.compareAndSet(PerfDto.Status.RUNNING, PerfDto.Status.COMPLETED);
+                } catch (Exception e) {
+                    log.warn("Perf run {} failed: {}", run.id, e.toString());
+                    run.fail(safeMsg(e));
+                } finally {
+                    run.finishedAt = Instant.now();
+                    runPermits.release();
+                    persist(run);
+                }
+            });
+        } catch (RuntimeException e) {
+            runs.remove(run.id);
+            runPermits.release();
+            throw e;
+        }
+        return run.report();
+    }
+
+    private void produce(Run run, PerfDto.ProducerRunRequest cfg) {
+        KafkaProducerRegistry.Profile profile = new KafkaProducerRegistry.Profile(
+                cfg.acks(), "all".equals(cfg.acks()) || "-1".equals(cfg.acks()),
+                cfg.lingerMs(), cfg.batchSize(), cfg.compression());
+
+        byte[] payload = new byte[cfg.recordSize()];
+        ThreadLocalRandom.current().nextBytes(payload);
+
+        int cardinality = cfg.keyCardinality() == null ? 0 : cfg.keyCardinality();
+        byte[][] keys = cardinality > 0 && cardinality <= MAX_PRECOMPUTED_KEYS ? new byte[cardinality][] : null;
+        if (keys != null) {
+            for (int i = 0; i < cardinality; i++) keys[i] = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+        }
+
+        long maxRecords = cfg.numRecords() == null ? Long.MAX_VALUE : cfg.numRecords();
+        double intervalNs = cfg.recordsPerSec() == null ? 0 : 1e9 / cfg.recordsPerSec();
+
+        KafkaProducer<byte[], byte[]> producer = producerRegistry.openDedicated(cfg.clusterName(), profile);
+        try {
+            long startNs = System.nanoTime();
+            long endNs = startNs + TimeUnit.MILLISECONDS.toNanos(cfg.durationMs());
+            run.startSampling(startNs);
+
+            for (long i = 0; i < maxRecords && run.running(); i++) {
+                long now = System.nanoTime();
+                if (now >= endNs) break;
+                run.sample(now);
+
+                if (intervalNs > 0) {
+                    long due = startNs + (long) (i * intervalNs);
+                    if (due > now) LockSupport.parkNanos(due - now);
+                }
+
+                byte[] key = cardinality == 0 ? null
+                        : keys != null ? keys[(int) (i % cardinality)]
+                        : ("key-" + (i % cardinality)).getBytes(StandardCharsets.UTF_8);
+
+                long sendNs = System.nanoTime();
+                producer.send(new ProducerRecord<>(cfg.topicName(), key, payload), (md, err) -> {
+                    if (err != null) {
+                        run.error(err);
+                    } else {
+                        run.latency.record((System.nanoTime() - sendNs) / 1000);
+                        run.records.incrementAndGet();
+                        run.bytes.addAndGet(payload.length);
+                    }
+                });
+            }
+
+            producer.flush();
+            run.sample(System.nanoTime());
+            run.finalSample(System.nanoTime());
+
+        } finally {
+            try {
+                producer.close(Duration.ofMillis(props.getProducerPool().getCloseTimeoutMs()));
+            } catch (Exception e) {
+                log.debug("Perf producer close failed run={}", run.id, e);
+            }
+        }
+    }
+
+    private void consume(Run run, PerfDto.ConsumerRunRequest cfg) throws Exception {
+
+        // ---- partitions + start / end offsets (one metadata consumer) ----
+        List<TopicPartition> tps = new ArrayList<>();
+        Map<TopicPartition, Long> start = new HashMap<>();
+        Map<TopicPartition, Long> end;
+
+        try (KafkaConsumer<byte[], byte[]> meta = consumerPool.openDedicated(cfg.clusterName())) {
+            List<PartitionInfo> infos = meta.partitionsFor(cfg.topicName());
+            if (infos == null || infos.isEmpty()) {
+                throw new IllegalArgumentException("Topic not found or has no partitions: " + cfg.topicName());
+            }
+            infos.stream()
+                    .sorted(Comparator.comparingInt(PartitionInfo::partition))
+                    .forEach(pi -> tps.add(new TopicPartition(pi.topic(), pi.partition())));
+
+            end = meta.endOffsets(tps);
+            switch (cfg.position()) {
+                case LATEST -> start.putAll(end);
+                case TIMESTAMP -> {
+                    Map<TopicPartition, Long> query = new HashMap<>();
+                    tps.forEach(tp -> query.put(tp, cfg.timestamp()));
+                    Map<TopicPartition, OffsetAndTimestamp> found = meta.offsetsForTimes(query);
+                    for (TopicPartition tp : tps) {
+                        OffsetAndTimestamp ot = found.get(tp);
+                        start.put(tp, ot == null ? end.get(tp) : ot.offset());
+                    }
+                }
+                default -> start.putAll(meta.beginningOffsets(tps));
+            }
+        }
+
+        // ---- round-robin assignment (more consumers than partitions would just idle) ----
+        int n = Math.min(cfg.numConsumers(), tps.size());
+        List<List<PartitionCounter>> assignment = new ArrayList<>(n);
+        List<PartitionCounter> all = new ArrayList<>(tps.size());
+        for (int c = 0; c < n; c++) assignment.add(new ArrayList<>());
+        for (int i = 0; i < tps.size(); i++) {
+            TopicPartition tp = tps.get(i);
+            PartitionCounter pc = new PartitionCounter(tp, i % n, start.get(tp), end.get(tp));
+            assignment.get(i % n).add(pc);
+            all.add(pc);
+        }
+        run.partitions = all;
+
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cfg.durationMs());
+        long startNs = System.nanoTime();
+        run.startSampling(startNs);
+
+        List<Future<?>> workers = new ArrayList<>(n);
+        for (List<PartitionCounter> owned : assignment) {
+            workers.add(consumerWorkers.submit(() -> {
+                consumeWorker(run, cfg, owned, deadlineNs);
+                return null;
+            }));
+        }
+
+        // ---- this thread only samples throughput until the workers finish ----
+        try {
+            for (Future<?> w : workers) {
+                while (true) {
+                    try {
+                        w.get(100, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        run.sample(System.nanoTime());
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            // stop the other workers; the first failure is the run's error
+            run.status.compareAndSet(PerfDto.Status.RUNNING, PerfDto.Status.CANCELLED);
+            throw (e.getCause() instanceof Exception ex) ? ex : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.status.compareAndSet(PerfDto.Status.RUNNING, PerfDto.Status.CANCELLED);
+            throw e;
+        }
+
+        run.sample(System.nanoTime());
+        run.finalSample(System.nanoTime());
+    }
+
+    private void consumeWorker(Run run, PerfDto.ConsumerRunRequest cfg,
+                               List<PartitionCounter> owned, long deadlineNs) {
+
+        long maxRecords = cfg.numRecords() == null ? Long.MAX_VALUE : cfg.numRecords();
+        long maxBytes = cfg.maxBytes() == null ? Long.MAX_VALUE : cfg.maxBytes();
+        boolean stopAtEnd = Boolean.TRUE.equals(cfg.stopAtEnd());
+
+        Map<Integer, PartitionCounter> byPartition = new HashMap<>();
+        owned.forEach(pc -> byPartition.put(pc.tp.partition(), pc));
+
+        try (KafkaConsumer<byte[], byte[]> consumer = consumerPool.openDedicated(cfg.clusterName())) {
+            consumer.assign(owned.stream().map(pc -> pc.tp).toList());
+            owned.forEach(pc -> consumer.seek(pc.tp, pc.startOffset));
+
+            while (run.running()
+                    && System.nanoTime() < deadlineNs
+                    && run.records.get() < maxRecords
+                    && run.bytes.get() < maxBytes) {
+
+                if (stopAtEnd) {
+                    List<TopicPartition> done = owned.stream()
+                            .filter(pc -> !pc.done && consumer.position(pc.tp) >= pc.endOffset)
+                            .peek(pc -> pc.done = true)
+                            .map(pc -> pc.tp)
+                            .toList();
+                    if (!done.isEmpty()) consumer.pause(done);
+                    if (owned.stream().allMatch(pc -> pc.done)) break;
+                }
+
+                long pollNs = System.nanoTime();
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(200));
+                if (records.isEmpty()) continue;
+
+                run.latency.record((System.nanoTime() - pollNs) / 1000);
+
+                long batchBytes = 0;
+                for (ConsumerRecord<byte[], byte[]> r : records) {
+                    long size = Math.max(0, r.serializedKeySize()) + Math.max(0, r.serializedValueSize());
+                    PartitionCounter pc = byPartition.get(r.partition());
+                    pc.records.incrementAndGet();
+                    pc.bytes.addAndGet(size);
+                    batchBytes += size;
+                }
+                run.records.addAndGet(records.count());
+                run.bytes.addAndGet(batchBytes);
+            }
+        }
+    }
+
+    // -------------------------------------------------------
+    // Persistence + eviction
+    // -------------------------------------------------------
+
+    private void persist(Run run) {
+        PerfDto.RunReport report = run.report();
+        try {
+            PerfDto.LatencySummary lat = report.latency();
+            runRepository.save(KafkaPerfRunEntity.builder()
+                    .id(UUID.fromString(run.id))
+                    .runType(run.type)
+                    .clusterName(run.clusterName)
+                    .topicName(run.topicName)
+                    .label(run.label)
+                    .status(report.status().name())
+                    .startedAt(report.startedAt())
+                    .finishedAt(report.finishedAt())
+                    .records(report.records())
+                    .bytes(report.bytes())
+                    .errors(report.errors())
+                    .recordsPerSec(report.recordsPerSec())
+                    .mbPerSec(report.mbPerSec())
+                    .latencyP50Ms(lat == null ? null : lat.p50Ms())
+                    .latencyP99Ms(lat == null ? null : lat.p99Ms())
+                    .latencyMaxMs(lat == null ? null : lat.maxMs())
+                    .reportJson(objectMapper.writeValueAsString(report))
+                    .build());
+        } catch (Exception e) {
+            // report stays available in memory until the sweep
+            log.warn("Unable to store perf run {}: {}", run.id, e.toString());
+        }
+        log.info("Perf run {} {} cluster={} topic={} status={} records={} {} rec/s {} MB/s",
+                run.id, run.type, run.clusterName, run.topicName, report.status(), report.records(),
+                Math.round(report.recordsPerSec()), String.format(Locale.ROOT, "%.2f", report.mbPerSec()));
+    }
+
+    private Optional<PerfDto.RunReport> stored(String runId) {
+        UUID id;
+        try {
+            id = UUID.fromString(runId);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        return runRepository.findById(id).map(this::parse);
+    }
+
+    private PerfDto.RunReport parse(KafkaPerfRunEntity row) {
+        try {
+            return objectMapper.readValue(row.getReportJson(), PerfDto.RunReport.class);
+        } catch (Exception e) {
+            log.debug("Unreadable perf report id={}", row.getId(), e);
+            return null;
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.perf.sweep-interval-ms:60000}",
+            fixedDelayString = "${oneinfra.kafka.admin.perf.sweep-interval-ms:60000}"
+    )
+    public void sweep() {
+        Instant cutoff = Instant.now().minusMillis(props.getPerf().getRunTtlMs());
+        runs.values().removeIf(r -> r.finishedAt != null && r.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runs.values().forEach(r -> r.status.compareAndSet(PerfDto.Status.RUNNING, PerfDto.Status.CANCELLED));
+        runners.shutdown();
+        consumerWorkers.shutdown();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private int clampInt(Integer v, int min, int max, int def) {
+        int x = (v == null) ? def : v;
+        return Math.max(min, Math.min(max, x));
+    }
+
+    private long clampLong(Long v, long min, long max, long def) {
+        long x = (v == null) ? def : v;
+        return Math.max(min, Math.min(max, x));
+    }
+
+    private boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private static String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? t.getClass().getSimpleName() : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+
+    @FunctionalInterface
+    private interface RunBody {
+        void run() throws Exception;
+    }
+
+    private static final class Run {
+        private final String id = UUID.randomUUID().toString();
+        private final String type;
+        private final String clusterName;
+        private final String topicName;
+        private final String label;
+        private final Object config;
+        private final Instant startedAt = Instant.now();
+
+        private final AtomicReference<PerfDto.Status> status = new AtomicReference<>(PerfDto.Status.RUNNING);
+        private final AtomicReference<String> error = new AtomicReference<>();
+        private volatile Instant finishedAt;
+        private volatile Instant measuredFrom;   // start of the measured phase (after client setup)
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        // per-second series (written by the run thread only)
+        private final List<PerfDto.ThroughputSample> perSecond = new CopyOnWriteArrayList<>();
+        private volatile List<PartitionCounter> partitions;
+        private long startNs;
+        private long nextSampleNs;
+        private long lastRecords;
+        private long lastBytes;
+
+        private Run(String type, String clusterName, String topicName, String label, Object config) {
+            this.type = type;
+            this.clusterName = clusterName;
+            this.topicName = topicName;
+            this.label = label;
+            this.config = config;
+        }
+
+        boolean running() {
+            return status.get() == PerfDto.Status.RUNNING;
+        }
+
+        void fail(String msg) {
+            error.compareAndSet(null, msg);
+            status.set(PerfDto.Status.FAILED);
+        }
+
+        void error(Exception e) {
+            errors.incrementAndGet();
+            error.compareAndSet(null, safeMsg(e));   // first error is reported
+        }
+
+        void startSampling(long nowNs) {
+            measuredFrom = Instant.now();
+            startNs = nowNs;
+            nextSampleNs = nowNs + TimeUnit.SECONDS.toNanos(1);
+        }
+
+        /** Closes every whole second that has elapsed. */
+        void sample(long nowNs) {
+            while (startNs > 0 && nowNs >= nextSampleNs) {
+                emit(TimeUnit.NANOSECONDS.toSeconds(nextSampleNs - startNs));
+                nextSampleNs += TimeUnit.SECONDS.toNanos(1);
+            }
+        }
+
+        /** Trailing partial second (acks that arrived after the last full one). */
+        void finalSample(long nowNs) {
+            if (records.get() != lastRecords) emit(TimeUnit.NANOSECONDS.toSeconds(nowNs - startNs) + 1);
+        }
+
+        private void emit(long second) {
+            long r = records.get();
+            long b = bytes.get();
+            perSecond.add(new PerfDto.ThroughputSample(second, r - lastRecords, b - lastBytes));
+            lastRecords = r;
+            lastBytes = b;
+        }
+
+        PerfDto.RunReport report() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            Instant from = measuredFrom != null ? measuredFrom : startedAt;
+            long elapsedMs = Math.max(1, Duration.between(from, end).toMillis());
+            long r = records.get();
+            long b = bytes.get();
+
+            PerfDto.LatencySummary lat = latency.count() == 0 ? null : new PerfDto.LatencySummary(
+                    latency.count(),
+                    latency.minMicros() / 1000.0,
+                    latency.meanMicros() / 1000.0,
+                    latency.percentileMicros(0.50) / 1000.0,
+                    latency.percentileMicros(0.95) / 1000.0,
+                    latency.percentileMicros(0.99) / 1000.0,
+                    latency.percentileMicros(0.999) / 1000.0,
+                    latency.maxMicros() / 1000.0);
+
+            List<PerfDto.PartitionStat> parts = null;
+            Double skew = null;
+            List<PartitionCounter> counters = partitions;
+            if (counters != null) {
+                parts = counters.stream().map(PartitionCounter::stat).toList();
+                long most = parts.stream().mapToLong(PerfDto.PartitionStat::records).max().orElse(0);
+                double mean = parts.stream().mapToLong(PerfDto.PartitionStat::records).average().orElse(0);
+                skew = mean > 0 ? most / mean : null;
+            }
+
+            return new PerfDto.RunReport(
+                    id, type, clusterName, topicName, label, status.get(), error.get(),
+                    startedAt, finishedAt, elapsedMs,
+                    r, b, errors.get(),
+                    r * 1000.0 / elapsedMs,
+                    b * 1000.0 / elapsedMs / (1024 * 1024),
+                    lat, List.copyOf(perSecond), parts, skew, config);
+        }
+    }
+
+    /** Consumer run: one per partition, written by the owning worker only. */
+    private static final class PartitionCounter {
+        private final TopicPartition tp;
+        private final int consumer;
+        private final long startOffset;
+        private final long endOffset;
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private boolean done;
+
+        private PartitionCounter(TopicPartition tp, int consumer, long startOffset, long endOffset) {
+            this.tp = tp;
+            this.consumer = consumer;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        PerfDto.PartitionStat stat() {
+            return new PerfDto.PartitionStat(tp.partition(), consumer, startOffset, endOffset,
+                    records.get(), bytes.get());
+        }
+    }
+}
@@ -1,31 +1,38 @@
 package com.srikar.kafka.service;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.srikar.kafka.config.KafkaAdminProperties;
-import com.srikar.kafka.config.KafkaClientPropertiesFactory;
+import com.srikar.kafka.config.KafkaProducerRegistry;
 import com.srikar.kafka.dto.producer.ProducerDto;
+import com.srikar.kafka.exception.PublishRejectedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
-import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Properties;
-import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class KafkaProducerConsoleService {
 
-    private final KafkaClientPropertiesFactory clientProps; // ✅ shared base (bootstrap + SSL)
-    private final KafkaAdminProperties props;               // ✅ only for timeouts, defaults
+    private final KafkaProducerRegistry producerRegistry;   // ✅ shared producer per cluster (bootstrap + SSL)
+    private final KafkaAdminProperties props;               // ✅ timeouts, defaults, batch caps
+    private final ObjectMapper objectMapper;                // ✅ NDJSON batch bodies
+    private final KafkaPublishPipeline publishPipeline;     // ✅ group commit for single publishes
 
     // ----------------------------
     // Validate (schema stub)
@@ -71,39 +78,29 @@ public class KafkaProducerConsoleService {
         String clusterName = req.getClusterName().trim();
         int timeoutMs = safeTimeoutMsInt();
 
-        // ✅ base includes bootstrap + SSL/mTLS + endpoint identification algo
-        Properties p = clientProps.base(clusterName);
-
-        // ----------------------------
-        // Producer-specific core
-        // ----------------------------
-        p.put(ProducerConfig.CLIENT_ID_CONFIG, "oneinfra-ui-producer-" + UUID.randomUUID());
-        p.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
-        p.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
-
-        // ----------------------------
-        // Reliability
-        // ----------------------------
-        p.put(ProducerConfig.ACKS_CONFIG, "all");
-        p.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        p.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
-
-        // ----------------------------
-        // Prevent hanging forever (Kafka expects Integer)
-        // ----------------------------
-        p.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, timeoutMs);
-        p.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, timeoutMs);
-        p.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, timeoutMs);
-
         byte[] key = isBlank(req.getKey()) ? null : req.getKey().getBytes(StandardCharsets.UTF_8);
         byte[] value = req.getPayload().getBytes(StandardCharsets.UTF_8);
 
         ProducerRecord<byte[], byte[]> record =
                 new ProducerRecord<>(req.getTopicName().trim(), key, value);
 
-        try (KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(p)) {
+        boolean groupCommit = Boolean.TRUE.equals(props.getProducerPool().getGroupCommit());
+        KafkaProducerRegistry.Profile profile = groupCommit
+                ? KafkaProducerRegistry.Profile.groupCommit(props.getProducerPool())
+                : KafkaProducerRegistry.Profile.RELIABLE;
+
+        try {
+            Future<RecordMetadata> sent;
+            if (groupCommit) {
+                // ✅ collected with concurrent publishes for this cluster, one flush per group
+                sent = publishPipeline.submit(clusterName, record);
+            } else {
+                // ✅ shared long-lived producer (acks=all, idempotent) - do NOT close
+                KafkaProducer<byte[], byte[]> producer = producerRegistry.get(clusterName, profile);
+                sent = producer.send(record);
+            }
 
-            RecordMetadata md = producer.send(record).get((long) timeoutMs, TimeUnit.MILLISECONDS);
+            RecordMetadata md = sent.get((long) timeoutMs, TimeUnit.MILLISECONDS);
 
             return new ProducerDto.PublishResponse(
                     md.topic(),
@@ -112,12 +109,186 @@ public class KafkaProducerConsoleService {
                     md.timestamp() > 0 ? md.timestamp() : Instant.now().toEpochMilli()
             );
 
+        } catch (PublishRejectedException e) {
+            throw e;   // backpressure, not a producer failure
         } catch (Exception e) {
+            producerRegistry.reportFailure(clusterName, profile, e);
             log.error("Publish failed cluster={} topic={}", clusterName, req.getTopicName(), e);
             throw new RuntimeException("Publish failed: " + safeMsg(e), e);
         }
     }
 
+    // ----------------------------
+    // Batch publish
+    // ----------------------------
+
+    public ProducerDto.BatchPublishResponse publishBatch(ProducerDto.BatchPublishRequest req) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (req.getRecords() == null || req.getRecords().isEmpty()) throw new IllegalArgumentException("records is required");
+
+        int maxRecords = props.getProducerPool().getMaxBatchRecords();
+        if (req.getRecords().size() > maxRecords) {
+            throw new IllegalArgumentException("Batch has " + req.getRecords().size() + " records, max is " + maxRecords);
+        }
+        checkBatchBytes(req.getRecords());
+
+        return publishBatch(req.getClusterName(), req.getTopicName(), req.getRecords());
+    }
+
+    /** NDJSON body: one {"key", "payload", "partition"} object per line. */
+    public ProducerDto.BatchPublishResponse publishBatch(String clusterName, String topicName, InputStream body) {
+
+        int maxRecords = props.getProducerPool().getMaxBatchRecords();
+        List<ProducerDto.BatchRecord> records = new ArrayList<>();
+
+        // parsed (and capped) up front: a malformed line rejects the batch before anything is sent
+        try (MappingIterator<ProducerDto.BatchRecord> it =
+                     objectMapper.readerFor(ProducerDto.BatchRecord.class).readValues(body)) {
+            while (it.hasNextValue()) {
+                if (records.size() >= maxRecords) {
+                    throw new IllegalArgumentException("Batch exceeds max " + maxRecords + " records");
+                }
+                records.add(it.nextValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid NDJSON at record " + (records.size() + 1) + ": " + safeMsg(e));
+        }
+        if (records.isEmpty()) throw new IllegalArgumentException("records is required");
+        checkBatchBytes(records);
+
+        return publishBatch(clusterName, topicName, records);
+    }
+
+    /**
+     * Every record goes through the shared bulk-profile producer (linger + batch.size + compression,
+     * same acks / idempotence as single publishes) without waiting; all futures are awaited once
+     * at the end. One bad record fails only its own result.
+     */
+    private ProducerDto.BatchPublishResponse publishBatch(String clusterName,
+                                                          String topicName,
+                                                          List<ProducerDto.BatchRecord> records) {
+
+        if (isBlank(clusterName)) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(topicName)) throw new IllegalArgumentException("topicName is required");
+
+        final String cluster = clusterName.trim();
+        final String topic = topicName.trim();
+        final KafkaProducerRegistry.Profile profile = KafkaProducerRegistry.Profile.bulk(props.getProducerPool());
+        final int timeoutMs = safeTimeoutMsInt();
+        final long startNs = System.nanoTime();
+
+        // ✅ shared long-lived producer (bulk profile) - do NOT close
+        KafkaProducer<byte[], byte[]> producer = producerRegistry.get(cluster, profile);
+
+        int n = records.size();
+        List<Future<RecordMetadata>> futures = new ArrayList<>(n);
+        ProducerDto.BatchRecordResult[] results = new ProducerDto.BatchRecordResult[n];
+
+        // 1) pipeline all sends (send() only blocks when the producer buffer is full)
+        // send() blocks up to max.block.ms on missing metadata / a full buffer; once that happens
+        // (or send() throws) the rest of the batch is failed at once instead of blocking per record
+        String aborted = null;
+        for (int i = 0; i < n; i++) {
+            ProducerDto.BatchRecord r = records.get(i);
+            Future<RecordMetadata> f = null;
+
+            if (aborted != null) {
+                results[i] = failed(i, aborted);
+            } else if (r == null || r.getPayload() == null) {
+                results[i] = failed(i, "payload is required");
+            } else {
+                byte[] key = isBlank(r.getKey()) ? null : r.getKey().getBytes(StandardCharsets.UTF_8);
+                byte[] value = r.getPayload().getBytes(StandardCharsets.UTF_8);
+                try {
+                    f = producer.send(new ProducerRecord<>(topic, r.getPartition(), key, value));
+                    Throwable early = failedImmediately(f);
+                    if (early instanceof org.apache.kafka.common.errors.TimeoutException) {
+                        aborted = "Not sent: earlier record timed out (" + safeMsg(early) + ")";
+                    }
+                } catch (Exception e) {
+                    producerRegistry.reportFailure(cluster, profile, e);
+                    results[i] = failed(i, safeMsg(e));
+                    aborted = "Not sent: earlier send failed (" + safeMsg(e) + ")";
+                }
+            }
+            futures.add(f);
+        }
+
+        // 2) wait once: delivery.timeout (request timeout + linger) bounds every future
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos((long) timeoutMs + profile.lingerMs());
+        int succeeded = 0;
+
+        for (int i = 0; i < n; i++) {
+            Future<RecordMetadata> f = futures.get(i);
+            if (f == null) continue;
+            try {
+                RecordMetadata md = f.get(Math.max(0, deadlineNs - System.nanoTime()), TimeUnit.NANOSECONDS);
+                results[i] = new ProducerDto.BatchRecordResult(i, md.partition(), md.offset(),
+                        md.timestamp() > 0 ? md.timestamp() : Instant.now().toEpochMilli(), null);
+                succeeded++;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                producerRegistry.reportFailure(cluster, profile, cause);
+                results[i] = failed(i, safeMsg(cause));
+            } catch (TimeoutException e) {
+                results[i] = failed(i, "Timed out waiting for broker acknowledgement");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Batch publish interrupted", e);
+            }
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+        log.info("Batch publish cluster={} topic={} records={} ok={} failed={} in {}ms",
+                cluster, topic, n, succeeded, n - succeeded, elapsedMs);
+
+        return new ProducerDto.BatchPublishResponse(topic, n, succeeded, n - succeeded, elapsedMs, List.of(results));
+    }
+
+    private void checkBatchBytes(List<ProducerDto.BatchRecord> records) {
+        long max = props.getProducerPool().getMaxBatchBytes();
+        long total = 0;
+        for (ProducerDto.BatchRecord r : records) {
+            if (r == null) continue;
+            // UTF-8 size (exact for well-formed text), counted without encoding anything
+            total += utf8Length(r.getKey()) + utf8Length(r.getPayload());
+        }
+        if (total > max) throw new IllegalArgumentException("Batch payload exceeds max " + max + " bytes");
+    }
+
+    static long utf8Length(String s) {
+        if (s == null) return 0;
+        long n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) n += 1;
+            else if (c < 0x800) n += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                n += 4;
+                i++;
+            } else n += 3;   // BMP char, or a lone surrogate (encoded as '?', 1 byte; 3 keeps it an upper bound)
+        }
+        return n;
+    }
+
+    /** A future send() already failed (metadata / buffer wait timed out), without waiting. */
+    private Throwable failedImmediately(Future<RecordMetadata> f) {
+        if (!f.isDone()) return null;
+        try {
+            f.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private ProducerDto.BatchRecordResult failed(int index, String error) {
+        return new ProducerDto.BatchRecordResult(index, null, null, null, error.isEmpty() ? "Publish failed" : error);
+    }
+
     // ----------------------------
     // Helpers
     // ----------------------------
@@ -0,0 +1,216 @@
+package com.srikar.kafka.service;
+
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaProducerRegistry;
+import com.srikar.kafka.exception.PublishRejectedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single-record publishes.
+ *
+ * Concurrent publishes to the same cluster are queued on that cluster's lane; one dispatcher
+ * thread per lane takes the first record, collects more for up to group-commit-max-wait-ms
+ * (or group-commit-max-records), appends the whole group to the group-commit producer and
+ * flushes once. Each caller's future completes from its own record's callback.
+ *
+ * While a group is in flight the next one accumulates, so throughput grows with group size
+ * instead of with request threads, and each publish costs at most max-wait + one round trip.
+ * The group-commit profile is its own producer instance: flush() never waits on other traffic.
+ *
+ * Lanes are only started for clusters the registry resolves, and a lane's thread exits after
+ * group-commit-lane-idle-ms without publishes (removed clusters don't keep threads around).
+ */
+@Slf4j
+@Service
+public class KafkaPublishPipeline {
+
+    private final KafkaProducerRegistry producerRegistry;
+    private final KafkaAdminProperties props;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final DistributionSummary groupSize;
+
+    private volatile boolean closed;
+
+    public KafkaPublishPipeline(KafkaProducerRegistry producerRegistry,
+                                KafkaAdminProperties props,
+                                MeterRegistry meterRegistry) {
+        this.producerRegistry = producerRegistry;
+        this.props = props;
+
+        this.groupSize = DistributionSummary.builder("oneinfra.kafka.producer.groupcommit.size")
+                .description("Records per group-commit flush")
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // API
+    // -------------------------------------------------------
+
+    /**
+     * Completes with the record's metadata once its group is acknowledged.
+     *
+     * @throws PublishRejectedException queue full / shutting down (retryable, not a producer failure)
+     */
+    public CompletableFuture<RecordMetadata> submit(String clusterName, ProducerRecord<byte[], byte[]> record) {
+        if (closed) throw new PublishRejectedException("Publish pipeline is shutting down");
+
+        String cluster = clusterName.trim();
+
+        // unknown / disabled cluster fails here, before a lane (thread) exists for it
+        producerRegistry.get(cluster, KafkaProducerRegistry.Profile.groupCommit(props.getProducerPool()));
+
+        String key = cluster.toLowerCase(Locale.ROOT);
+        Pending p = new Pending(record, new CompletableFuture<>());
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(key, k -> startLane(k, cluster));
+            synchronized (lane) {
+                if (lane.retired) continue;   // lost the race with its idle exit → next lane
+                if (!lane.queue.offer(p)) {
+                    throw new PublishRejectedException("Publish queue for cluster " + cluster + " is full, retry later");
+                }
+                return p.future;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        lanes.values().forEach(l -> l.thread.interrupt());
+    }
+
+    // -------------------------------------------------------
+    // Dispatcher
+    // -------------------------------------------------------
+
+    private Lane startLane(String key, String clusterName) {
+        Lane lane = new Lane(key, clusterName, new LinkedBlockingQueue<>(
+                Math.max(1, props.getProducerPool().getGroupCommitQueueCapacity())));
+        Thread t = new Thread(() -> run(lane), "kafka-group-commit-" + clusterName);
+        t.setDaemon(true);
+        lane.thread = t;
+        t.start();
+        return lane;
+    }
+
+    private void run(Lane lane) {
+        List<Pending> group = new ArrayList<>();
+        while (!closed) {
+            try {
+                Pending first = lane.queue.poll(props.getProducerPool().getGroupCommitLaneIdleMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (retire(lane)) return;
+                    continue;
+                }
+                group.add(first);
+
+                KafkaAdminProperties.ProducerPool cfg = props.getProducerPool();
+                long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cfg.getGroupCommitMaxWaitMs());
+                int max = Math.max(1, cfg.getGroupCommitMaxRecords());
+
+                // collect: whatever is already queued, then wait out the window for more
+                while (group.size() < max) {
+                    if (lane.queue.drainTo(group, max - group.size()) > 0) continue;
+                    long left = deadlineNs - System.nanoTime();
+                    if (left <= 0) break;
+                    Pending next = lane.queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    group.add(next);
+                }
+
+                commit(lane.clusterName, group);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // commit() fails records itself; this only guards the lane thread
+                log.warn("Group commit failed cluster={}: {}", lane.clusterName, e.toString());
+                group.forEach(p -> p.future.completeExceptionally(e));
+            } finally {
+                group.clear();
+            }
+        }
+
+        List<Pending> rest = new ArrayList<>();
+        lane.queue.drainTo(rest);
+        rest.forEach(p -> p.future.completeExceptionally(new PublishRejectedException("Publish pipeline stopped")));
+    }
+
+    /** Idle exit; false if a publish slipped in meanwhile (the lane keeps running). */
+    private boolean retire(Lane lane) {
+        synchronized (lane) {
+            if (!lane.queue.isEmpty()) return false;
+            lane.retired = true;
+            lanes.remove(lane.key, lane);
+            return true;
+        }
+    }
+
+    private void commit(String clusterName, List<Pending> group) {
+        KafkaProducerRegistry.Profile profile = KafkaProducerRegistry.Profile.groupCommit(props.getProducerPool());
+
+        KafkaProducer<byte[], byte[]> producer;
+        try {
+            // ✅ shared long-lived producer (group-commit profile) - do NOT close
+            producer = producerRegistry.get(clusterName, profile);
+        } catch (Exception e) {
+            group.forEach(p -> p.future.completeExceptionally(e));
+            return;
+        }
+
+        for (Pending p : group) {
+            try {
+                producer.send(p.record, (md, err) -> {
+                    if (err != null) {
+                        producerRegistry.reportFailure(clusterName, profile, err);
+                        p.future.completeExceptionally(err);
+                    } else {
+                        p.future.complete(md);
+                    }
+                });
+            } catch (Exception e) {
+                producerRegistry.reportFailure(clusterName, profile, e);
+                p.future.completeExceptionally(e);
+            }
+        }
+
+        // one flush per group: every appended record leaves now, callbacks have all fired on return
+        producer.flush();
+        groupSize.record(group.size());
+    }
+
+    private record Pending(ProducerRecord<byte[], byte[]> record, CompletableFuture<RecordMetadata> future) {}
+
+    private static final class Lane {
+        private final String key;
+        private final String clusterName;
+        private final BlockingQueue<Pending> queue;
+        private volatile Thread thread;
+        private boolean retired;   // guarded by the lane's monitor
+
+        private Lane(String key, String clusterName, BlockingQueue<Pending> queue) {
+            this.key = key;
+            this.clusterName = clusterName;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.srikar.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaProducerRegistry;
+import com.srikar.kafka.dto.producer.ProducerDto;
+import com.srikar.kafka.exception.PublishRejectedException;
+import com.srikar.kafka.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Async publish: the request thread only validates and enqueues; a ticket id comes back at once.
+ *
+ * - sends run on a small bounded pool (send() may block on metadata or a full producer buffer);
+ *   a full queue is rejected up front instead of parking request threads
+ * - the producer callback resolves the ticket (RecordMetadata or error) and nothing else: it runs on
+ *   the shared producer's I/O thread, so Redis writes and SSE emits go to a notifier thread
+ * - clients poll GET /publish/tickets/{id} or subscribe to its SSE stream ("delivery" event)
+ *
+ * Tickets live in memory (bounded by async-publish.max-tickets, resolved ones evicted after
+ * ticket-ttl-ms) and are mirrored to Redis so a poll routed to another instance still answers.
+ * SSE subscriptions wait only on tickets owned by this instance; others get the current state.
+ */
+@Slf4j
+@Service
+public class KafkaPublishTicketService {
+
+    private static final String REDIS_KEY_PREFIX = "oneinfra:kafka:publish:ticket:";
+
+    private final KafkaProducerRegistry producerRegistry;
+    private final KafkaAdminProperties props;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor senders;
+    private final ThreadPoolExecutor notifier;   // single thread: Redis writes stay in order (PENDING → resolved)
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public KafkaPublishTicketService(KafkaProducerRegistry producerRegistry,
+                                     KafkaAdminProperties props,
+                                     StringRedisTemplate redis,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.producerRegistry = producerRegistry;
+        this.props = props;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+
+        KafkaAdminProperties.AsyncPublish cfg = props.getAsyncPublish();
+        int threads = Math.max(1, cfg.getThreads());
+        AtomicInteger seq = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, cfg.getQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "kafka-async-publish-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        AtomicInteger notifySeq = new AtomicInteger();
+        this.notifier = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(2, 2 * cfg.getMaxTickets())),   // PENDING + resolved per ticket
+                r -> {
+                    Thread t = new Thread(r, "kafka-async-publish-notify-" + notifySeq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.delivered = Counter.builder("oneinfra.kafka.producer.async")
+                .tag("result", "delivered")
+                .register(meterRegistry);
+        this.failed = Counter.builder("oneinfra.kafka.producer.async")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("oneinfra.kafka.producer.async")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("oneinfra.kafka.producer.async.pending", tickets,
+                        m -> m.values().stream().filter(t -> !t.done.isDone()).count())
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // API
+    // -------------------------------------------------------
+
+    public ProducerDto.PublishTicket submit(ProducerDto.PublishRequest req) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (isBlank(req.getClusterName())) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(req.getTopicName())) throw new IllegalArgumentException("topicName is required");
+        if (isBlank(req.getPayload())) throw new IllegalArgumentException("payload is required");
+
+        KafkaAdminProperties.AsyncPublish cfg = props.getAsyncPublish();
+        if (tickets.size() >= cfg.getMaxTickets()) {
+            rejected.increment();
+            throw new PublishRejectedException("Too many outstanding publish tickets (max " + cfg.getMaxTickets() + ")");
+        }
+
+        String clusterName = req.getClusterName().trim();
+        String topicName = req.getTopicName().trim();
+        byte[] key = isBlank(req.getKey()) ? null : req.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] value = req.getPayload().getBytes(StandardCharsets.UTF_8);
+
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), topicName, System.currentTimeMillis());
+        tickets.put(ticket.id, ticket);
+
+        try {
+            senders.execute(() -> send(ticket, clusterName, new ProducerRecord<>(topicName, key, value)));
+        } catch (RejectedExecutionException e) {
+            tickets.remove(ticket.id);
+            rejected.increment();
+            throw new PublishRejectedException("Async publish queue is full, retry later");
+        }
+        return ticket.state;
+    }
+
+    public ProducerDto.PublishTicket get(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket != null) return ticket.state;
+
+        ProducerDto.PublishTicket shared = loadShared(ticketId);
+        if (shared == null) throw new ResourceNotFoundException("Publish ticket not found: " + ticketId);
+        return shared;
+    }
+
+    /** One "delivery" event with the resolved ticket, then the stream completes. */
+    public SseEmitter subscribe(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        ProducerDto.PublishTicket current = ticket != null ? ticket.state : get(ticketId);   // 404 if unknown
+
+        // delivery.timeout bounds the wait; the extra minute covers a queued send
+        SseEmitter emitter = new SseEmitter(safeTimeoutMsInt() + 60000L);
+
+        if (ticket == null) {
+            // owned by another instance: current state only (clients keep polling if PENDING)
+            emit(emitter, current);
+            return emitter;
+        }
+        // completes on the producer I/O thread; the emit itself runs on the notifier
+        ticket.done.whenCompleteAsync((resolved, err) -> emit(emitter, resolved != null ? resolved : ticket.state),
+                notifier);
+        return emitter;
+    }
+
+    // -------------------------------------------------------
+    // Sending
+    // -------------------------------------------------------
+
+    private void send(Ticket ticket, String clusterName, ProducerRecord<byte[], byte[]> record) {
+        KafkaProducerRegistry.Profile profile = KafkaProducerRegistry.Profile.RELIABLE;
+        publishSharedAsync(ticket.state);
+        try {
+            // ✅ shared long-lived producer (acks=all, idempotent) - do NOT close
+            KafkaProducer<byte[], byte[]> producer = producerRegistry.get(clusterName, profile);
+
+            producer.send(record, (md, err) -> {
+                if (err != null) {
+                    producerRegistry.reportFailure(clusterName, profile, err);
+                    fail(ticket, err);
+                } else {
+                    resolve(ticket, new ProducerDto.PublishTicket(
+                            ticket.id, ProducerDto.TicketStatus.DELIVERED, md.topic(), md.partition(), md.offset(),
+                            md.timestamp() > 0 ? md.timestamp() : System.currentTimeMillis(), null,
+                            ticket.submittedAt, System.currentTimeMillis()));
+                    delivered.increment();
+                }
+            });
+        } catch (Exception e) {
+            producerRegistry.reportFailure(clusterName, profile, e);
+            fail(ticket, e);
+        }
+    }
+
+    private void fail(Ticket ticket, Throwable t) {
+        log.warn("Async publish failed ticket={} topic={}: {}", ticket.id, ticket.topic, safeMsg(t));
+        resolve(ticket, new ProducerDto.PublishTicket(
+                ticket.id, ProducerDto.TicketStatus.FAILED, ticket.topic, null, null, null, safeMsg(t),
+                ticket.submittedAt, System.currentTimeMillis()));
+        failed.increment();
+    }
+
+    /** Called from the producer callback: in-memory only, the Redis mirror is handed off. */
+    private void resolve(Ticket ticket, ProducerDto.PublishTicket state) {
+        ticket.state = state;
+        ticket.done.complete(state);
+        publishSharedAsync(state);
+    }
+
+    // -------------------------------------------------------
+    // Eviction
+    // -------------------------------------------------------
+
+    @Scheduled(
+            initialDelayString = "${oneinfra.kafka.admin.async-publish.sweep-interval-ms:60000}",
+            fixedDelayString = "${oneinfra.kafka.admin.async-publish.sweep-interval-ms:60000}"
+    )
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        long ttlMs = props.getAsyncPublish().getTicketTtlMs();
+
+        Iterator<Ticket> it = tickets.values().iterator();
+        while (it.hasNext()) {
+            Ticket t = it.next();
+            ProducerDto.PublishTicket s = t.state;
+            if (s.getCompletedAt() != null) {
+                if (now - s.getCompletedAt() > ttlMs) it.remove();
+            } else if (now - t.submittedAt > ttlMs + safeTimeoutMsInt()) {
+                // never resolved (shouldn't happen: delivery.timeout fires first); don't hold it forever
+                it.remove();
+                t.done.complete(s);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        notifier.shutdown();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private void emit(SseEmitter emitter, ProducerDto.PublishTicket state) {
+        try {
+            emitter.send(SseEmitter.event().name("delivery").data(state));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void publishSharedAsync(ProducerDto.PublishTicket state) {
+        if (!Boolean.TRUE.equals(props.getAsyncPublish().getRedis())) return;
+        try {
+            notifier.execute(() -> publishShared(state));
+        } catch (RejectedExecutionException e) {
+            // best effort: the ticket is still answered from memory on this instance
+            log.debug("Ticket {} not mirrored to Redis (notifier busy)", state.getTicketId());
+        }
+    }
+
+    private void publishShared(ProducerDto.PublishTicket state) {
+        try {
+            Duration ttl = Duration.ofMillis(props.getAsyncPublish().getTicketTtlMs() + safeTimeoutMsInt());
+            redis.opsForValue().set(REDIS_KEY_PREFIX + state.getTicketId(), objectMapper.writeValueAsString(state), ttl);
+        } catch (Exception e) {
+            log.debug("Unable to publish ticket {} to Redis", state.getTicketId(), e);
+        }
+    }
+
+    private ProducerDto.PublishTicket loadShared(String ticketId) {
+        if (!Boolean.TRUE.equals(props.getAsyncPublish().getRedis())) return null;
+        try {
+            String json = redis.opsForValue().get(REDIS_KEY_PREFIX + ticketId);
+            return json == null || json.isBlank() ? null : objectMapper.readValue(json, ProducerDto.PublishTicket.class);
+        } catch (Exception e) {
+            log.debug("Unable to read ticket {} from Redis", ticketId, e);
+            return null;
+        }
+    }
+
+    private int safeTimeoutMsInt() {
+        Integer ms = props.getDefaultApiTimeoutMs();
+        int resolved = (ms == null || ms < 1000) ? 15000 : ms;
+        return Math.max(resolved, 1000);
+    }
+
+    private boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? t.getClass().getSimpleName() : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+
+    private static final class Ticket {
+        private final String id;
+        private final String topic;
+        private final long submittedAt;
+        private final CompletableFuture<ProducerDto.PublishTicket> done = new CompletableFuture<>();
+        private volatile ProducerDto.PublishTicket state;
+
+        private Ticket(String id, String topic, long submittedAt) {
+            this.id = id;
+            this.topic = topic;
+            this.submittedAt = submittedAt;
+            this.state = new ProducerDto.PublishTicket(id, ProducerDto.TicketStatus.PENDING, topic,
+                    null, null, null, null, submittedAt, null);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.srikar.kafka.service;
+
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.dto.consumer.ConsumerTailRecordDto;
+import com.srikar.kafka.utilities.ConsumerPartitions;
+import com.srikar.kafka.utilities.ConsumerRecordMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared live-tail engine: ONE consumer per (cluster, topic, partition-set), fanned out to
+ * every subscribed session. Broker fetch load scales with distinct tails, not with viewers.
+ *
+ * - channel created on first subscribe (positioned at end = live), closed when the last
+ *   subscriber leaves (reference counted under the map's per-key lock)
+ * - the consumer is opened and positioned outside the map (broker I/O never holds a map bin);
+ *   if two first subscribers race, the loser closes its consumer and joins the winner
+ * - each subscriber has a bounded ring buffer; a slow viewer loses its OLDEST records
+ *   (counted, reported) and never slows the channel or the other viewers
+ * - a failing channel fails all its subscribers and is removed; the next subscribe rebuilds it
+ *
+ * Cursor-based resume (lastSeen) can't share a position, so callers use a dedicated consumer for that.
+ */
+@Slf4j
+@Service
+public class KafkaTailMultiplexer {
+
+    private final KafkaConsumerPool consumerPool;
+    private final KafkaAdminProperties props;
+
+    private final Map<ChannelKey, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService channelExecutor;
+    private final Counter dropped;
+
+    public KafkaTailMultiplexer(KafkaConsumerPool consumerPool,
+                                KafkaAdminProperties props,
+                                MeterRegistry meterRegistry) {
+        this.consumerPool = consumerPool;
+        this.props = props;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.channelExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "kafka-tail-channel-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.dropped = Counter.builder("oneinfra.kafka.console.tail.dropped")
+                .register(meterRegistry);
+        Gauge.builder("oneinfra.kafka.console.tail.channels", channels, Map::size)
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // Subscribe / unsubscribe
+    // -------------------------------------------------------
+
+    public Subscription subscribe(String clusterName, String topicName, List<Integer> partitions) {
+        ChannelKey key = new ChannelKey(
+                clusterName.trim().toLowerCase(Locale.ROOT),
+                topicName.trim(),
+                partitions == null ? List.of() : partitions.stream().distinct().sorted().toList());
+
+        Subscription sub = new Subscription(key, props.getTailStream().getSubscriberBufferSize());
+
+        while (true) {
+            // join a live channel (no I/O under the map lock); a stopped one is dropped here
+            Channel joined = channels.computeIfPresent(key, (k, ch) -> {
+                if (ch.stopped) return null;
+                ch.subscribers.add(sub);
+                return ch;
+            });
+            if (joined != null) return sub;
+
+            Channel fresh = open(clusterName, key);
+            fresh.subscribers.add(sub);
+            if (channels.putIfAbsent(key, fresh) == null) {
+                start(fresh);
+                return sub;
+            }
+            // another subscriber opened the same channel meanwhile → join theirs
+            closeQuietly(fresh.consumer);
+        }
+    }
+
+    /** Idempotent; also wakes a take() blocked on this subscription. */
+    public void unsubscribe(Subscription sub) {
+        sub.fail("unsubscribed");
+        channels.computeIfPresent(sub.key, (k, ch) -> {
+            ch.subscribers.remove(sub);
+            if (!ch.subscribers.isEmpty()) return ch;
+
+            log.info("Last viewer left, closing tail channel cluster={} topic={}", k.cluster(), k.topic());
+            ch.stop();
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(Channel::stop);
+        channels.clear();
+        channelExecutor.shutdownNow();
+    }
+
+    // -------------------------------------------------------
+    // Channel
+    // -------------------------------------------------------
+
+    /** Consumer assigned + positioned at end; not pumping yet. */
+    private Channel open(String clusterName, ChannelKey key) {
+        KafkaConsumer<byte[], byte[]> consumer = consumerPool.openDedicated(clusterName);
+        try {
+            List<TopicPartition> tps = ConsumerPartitions.resolve(consumer, key.topic(), key.partitions());
+            if (tps.isEmpty()) {
+                throw new IllegalArgumentException("No partitions found for topic " + key.topic());
+            }
+            consumer.assign(tps);
+            consumer.seekToEnd(tps);   // live tail
+        } catch (RuntimeException e) {
+            closeQuietly(consumer);
+            throw e;
+        }
+
+        return new Channel(key, consumer);
+    }
+
+    private void start(Channel ch) {
+        log.info("Opening shared tail channel cluster={} topic={} partitions={}",
+                ch.key.cluster(), ch.key.topic(), ch.key.partitions().isEmpty() ? "all" : ch.key.partitions());
+        channelExecutor.execute(() -> pump(ch));
+    }
+
+    private void pump(Channel ch) {
+        try {
+            while (!ch.stopped) {
+                ConsumerRecords<byte[], byte[]> records = ch.consumer.poll(Duration.ofMillis(500));
+                if (records.isEmpty()) continue;
+
+                List<ConsumerTailRecordDto> batch = new ArrayList<>(records.count());
+                for (ConsumerRecord<byte[], byte[]> r : records) {
+                    batch.add(ConsumerRecordMapper.toTailDto(r, true, true));
+                }
+                for (Subscription sub : ch.subscribers) {
+                    sub.offer(batch);
+                }
+            }
+        } catch (WakeupException ignored) {
+            // stop()
+        } catch (Exception e) {
+            log.warn("Shared tail channel failed cluster={} topic={}", ch.key.cluster(), ch.key.topic(), e);
+            ch.stopped = true;   // before remove(): a concurrent subscribe must not join this channel
+            channels.remove(ch.key, ch);
+            String msg = e.getClass().getSimpleName() + ": " + e.getMessage();
+            ch.subscribers.forEach(s -> s.fail(msg));
+        } finally {
+            closeQuietly(ch.consumer);
+        }
+    }
+
+    private void closeQuietly(KafkaConsumer<byte[], byte[]> consumer) {
+        try {
+            consumer.close(Duration.ofSeconds(2));
+        } catch (Exception e) {
+            log.debug("Tail channel consumer close failed", e);
+        }
+    }
+
+    private record ChannelKey(String cluster, String topic, List<Integer> partitions) {}
+
+    private static final class Channel {
+        private final ChannelKey key;
+        private final KafkaConsumer<byte[], byte[]> consumer;
+        private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+        private volatile boolean stopped;
+
+        private Channel(ChannelKey key, KafkaConsumer<byte[], byte[]> consumer) {
+            this.key = key;
+            this.consumer = consumer;
+        }
+
+        private void stop() {
+            stopped = true;
+            consumer.wakeup();   // only thread-safe consumer call; pump() closes it
+        }
+    }
+
+    // -------------------------------------------------------
+    // Subscription (per-viewer bounded ring buffer)
+    // -------------------------------------------------------
+
+    public final class Subscription {
+
+        private final ChannelKey key;
+        private final int capacity;
+        private final ArrayDeque<ConsumerTailRecordDto> buffer;
+        private long droppedSinceLastTake;
+        private String failure;
+
+        private Subscription(ChannelKey key, int capacity) {
+            this.key = key;
+            this.capacity = Math.max(1, capacity);
+            this.buffer = new ArrayDeque<>(Math.min(this.capacity, 1024));
+        }
+
+        private synchronized void offer(List<ConsumerTailRecordDto> batch) {
+            for (ConsumerTailRecordDto r : batch) {
+                if (buffer.size() >= capacity) {
+                    buffer.pollFirst();   // drop oldest
+                    droppedSinceLastTake++;
+                    dropped.increment();
+                }
+                buffer.addLast(r);
+            }
+            notifyAll();
+        }
+
+        private synchronized void fail(String message) {
+            failure = message;
+            notifyAll();
+        }
+
+        /**
+         * Up to max records, waiting up to waitMs for the first one.
+         * Throws IllegalStateException if the channel failed.
+         */
+        public synchronized List<ConsumerTailRecordDto> take(int max, long waitMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + waitMs;
+            while (buffer.isEmpty() && failure == null) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) return List.of();
+                wait(remaining);
+            }
+            if (buffer.isEmpty()) {
+                throw new IllegalStateException("Tail channel failed: " + failure);
+            }
+
+            List<ConsumerTailRecordDto> out = new ArrayList<>(Math.min(max, buffer.size()));
+            while (out.size() < max && !buffer.isEmpty()) {
+                out.add(buffer.pollFirst());
+            }
+            return out;
+        }
+
+        /** Records dropped for this viewer since the last call (resets the counter). */
+        public synchronized long drainDropped() {
+            long d = droppedSinceLastTake;
+            droppedSinceLastTake = 0;
+            return d;
+        }
+    }
+}
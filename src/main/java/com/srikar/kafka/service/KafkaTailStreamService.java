@@ -0,0 +1,416 @@
+package com.srikar.kafka.service;
+
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.dto.consumer.ConsumerTailCursor;
+import com.srikar.kafka.dto.consumer.ConsumerTailRecordDto;
+import com.srikar.kafka.dto.consumer.ConsumerTailRequest;
+import com.srikar.kafka.dto.consumer.ConsumerTailResponse;
+import com.srikar.kafka.exception.ServiceBusyException;
+import com.srikar.kafka.utilities.ConsumerPartitions;
+import com.srikar.kafka.utilities.ConsumerRecordMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-pushed live tail (SSE).
+ *
+ * Each session has one worker thread running next → send over a record source:
+ * - live tail (no cursor): a subscription on the shared KafkaTailMultiplexer channel, so N viewers
+ *   of one topic cost one consumer; a slow viewer loses its oldest records (reported in warnings)
+ * - resume (lastSeen cursor): a dedicated consumer positioned at the cursor; SseEmitter.send()
+ *   writes synchronously, so a slow client simply stops the polling (backpressure, no buffering)
+ *
+ * Events:
+ * - "records"   ConsumerTailResponse batch (records + nextCursor, same shape as POST /tail)
+ * - "heartbeat" no records for tail-stream.heartbeat-interval-ms (detects dead clients)
+ * - "end"       session closed by the server (idle / error), data = reason
+ *
+ * Teardown: client disconnect, idle timeout, max lifetime (emitter timeout) or shutdown.
+ */
+@Slf4j
+@Service
+public class KafkaTailStreamService {
+
+    private final KafkaConsumerPool consumerPool;
+    private final KafkaTailMultiplexer multiplexer;
+    private final KafkaAdminProperties props;
+
+    private final Semaphore sessionPermits;
+    private final ThreadPoolExecutor sessionExecutor;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public KafkaTailStreamService(KafkaConsumerPool consumerPool,
+                                  KafkaTailMultiplexer multiplexer,
+                                  KafkaAdminProperties props,
+                                  MeterRegistry meterRegistry) {
+        this.consumerPool = consumerPool;
+        this.multiplexer = multiplexer;
+        this.props = props;
+
+        int maxSessions = Math.max(1, props.getTailStream().getMaxSessions());
+        this.sessionPermits = new Semaphore(maxSessions);
+
+        AtomicInteger seq = new AtomicInteger();
+        // permits bound the sessions; the queue only absorbs the hand-over race with a finishing thread
+        this.sessionExecutor = new ThreadPoolExecutor(
+                maxSessions, maxSessions,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "kafka-tail-stream-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+        this.sessionExecutor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("oneinfra.kafka.console.tail.sessions", active, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter open(ConsumerTailRequest req) {
+
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (isBlank(req.getClusterName())) throw new IllegalArgumentException("clusterName is required");
+        if (isBlank(req.getTopicName())) throw new IllegalArgumentException("topicName is required");
+
+        final String clusterName = req.getClusterName().trim();
+        final String topicName = req.getTopicName().trim();
+
+        if (!sessionPermits.tryAcquire()) {
+            throw new ServiceBusyException(
+                    "Too many streaming tail sessions (max " + props.getTailStream().getMaxSessions() + ")");
+        }
+
+        Source source = null;
+        try {
+            boolean resume = req.getLastSeen() != null
+                    && req.getLastSeen().getOffsetsByPartition() != null
+                    && !req.getLastSeen().getOffsetsByPartition().isEmpty();
+
+            // Live tail → shared channel (one consumer for all viewers of this topic/partition-set).
+            // Resume from a cursor → dedicated consumer positioned at the cursor.
+            source = resume
+                    ? openDedicated(clusterName, topicName, req)
+                    : new SharedSource(multiplexer, multiplexer.subscribe(clusterName, topicName, req.getPartitions()));
+
+            SseEmitter emitter = new SseEmitter(props.getTailStream().getMaxLifetimeMs());
+            Map<Integer, Long> cursor = resume ? new HashMap<>(req.getLastSeen().getOffsetsByPartition()) : new HashMap<>();
+            Session session = new Session(clusterName, topicName, req, source, emitter, cursor);
+
+            emitter.onCompletion(session::stop);
+            emitter.onTimeout(() -> {
+                session.stop();
+                emitter.complete();
+            });
+            emitter.onError(t -> session.stop());
+
+            sessionExecutor.execute(() -> run(session));
+            return emitter;
+
+        } catch (RuntimeException e) {
+            sessionPermits.release();
+            if (source != null) source.close();
+            if (e instanceof IllegalArgumentException || e instanceof IllegalStateException
+                    || e instanceof ServiceBusyException) throw e;
+            log.error("Tail stream open failed cluster={} topic={}", clusterName, topicName, e);
+            throw new RuntimeException("Tail stream failed: " + safeMsg(e), e);
+        }
+    }
+
+    private Source openDedicated(String clusterName, String topicName, ConsumerTailRequest req) {
+        KafkaConsumer<byte[], byte[]> consumer = consumerPool.openDedicated(clusterName);
+        try {
+            // Assign + position on the request thread → bad partitions fail as a normal 400
+            List<TopicPartition> tps = ConsumerPartitions.resolve(consumer, topicName, req.getPartitions());
+            if (tps.isEmpty()) {
+                throw new IllegalArgumentException("No partitions found for topic " + topicName);
+            }
+            consumer.assign(tps);
+            seekFromCursor(consumer, tps, req.getLastSeen());
+            return new DedicatedSource(consumer);
+        } catch (RuntimeException e) {
+            closeQuietly(consumer);
+            throw e;
+        }
+    }
+
+    // -------------------------------------------------------
+    // Session loop
+    // -------------------------------------------------------
+
+    private void run(Session s) {
+        active.incrementAndGet();
+
+        KafkaAdminProperties.TailStream cfg = props.getTailStream();
+        int pollTimeoutMs = clamp(s.req.getPollTimeoutMs(), 100, 10000, 1000);
+        int maxMessages = clamp(s.req.getMaxMessages(), 1, 500, 50);
+        long idleNs = TimeUnit.MILLISECONDS.toNanos(cfg.getIdleTimeoutMs());
+        long heartbeatNs = TimeUnit.MILLISECONDS.toNanos(cfg.getHeartbeatIntervalMs());
+
+        long lastDataNs = System.nanoTime();
+        long lastSentNs = lastDataNs;
+
+        try {
+            while (!s.stopped) {
+                List<ConsumerTailRecordDto> records = s.source.next(maxMessages, pollTimeoutMs);
+                long now = System.nanoTime();
+
+                long dropped = s.source.dropped();
+                if (!records.isEmpty() || dropped > 0) {
+                    for (int i = 0; i < records.size(); i += maxMessages) {
+                        List<ConsumerTailRecordDto> batch = new ArrayList<>(
+                                records.subList(i, Math.min(i + maxMessages, records.size())));
+                        for (int j = 0; j < batch.size(); j++) {
+                            ConsumerTailRecordDto r = strip(batch.get(j), s.req);
+                            batch.set(j, r);
+                            s.cursor.merge(r.getPartition(), r.getOffset(), Math::max);
+                        }
+                        sendBatch(s, batch, dropped);
+                        dropped = 0;
+                    }
+                    if (dropped > 0) sendBatch(s, List.of(), dropped);
+
+                    if (!records.isEmpty()) lastDataNs = System.nanoTime();
+                    lastSentNs = System.nanoTime();
+                    continue;
+                }
+
+                if (now - lastDataNs > idleNs) {
+                    s.emitter.send(SseEmitter.event().name("end").data("idle"));
+                    s.emitter.complete();
+                    break;
+                }
+
+                if (now - lastSentNs > heartbeatNs) {
+                    s.emitter.send(SseEmitter.event().name("heartbeat").data(System.currentTimeMillis()));
+                    lastSentNs = now;
+                }
+            }
+        } catch (WakeupException | IOException | IllegalStateException | InterruptedException closed) {
+            // client went away / emitter completed / stop() woke the source
+            if (closed instanceof InterruptedException) Thread.currentThread().interrupt();
+            log.debug("Tail stream ended cluster={} topic={}: {}", s.clusterName, s.topicName, closed.toString());
+            if (!s.stopped) endQuietly(s, "error: " + safeMsg(closed));
+        } catch (Exception e) {
+            log.warn("Tail stream failed cluster={} topic={}", s.clusterName, s.topicName, e);
+            endQuietly(s, "error: " + safeMsg(e));
+        } finally {
+            s.source.close();
+            active.decrementAndGet();
+            sessionPermits.release();
+        }
+    }
+
+    private void endQuietly(Session s, String reason) {
+        try {
+            s.emitter.send(SseEmitter.event().name("end").data(reason));
+            s.emitter.complete();
+        } catch (Exception ignored) {
+            // client already gone
+        }
+    }
+
+    private void sendBatch(Session s, List<ConsumerTailRecordDto> batch, long dropped) throws IOException {
+        ConsumerTailResponse payload = ConsumerTailResponse.builder()
+                .clusterName(s.clusterName)
+                .topicName(s.topicName)
+                .fetched(batch.size())
+                .records(batch)
+                .nextCursor(ConsumerTailCursor.builder()
+                        .offsetsByPartition(new HashMap<>(s.cursor))
+                        .build())
+                .warnings(dropped > 0
+                        ? List.of("Dropped " + dropped + " record(s): client is slower than the topic")
+                        : List.of())
+                .build();
+
+        // Blocks while the client's socket buffer is full → natural backpressure
+        s.emitter.send(SseEmitter.event().name("records").data(payload, MediaType.APPLICATION_JSON));
+    }
+
+    /** Same semantics as stateless tail(): resume at last+1 per partition, else from end. */
+    private void seekFromCursor(KafkaConsumer<byte[], byte[]> consumer,
+                                List<TopicPartition> tps,
+                                ConsumerTailCursor cursor) {
+        Map<Integer, Long> last = cursor == null ? null : cursor.getOffsetsByPartition();
+
+        for (TopicPartition tp : tps) {
+            Long off = last == null ? null : last.get(tp.partition());
+            if (off == null) {
+                consumer.seekToEnd(List.of(tp));
+            } else {
+                consumer.seek(tp, off + 1);
+            }
+        }
+    }
+
+    /** Shared channels map records with key + headers; drop what this viewer didn't ask for. */
+    private ConsumerTailRecordDto strip(ConsumerTailRecordDto r, ConsumerTailRequest req) {
+        if (req.isIncludeKey() && req.isIncludeHeaders()) return r;
+        return ConsumerTailRecordDto.builder()
+                .topic(r.getTopic())
+                .partition(r.getPartition())
+                .offset(r.getOffset())
+                .timestamp(r.getTimestamp())
+                .key(req.isIncludeKey() ? r.getKey() : null)
+                .value(r.getValue())
+                .headers(req.isIncludeHeaders() ? r.getHeaders() : new ArrayList<>())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessionExecutor.shutdownNow();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+
+    private void closeQuietly(KafkaConsumer<byte[], byte[]> consumer) {
+        try {
+            consumer.close(Duration.ofSeconds(2));
+        } catch (Exception e) {
+            log.debug("Tail stream consumer close failed", e);
+        }
+    }
+
+    private int clamp(Integer value, int min, int max, int def) {
+        if (value == null) return def;
+        if (value < min) return min;
+        if (value > max) return max;
+        return value;
+    }
+
+    private boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private String safeMsg(Throwable t) {
+        String m = t.getMessage();
+        return m == null ? "" : (m.length() > 500 ? m.substring(0, 500) : m);
+    }
+
+    private static final class Session {
+        private final String clusterName;
+        private final String topicName;
+        private final ConsumerTailRequest req;
+        private final Source source;
+        private final SseEmitter emitter;
+        private final Map<Integer, Long> cursor;   // partition → last offset sent
+        private volatile boolean stopped;
+
+        private Session(String clusterName, String topicName, ConsumerTailRequest req,
+                        Source source, SseEmitter emitter, Map<Integer, Long> cursor) {
+            this.clusterName = clusterName;
+            this.topicName = topicName;
+            this.req = req;
+            this.source = source;
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        /** Safe from any thread (emitter callbacks). */
+        private void stop() {
+            if (stopped) return;
+            stopped = true;
+            source.wakeup();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Record sources
+    // -------------------------------------------------------
+
+    private interface Source {
+        /** Up to ~max records, waiting up to waitMs. */
+        List<ConsumerTailRecordDto> next(int max, int waitMs) throws InterruptedException;
+
+        /** Records lost for this viewer since the last call (shared channels only). */
+        default long dropped() { return 0L; }
+
+        /** Thread-safe: unblock next(). */
+        void wakeup();
+
+        /** Called once by the session thread. */
+        void close();
+    }
+
+    /** Cursor resume: own consumer, positioned at the cursor. */
+    private final class DedicatedSource implements Source {
+        private final KafkaConsumer<byte[], byte[]> consumer;
+
+        private DedicatedSource(KafkaConsumer<byte[], byte[]> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public List<ConsumerTailRecordDto> next(int max, int waitMs) {
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(waitMs));
+            List<ConsumerTailRecordDto> out = new ArrayList<>(records.count());
+            for (ConsumerRecord<byte[], byte[]> r : records) {
+                out.add(ConsumerRecordMapper.toTailDto(r, true, true));
+            }
+            return out;
+        }
+
+        @Override
+        public void wakeup() {
+            consumer.wakeup();   // only thread-safe consumer call
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(consumer);
+        }
+    }
+
+    /** Live tail: subscription on the shared channel (KafkaTailMultiplexer). */
+    private record SharedSource(KafkaTailMultiplexer multiplexer,
+                                KafkaTailMultiplexer.Subscription sub) implements Source {
+
+        @Override
+        public List<ConsumerTailRecordDto> next(int max, int waitMs) throws InterruptedException {
+            return sub.take(max, waitMs);
+        }
+
+        @Override
+        public long dropped() {
+            return sub.drainDropped();
+        }
+
+        @Override
+        public void wakeup() {
+            multiplexer.unsubscribe(sub);
+        }
+
+        @Override
+        public void close() {
+            multiplexer.unsubscribe(sub);   // last viewer out closes the channel
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.srikar.kafka.service;
 
-import com.srikar.kafka.config.KafkaAdminClientFactory;
+import com.srikar.kafka.config.KafkaAdminClientRegistry;
+import com.srikar.kafka.config.KafkaRecordCache;
 import com.srikar.kafka.db.KafkaClusterRepository;
 import com.srikar.kafka.db.KafkaTopicRepository;
 import com.srikar.kafka.dto.topic.TopicCreateRequest;
@@ -36,7 +37,8 @@ public class KafkaTopicService {
 
     private final KafkaTopicRepository topicRepo;
     private final KafkaClusterRepository clusterRepo;
-    private final KafkaAdminClientFactory adminFactory;
+    private final KafkaAdminClientRegistry adminRegistry;   // ✅ pooled, do NOT close
+    private final KafkaRecordCache recordCache;             // ✅ drop cached records on delete
 
     // -------------------------------------------------------
     // CREATE Topic (Kafka + DB)
@@ -59,7 +61,8 @@ public class KafkaTopicService {
             throw new DuplicateTopicException(clusterId, topicName);
         }
 
-        try (AdminClient admin = adminFactory.create(cluster.getBootstrapServers())) {
+        try {
+            AdminClient admin = adminRegistry.forCluster(cluster);
 
             cacheKafkaClusterIdIfNeeded(admin, cluster);
 
@@ -82,6 +85,7 @@ public class KafkaTopicService {
             }
 
         } catch (Exception e) {
+            adminRegistry.reportFailure(cluster.getBootstrapServers(), e);
             throw new KafkaOperationException(
                     "Kafka topic creation failed: " + topicName +
                             " (cluster=" + cluster.getName() + ")",
@@ -155,7 +159,8 @@ public class KafkaTopicService {
 
         TopicDetail detail = TopicMapper.toDetail(entity);
 
-        try (AdminClient admin = adminFactory.create(cluster.getBootstrapServers())) {
+        try {
+            AdminClient admin = adminRegistry.forCluster(cluster);
 
             cacheKafkaClusterIdIfNeeded(admin, cluster);
 
@@ -176,6 +181,7 @@ public class KafkaTopicService {
             detail.setConfigs(configs);
 
         } catch (Exception e) {
+            adminRegistry.reportFailure(cluster.getBootstrapServers(), e);
             detail.setLastError("Unable to fetch Kafka topic configs");
             log.debug("Failed to fetch configs for topic={}", topicName, e);
         }
@@ -202,7 +208,8 @@ public class KafkaTopicService {
 
         TopicKafkaDelta delta;
 
-        try (AdminClient admin = adminFactory.create(cluster.getBootstrapServers())) {
+        try {
+            AdminClient admin = adminRegistry.forCluster(cluster);
 
             cacheKafkaClusterIdIfNeeded(admin, cluster);
 
@@ -236,6 +243,7 @@ public class KafkaTopicService {
         } catch (DomainValidationException e) {
             throw e;
         } catch (Exception e) {
+            adminRegistry.reportFailure(cluster.getBootstrapServers(), e);
             if (isUnknownTopic(e)) {
                 throw new TopicNotFoundException(clusterId, topicName);
             }
@@ -276,7 +284,8 @@ public class KafkaTopicService {
         KafkaTopicEntity entity = topicRepo.findByCluster_IdAndTopicName(clusterId, topicName)
                 .orElseThrow(() -> new TopicNotFoundException(clusterId, topicName));
 
-        try (AdminClient admin = adminFactory.create(cluster.getBootstrapServers())) {
+        try {
+            AdminClient admin = adminRegistry.forCluster(cluster);
 
             cacheKafkaClusterIdIfNeeded(admin, cluster);
 
@@ -285,6 +294,7 @@ public class KafkaTopicService {
                     .get(8, TimeUnit.SECONDS);
 
         } catch (Exception e) {
+            adminRegistry.reportFailure(cluster.getBootstrapServers(), e);
             if (isUnknownTopic(e)) {
                 throw new TopicNotFoundException(clusterId, topicName);
             }
@@ -296,6 +306,9 @@ public class KafkaTopicService {
         }
 
         topicRepo.delete(entity);
+
+        // A recreated topic restarts its offsets: cached records would be wrong
+        recordCache.invalidate(cluster.getName(), topicName);
     }
 
     // -------------------------------------------------------
@@ -0,0 +1,255 @@
+package com.srikar.kafka.utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Avro binary → JsonNode, driven by a writer schema (Avro JSON schema text).
+ *
+ * compile() walks the schema once into a tree of readers; decode() then only follows that tree,
+ * so callers cache the compiled instance (per schema fingerprint) and reuse it for every record.
+ *
+ * - all Avro types incl. named / recursive references, unions, blocked arrays / maps
+ * - unions render the branch value directly (no {"type": value} wrapper), bytes / fixed as base64
+ * - logical types are ignored (underlying value is returned)
+ * - a payload must be consumed exactly; trailing bytes = wrong schema
+ * - records nest at most MAX_DEPTH deep (a recursive schema over garbage would otherwise overflow the stack)
+ */
+public final class AvroBinaryDecoder {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final int MAX_DEPTH = 64;
+
+    private final Reader root;
+
+    private AvroBinaryDecoder(Reader root) {
+        this.root = root;
+    }
+
+    public static AvroBinaryDecoder compile(JsonNode schema) {
+        return new AvroBinaryDecoder(new Compiler().compile(schema, null));
+    }
+
+    public JsonNode decode(byte[] data, int offset) {
+        Input in = new Input(data, offset);
+        JsonNode out = root.read(in);
+        if (in.pos != data.length) {
+            throw new IllegalArgumentException("Trailing bytes after Avro datum (" + (data.length - in.pos) + ")");
+        }
+        return out;
+    }
+
+    // -------------------------------------------------------
+    // Schema compilation
+    // -------------------------------------------------------
+
+    private interface Reader {
+        JsonNode read(Input in);
+    }
+
+    private static final class Compiler {
+        private final Map<String, Reader> named = new HashMap<>();
+
+        Reader compile(JsonNode s, String namespace) {
+            if (s.isTextual()) return primitiveOrRef(s.asText(), namespace);
+
+            if (s.isArray()) {
+                List<Reader> branches = new ArrayList<>();
+                for (JsonNode b : s) branches.add(compile(b, namespace));
+                return in -> {
+                    int i = (int) in.readLong();
+                    if (i < 0 || i >= branches.size()) throw new IllegalArgumentException("Union index out of range: " + i);
+                    return branches.get(i).read(in);
+                };
+            }
+
+            if (!s.isObject() || !s.has("type")) throw new IllegalArgumentException("Unsupported Avro schema node: " + s);
+
+            JsonNode typeNode = s.get("type");
+            if (!typeNode.isTextual()) return compile(typeNode, namespace);   // {"type": {...}} / {"type": [...]}
+
+            String type = typeNode.asText();
+            switch (type) {
+                case "record", "error" -> {
+                    String ns = s.hasNonNull("namespace") ? s.get("namespace").asText() : namespace;
+                    String name = fullName(s.get("name").asText(), ns);
+
+                    // registered before its fields: recursive references get this same reader
+                    List<String> names = new ArrayList<>();
+                    List<Reader> fields = new ArrayList<>();
+                    Reader record = in -> {
+                        // only named types recurse, and only records can hold a named type
+                        if (++in.depth > MAX_DEPTH) throw new IllegalArgumentException("Avro nesting too deep");
+                        ObjectNode o = NODES.objectNode();
+                        for (int i = 0; i < fields.size(); i++) o.set(names.get(i), fields.get(i).read(in));
+                        in.depth--;
+                        return o;
+                    };
+                    named.put(name, record);
+                    String fieldNs = namespaceOf(name);
+                    for (JsonNode f : s.withArray("fields")) {
+                        names.add(f.get("name").asText());
+                        fields.add(compile(f.get("type"), fieldNs));
+                    }
+                    return record;
+                }
+                case "enum" -> {
+                    String ns = s.hasNonNull("namespace") ? s.get("namespace").asText() : namespace;
+                    List<String> symbols = new ArrayList<>();
+                    for (JsonNode sym : s.withArray("symbols")) symbols.add(sym.asText());
+                    Reader r = in -> {
+                        int i = (int) in.readLong();
+                        if (i < 0 || i >= symbols.size()) throw new IllegalArgumentException("Enum index out of range: " + i);
+                        return NODES.textNode(symbols.get(i));
+                    };
+                    named.put(fullName(s.get("name").asText(), ns), r);
+                    return r;
+                }
+                case "fixed" -> {
+                    String ns = s.hasNonNull("namespace") ? s.get("namespace").asText() : namespace;
+                    int size = s.get("size").asInt();
+                    Reader r = in -> NODES.binaryNode(in.readFixed(size));
+                    named.put(fullName(s.get("name").asText(), ns), r);
+                    return r;
+                }
+                case "array" -> {
+                    Reader items = compile(s.get("items"), namespace);
+                    return in -> {
+                        ArrayNode a = NODES.arrayNode();
+                        for (long n = in.readBlockCount(); n != 0; n = in.readBlockCount()) {
+                            for (long i = 0; i < n; i++) a.add(items.read(in));
+                        }
+                        return a;
+                    };
+                }
+                case "map" -> {
+                    Reader values = compile(s.get("values"), namespace);
+                    return in -> {
+                        ObjectNode o = NODES.objectNode();
+                        for (long n = in.readBlockCount(); n != 0; n = in.readBlockCount()) {
+                            for (long i = 0; i < n; i++) o.set(in.readString(), values.read(in));
+                        }
+                        return o;
+                    };
+                }
+                default -> {
+                    return primitiveOrRef(type, namespace);
+                }
+            }
+        }
+
+        private Reader primitiveOrRef(String type, String namespace) {
+            switch (type) {
+                case "null": return in -> NODES.nullNode();
+                case "boolean": return in -> NODES.booleanNode(in.readByte() != 0);
+                case "int": return in -> NODES.numberNode((int) in.readLong());
+                case "long": return in -> NODES.numberNode(in.readLong());
+                case "float": return in -> NODES.numberNode(Float.intBitsToFloat((int) in.readLittleEndian(4)));
+                case "double": return in -> NODES.numberNode(Double.longBitsToDouble(in.readLittleEndian(8)));
+                case "bytes": return in -> NODES.binaryNode(in.readFixed(in.readLength()));
+                case "string": return in -> NODES.textNode(in.readString());
+                default:
+                    // named types are registered before their fields compile, so recursion resolves here too
+                    Reader ref = named.get(type.contains(".") ? type : fullName(type, namespace));
+                    if (ref == null) ref = named.get(type);
+                    if (ref == null) throw new IllegalArgumentException("Unknown Avro type: " + type);
+                    return ref;
+            }
+        }
+
+        private static String fullName(String name, String namespace) {
+            if (name.contains(".") || namespace == null || namespace.isEmpty()) return name;
+            return namespace + "." + name;
+        }
+
+        private static String namespaceOf(String fullName) {
+            int i = fullName.lastIndexOf('.');
+            return i < 0 ? null : fullName.substring(0, i);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Binary input
+    // -------------------------------------------------------
+
+    private static final class Input {
+        private final byte[] b;
+        private int pos;
+        private int depth;
+
+        Input(byte[] b, int pos) {
+            this.b = b;
+            this.pos = pos;
+        }
+
+        byte readByte() {
+            if (pos >= b.length) throw new IllegalArgumentException("Unexpected end of Avro datum");
+            return b[pos++];
+        }
+
+        /** zig-zag varint */
+        long readLong() {
+            long raw = 0;
+            int shift = 0;
+            while (true) {
+                int c = readByte() & 0xFF;
+                raw |= (long) (c & 0x7F) << shift;
+                if ((c & 0x80) == 0) break;
+                shift += 7;
+                if (shift > 63) throw new IllegalArgumentException("Malformed Avro varint");
+            }
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        long readLittleEndian(int n) {
+            if (pos + n > b.length) throw new IllegalArgumentException("Unexpected end of Avro datum");
+            long v = 0;
+            for (int i = 0; i < n; i++) v |= (long) (b[pos + i] & 0xFF) << (8 * i);
+            pos += n;
+            return v;
+        }
+
+        int readLength() {
+            long n = readLong();
+            if (n < 0 || n > b.length - pos) throw new IllegalArgumentException("Invalid Avro length: " + n);
+            return (int) n;
+        }
+
+        byte[] readFixed(int n) {
+            if (n < 0 || pos + n > b.length) throw new IllegalArgumentException("Unexpected end of Avro datum");
+            byte[] out = new byte[n];
+            System.arraycopy(b, pos, out, 0, n);
+            pos += n;
+            return out;
+        }
+
+        String readString() {
+            int n = readLength();
+            String s = new String(b, pos, n, StandardCharsets.UTF_8);
+            pos += n;
+            return s;
+        }
+
+        /** Item count of the next array / map block (negative count = followed by a byte size). */
+        long readBlockCount() {
+            long n = readLong();
+            if (n < 0) {
+                readLong();   // block size in bytes, only useful for skipping
+                n = -n;
+            }
+            if (n > b.length - pos + 1L) {
+                // items take >= 1 byte except null / empty records: guards garbage counts on the wrong schema
+                throw new IllegalArgumentException("Invalid Avro block count: " + n);
+            }
+            return n;
+        }
+    }
+}
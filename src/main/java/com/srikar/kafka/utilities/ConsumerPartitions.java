@@ -0,0 +1,116 @@
+package com.srikar.kafka.utilities;
+
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public final class ConsumerPartitions {
+
+    private ConsumerPartitions() {}
+
+    /**
+     * Partitions to read: all partitions of the topic when requested is null/empty,
+     * otherwise the validated, de-duplicated subset. Empty when the topic has no metadata.
+     */
+    public static List<TopicPartition> resolve(KafkaConsumer<byte[], byte[]> consumer,
+                                               String topic,
+                                               List<Integer> requested) {
+
+        var partitions = consumer.partitionsFor(topic);
+        if (partitions == null || partitions.isEmpty()) return List.of();
+
+        Set<Integer> all = partitions.stream().map(pi -> pi.partition()).collect(Collectors.toSet());
+
+        // If user didn’t pass partitions → all
+        if (requested == null || requested.isEmpty()) {
+            return all.stream().sorted().map(p -> new TopicPartition(topic, p)).toList();
+        }
+
+        // Validate subset
+        for (Integer p : requested) {
+            if (p == null || !all.contains(p)) {
+                throw new IllegalArgumentException("Invalid partition: " + p + " for topic: " + topic);
+            }
+        }
+
+        return requested.stream()
+                .distinct()
+                .sorted()
+                .map(p -> new TopicPartition(topic, p))
+                .toList();
+    }
+
+    /**
+     * Positions every partition per the requested start (null = LATEST).
+     * TIMESTAMP falls back to end when the broker has no offset at/after the timestamp.
+     * LAST_N needs a quota, use seekLastN().
+     */
+    public static void seek(KafkaConsumer<byte[], byte[]> consumer,
+                            List<TopicPartition> tps,
+                            ConsumerDto.Position position,
+                            Long offset,
+                            Long timestampMs) {
+
+        ConsumerDto.Position pos = position == null ? ConsumerDto.Position.LATEST : position;
+
+        switch (pos) {
+            case EARLIEST -> consumer.seekToBeginning(tps);
+            case LATEST -> consumer.seekToEnd(tps);
+
+            case OFFSET -> {
+                if (offset == null || offset < 0) {
+                    throw new IllegalArgumentException("offset is required and must be >= 0 when position=OFFSET");
+                }
+                for (TopicPartition tp : tps) {
+                    consumer.seek(tp, offset);
+                }
+            }
+
+            case TIMESTAMP -> {
+                if (timestampMs == null || timestampMs <= 0) {
+                    throw new IllegalArgumentException("timestampMs is required and must be > 0 when position=TIMESTAMP");
+                }
+                Map<TopicPartition, Long> query = new HashMap<>();
+                for (TopicPartition tp : tps) query.put(tp, timestampMs);
+
+                Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(query);
+
+                // If broker returns null (no offset at that timestamp), fall back to end
+                for (TopicPartition tp : tps) {
+                    var oat = offsets.get(tp);
+                    if (oat != null) consumer.seek(tp, oat.offset());
+                    else consumer.seekToEnd(List.of(tp));
+                }
+            }
+
+            case LAST_N -> throw new IllegalArgumentException("position=LAST_N is only supported by fetch");
+        }
+    }
+
+    /**
+     * LAST_N read ranges: [max(begin, end - n), end) per partition, from one batched
+     * beginningOffsets + one batched endOffsets call for all partitions.
+     */
+    public static Map<TopicPartition, long[]> lastNRanges(KafkaConsumer<byte[], byte[]> consumer,
+                                                          List<TopicPartition> tps,
+                                                          int n) {
+
+        Map<TopicPartition, Long> begin = consumer.beginningOffsets(tps);
+        Map<TopicPartition, Long> end = consumer.endOffsets(tps);
+
+        Map<TopicPartition, long[]> ranges = new HashMap<>();
+        for (TopicPartition tp : tps) {
+            long b = begin.getOrDefault(tp, 0L);
+            long e = end.getOrDefault(tp, b);
+            ranges.put(tp, new long[]{Math.max(b, e - n), e});
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,180 @@
+package com.srikar.kafka.utilities;
+
+import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
+import com.srikar.kafka.dto.consumer.ConsumerTailHeaderDto;
+import com.srikar.kafka.dto.consumer.ConsumerTailRecordDto;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Byte-array ConsumerRecord → console DTOs (fetch / tail / streaming tail).
+ * Keys and values are base64, header values UTF-8.
+ * List views pass previewBytes > 0 to send only the head of each value; text = true sends
+ * valid UTF-8 keys / values as-is (no base64 inflation, one String instead of two).
+ */
+public final class ConsumerRecordMapper {
+
+    private ConsumerRecordMapper() {}
+
+    private static final String UTF8 = "utf8";
+
+    public static ConsumerRecordDto toRecordDto(ConsumerRecord<byte[], byte[]> r) {
+        return toRecordDto(r, 0, false);
+    }
+
+    public static ConsumerRecordDto toRecordDto(ConsumerRecord<byte[], byte[]> r, int previewBytes) {
+        return toRecordDto(r, previewBytes, false);
+    }
+
+    /** previewBytes <= 0 → full value. */
+    public static ConsumerRecordDto toRecordDto(ConsumerRecord<byte[], byte[]> r, int previewBytes, boolean text) {
+        byte[] key = r.key();
+        boolean keyText = text && key != null && isUtf8(key, key.length);
+        String keyOut = key == null ? null
+                : keyText ? new String(key, StandardCharsets.UTF_8) : Base64.getEncoder().encodeToString(key);
+
+        byte[] value = r.value();
+        boolean truncated = value != null && previewBytes > 0 && value.length > previewBytes;
+        int len = value == null ? 0 : truncated ? previewBytes : value.length;
+
+        // text preview: don't cut a multi-byte character in half
+        int textLen = truncated ? utf8Boundary(value, len) : len;
+        boolean valueText = text && value != null && isUtf8(value, textLen);
+
+        String valOut = value == null ? null
+                : valueText ? new String(value, 0, textLen, StandardCharsets.UTF_8)
+                : Base64.getEncoder().encodeToString(len == value.length ? value : Arrays.copyOf(value, len));
+
+        String headers = null;
+        if (r.headers() != null) {
+            List<String> parts = new ArrayList<>();
+            for (Header h : r.headers()) {
+                String v = h.value() == null ? "" : safeUtf8(h.value());
+                parts.add(h.key() + "=" + v);
+            }
+            headers = parts.isEmpty() ? null : String.join("; ", parts);
+        }
+
+        return new ConsumerRecordDto(
+                r.partition(),
+                r.offset(),
+                r.timestamp(),
+                keyOut,
+                valOut,
+                keyText ? UTF8 : null,
+                valueText ? UTF8 : null,
+                headers,
+                sizeBytes(r),
+                value == null ? null : value.length,
+                truncated ? Boolean.TRUE : null,
+                null,
+                null,
+                null
+        );
+    }
+
+    /** Strict UTF-8 validation of b[0, len) (no overlongs / surrogates), allocation-free. */
+    public static boolean isUtf8(byte[] b, int len) {
+        int i = 0;
+        while (i < len) {
+            int c = b[i] & 0xFF;
+            if (c < 0x80) {
+                i++;
+                continue;
+            }
+            int n;
+            int min;
+            if (c >= 0xC2 && c <= 0xDF) { n = 1; min = 0x80; }
+            else if (c >= 0xE0 && c <= 0xEF) { n = 2; min = 0x800; }
+            else if (c >= 0xF0 && c <= 0xF4) { n = 3; min = 0x10000; }
+            else return false;
+
+            if (i + n >= len) return false;   // truncated sequence
+            int cp = c & (0x3F >> n);
+            for (int k = 1; k <= n; k++) {
+                int cc = b[i + k] & 0xFF;
+                if ((cc & 0xC0) != 0x80) return false;
+                cp = (cp << 6) | (cc & 0x3F);
+            }
+            if (cp < min || cp > 0x10FFFF || (cp >= 0xD800 && cp <= 0xDFFF)) return false;
+            i += n + 1;
+        }
+        return true;
+    }
+
+    /** Largest cut <= len that doesn't split a UTF-8 sequence. */
+    static int utf8Boundary(byte[] b, int len) {
+        if (len >= b.length) return b.length;
+        int cut = len;
+        // b[cut] is the first byte NOT included; step back while it's a continuation byte
+        while (cut > 0 && (b[cut] & 0xC0) == 0x80) cut--;
+        return cut;
+    }
+
+    /** Raw key + value bytes a DTO with this preview length carries (response byte budgets). */
+    public static long responseBytes(ConsumerRecord<byte[], byte[]> r, int previewBytes) {
+        long size = r.key() == null ? 0 : r.key().length;
+        if (r.value() != null) {
+            size += previewBytes > 0 ? Math.min(previewBytes, r.value().length) : r.value().length;
+        }
+        return size;
+    }
+
+    public static ConsumerTailRecordDto toTailDto(ConsumerRecord<byte[], byte[]> r,
+                                                  boolean includeHeaders,
+                                                  boolean includeKey) {
+
+        String keyB64 = null;
+        if (includeKey && r.key() != null) {
+            keyB64 = Base64.getEncoder().encodeToString(r.key());
+        }
+
+        String valB64 = r.value() == null ? null : Base64.getEncoder().encodeToString(r.value());
+
+        List<ConsumerTailHeaderDto> headers = new ArrayList<>();
+        if (includeHeaders && r.headers() != null) {
+            for (Header h : r.headers()) {
+                String v = h.value() == null ? "" : safeUtf8(h.value());
+                headers.add(ConsumerTailHeaderDto.builder()
+                        .key(h.key())
+                        .value(v)
+                        .build());
+            }
+        }
+
+        return ConsumerTailRecordDto.builder()
+                .topic(r.topic())
+                .partition(r.partition())
+                .offset(r.offset())
+                .timestamp(r.timestamp())
+                .key(keyB64)
+                .value(valB64)
+                .headers(headers)
+                .build();
+    }
+
+    /** Serialized key + value size, or null if the broker didn't report it. */
+    public static Integer sizeBytes(ConsumerRecord<byte[], byte[]> r) {
+        try {
+            int vSize = r.serializedValueSize();
+            int kSize = r.serializedKeySize();
+            if (vSize >= 0 || kSize >= 0) return Math.max(0, vSize) + Math.max(0, kSize);
+        } catch (Exception ignored) {
+        }
+        return null;
+    }
+
+    public static String safeUtf8(byte[] bytes) {
+        try {
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            return Base64.getEncoder().encodeToString(bytes);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.srikar.kafka.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets (microseconds).
+ *
+ * Values below 128 get their own bucket; above that every power of two is split into
+ * 64 linear sub-buckets, so any recorded value is reported within ~1.6% (2 significant
+ * digits) over the full long range, in a fixed ~30 KB array. record() is one atomic add,
+ * safe from producer callback threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 128;
+    private static final int SUB_BITS = 6;           // 64 sub-buckets per power of two
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = LINEAR + (64 - 7) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(index(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        min.accumulateAndGet(v, Math::min);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long minMicros() {
+        return total.get() == 0 ? 0 : min.get();
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    public double meanMicros() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /** q in [0, 1]; value at that quantile (bucket midpoint, clamped to the observed max). */
+    public long percentileMicros(double q) {
+        long n = total.get();
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(midpoint(i), max.get());
+        }
+        return max.get();
+    }
+
+    // -------------------------------------------------------
+    // Bucket math
+    // -------------------------------------------------------
+
+    private static int index(long v) {
+        if (v < LINEAR) return (int) v;
+        int msb = 63 - Long.numberOfLeadingZeros(v);    // >= 7
+        int shift = msb - SUB_BITS;                     // keep the top 7 bits
+        int top = (int) (v >>> shift);                  // [64, 127]
+        return LINEAR + (shift - 1) * SUB + (top - SUB);
+    }
+
+    private static long midpoint(int index) {
+        if (index < LINEAR) return index;
+        int shift = (index - LINEAR) / SUB + 1;
+        long top = (index - LINEAR) % SUB + SUB;
+        long lower = top << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+}
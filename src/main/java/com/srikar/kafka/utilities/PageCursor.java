@@ -0,0 +1,46 @@
+package com.srikar.kafka.utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Opaque paging cursor: topic + one offset per partition, base64url encoded.
+ * Plain text inside ("v1;topic;0:12,1:40"): topic names can't contain ';', ':' or ','.
+ */
+public record PageCursor(String topic, Map<Integer, Long> offsets) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(VERSION).append(';').append(topic).append(';');
+        boolean first = true;
+        for (Map.Entry<Integer, Long> e : new TreeMap<>(offsets).entrySet()) {
+            if (!first) sb.append(',');
+            sb.append(e.getKey()).append(':').append(e.getValue());
+            first = false;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(";", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[1].isEmpty() || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("malformed");
+            }
+
+            Map<Integer, Long> offsets = new TreeMap<>();
+            for (String po : parts[2].split(",")) {
+                int i = po.indexOf(':');
+                offsets.put(Integer.parseInt(po.substring(0, i)), Long.parseLong(po.substring(i + 1)));
+            }
+            return new PageCursor(parts[1], offsets);
+
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
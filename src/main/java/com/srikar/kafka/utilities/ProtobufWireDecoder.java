@@ -0,0 +1,145 @@
+package com.srikar.kafka.utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Schema-less protobuf wire decoding (like `protoc --decode_raw`): field numbers as keys,
+ * repeated numbers collected into arrays.
+ *
+ * - varint → number, fixed32 / fixed64 → unsigned number (type unknown without a descriptor)
+ * - length-delimited → printable UTF-8 text, else nested message if it parses completely, else base64
+ * - groups (deprecated wire types 3 / 4) are rejected
+ */
+public final class ProtobufWireDecoder {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final int MAX_DEPTH = 32;
+
+    private ProtobufWireDecoder() {}
+
+    /**
+     * Field 0 is invalid in protobuf, so a leading 0x00 can only be the schema-registry framing:
+     * magic byte + 4-byte schema id + message-index path (zig-zag varint count, then the indexes;
+     * a single 0 stands for the first message).
+     */
+    public static JsonNode decode(byte[] data) {
+        int from = 0;
+        if (data.length >= 6 && data[0] == 0) {
+            int[] pos = {5};
+            long count = zigZag(varint(data, pos, data.length));
+            for (long i = 0; i < count; i++) varint(data, pos, data.length);
+            from = pos[0];
+        }
+        return decode(data, from);
+    }
+
+    public static JsonNode decode(byte[] data, int offset) {
+        return message(data, offset, data.length, 0);
+    }
+
+    private static ObjectNode message(byte[] b, int from, int to, int depth) {
+        if (depth > MAX_DEPTH) throw new IllegalArgumentException("Protobuf nesting too deep");
+
+        ObjectNode out = NODES.objectNode();
+        int[] pos = {from};
+        while (pos[0] < to) {
+            long tag = varint(b, pos, to);
+            int field = (int) (tag >>> 3);
+            int wire = (int) (tag & 7);
+            if (field <= 0) throw new IllegalArgumentException("Invalid protobuf field number: " + field);
+
+            JsonNode value;
+            switch (wire) {
+                case 0 -> value = NODES.numberNode(varint(b, pos, to));
+                case 1 -> {
+                    long v = fixed(b, pos, to, 8);
+                    value = v >= 0 ? NODES.numberNode(v) : NODES.numberNode(new BigInteger(Long.toUnsignedString(v)));
+                }
+                case 5 -> value = NODES.numberNode(fixed(b, pos, to, 4));
+                case 2 -> {
+                    long len = varint(b, pos, to);
+                    if (len < 0 || len > to - pos[0]) throw new IllegalArgumentException("Invalid protobuf length: " + len);
+                    int start = pos[0];
+                    int end = start + (int) len;
+                    value = lengthDelimited(b, start, end, depth);
+                    pos[0] = end;
+                }
+                default -> throw new IllegalArgumentException("Unsupported protobuf wire type: " + wire);
+            }
+
+            String key = Integer.toString(field);
+            JsonNode prev = out.get(key);
+            if (prev == null) {
+                out.set(key, value);
+            } else if (prev instanceof ArrayNode a) {
+                a.add(value);
+            } else {
+                ArrayNode a = NODES.arrayNode();
+                a.add(prev);
+                a.add(value);
+                out.set(key, a);
+            }
+        }
+        return out;
+    }
+
+    private static JsonNode lengthDelimited(byte[] b, int start, int end, int depth) {
+        byte[] slice = Arrays.copyOfRange(b, start, end);
+        boolean utf8 = ConsumerRecordMapper.isUtf8(slice, slice.length);
+
+        // printable text often also parses as a message ("hi" = field 13 varint 105): text wins
+        if (utf8 && printable(slice)) return NODES.textNode(new String(slice, StandardCharsets.UTF_8));
+        if (slice.length > 0) {
+            try {
+                return message(b, start, end, depth + 1);
+            } catch (IllegalArgumentException notAMessage) {
+                // fall through: string / bytes
+            }
+        }
+        return utf8 ? NODES.textNode(new String(slice, StandardCharsets.UTF_8)) : NODES.binaryNode(slice);
+    }
+
+    private static boolean printable(byte[] b) {
+        for (byte x : b) {
+            int c = x & 0xFF;
+            if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') return false;
+            if (c == 0x7F) return false;
+        }
+        return true;
+    }
+
+    private static long varint(byte[] b, int[] pos, int to) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= to) throw new IllegalArgumentException("Truncated protobuf varint");
+            int c = b[pos[0]++] & 0xFF;
+            v |= (long) (c & 0x7F) << shift;
+            if ((c & 0x80) == 0) return v;
+        }
+        throw new IllegalArgumentException("Malformed protobuf varint");
+    }
+
+    private static long zigZag(long raw) {
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static long fixed(byte[] b, int[] pos, int to, int n) {
+        if (pos[0] + n > to) throw new IllegalArgumentException("Truncated protobuf fixed" + (n * 8));
+        long v = fixed(b, pos[0], n);
+        pos[0] += n;
+        return v;
+    }
+
+    private static long fixed(byte[] b, int at, int n) {
+        long v = 0;
+        for (int i = 0; i < n; i++) v |= (long) (b[at + i] & 0xFF) << (8 * i);
+        return v;
+    }
+}
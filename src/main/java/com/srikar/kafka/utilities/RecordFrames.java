@@ -0,0 +1,68 @@
+package com.srikar.kafka.utilities;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Length-prefixed binary framing for large record pulls (POST /fetch/stream?format=binary).
+ * Raw key / value / header bytes go straight to the stream: no base64, no JSON, no per-field Strings.
+ *
+ * All integers big-endian (DataOutputStream). Length -1 = null.
+ *
+ *   record frame:  'R' | int32 partition | int64 offset | int64 timestamp
+ *                  | int32 keyLen | key | int32 valueLen | value
+ *                  | int16 headerCount | { int16 keyLen | key (UTF-8) | int32 valueLen | value }*
+ *   summary frame: 'S' | int32 len | StreamSummary as JSON (UTF-8), always last
+ */
+public final class RecordFrames {
+
+    public static final String MEDIA_TYPE = "application/vnd.oneinfra.kafka-records";
+
+    public static final byte RECORD = 'R';
+    public static final byte SUMMARY = 'S';
+
+    private RecordFrames() {}
+
+    /** @return bytes written */
+    public static int writeRecord(DataOutputStream out, ConsumerRecord<byte[], byte[]> r) throws IOException {
+        int n = 1 + 4 + 8 + 8;
+        out.writeByte(RECORD);
+        out.writeInt(r.partition());
+        out.writeLong(r.offset());
+        out.writeLong(r.timestamp());
+        n += writeBytes(out, r.key());
+        n += writeBytes(out, r.value());
+
+        Header[] headers = r.headers().toArray();
+        out.writeShort(headers.length);
+        n += 2;
+        for (Header h : headers) {
+            byte[] k = h.key().getBytes(StandardCharsets.UTF_8);
+            out.writeShort(k.length);
+            out.write(k);
+            n += 2 + k.length;
+            n += writeBytes(out, h.value());
+        }
+        return n;
+    }
+
+    public static void writeSummary(DataOutputStream out, byte[] json) throws IOException {
+        out.writeByte(SUMMARY);
+        out.writeInt(json.length);
+        out.write(json);
+    }
+
+    private static int writeBytes(DataOutputStream out, byte[] b) throws IOException {
+        if (b == null) {
+            out.writeInt(-1);
+            return 4;
+        }
+        out.writeInt(b.length);
+        out.write(b);
+        return 4 + b.length;
+    }
+}
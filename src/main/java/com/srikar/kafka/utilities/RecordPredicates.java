@@ -0,0 +1,118 @@
+package com.srikar.kafka.utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.srikar.kafka.dto.consumer.SearchDto;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles a SearchRequest into one record predicate (all conditions AND-ed).
+ * Regex / JSON pointer are compiled once; the returned predicate is thread-safe.
+ */
+public final class RecordPredicates {
+
+    private RecordPredicates() {}
+
+    public static Predicate<ConsumerRecord<byte[], byte[]>> compile(SearchDto.SearchRequest req, ObjectMapper mapper) {
+
+        boolean ci = Boolean.TRUE.equals(req.caseInsensitive());
+        List<Predicate<ConsumerRecord<byte[], byte[]>>> all = new ArrayList<>();
+
+        if (hasText(req.key())) {
+            byte[] exact = req.key().getBytes(StandardCharsets.UTF_8);
+            all.add(r -> Arrays.equals(r.key(), exact));
+        }
+
+        if (hasText(req.keyContains())) {
+            String needle = ci ? req.keyContains().toLowerCase(Locale.ROOT) : req.keyContains();
+            all.add(r -> contains(r.key(), needle, ci));
+        }
+
+        if (hasText(req.valueContains())) {
+            String needle = ci ? req.valueContains().toLowerCase(Locale.ROOT) : req.valueContains();
+            all.add(r -> contains(r.value(), needle, ci));
+        }
+
+        if (hasText(req.valueRegex())) {
+            Pattern p;
+            try {
+                p = Pattern.compile(req.valueRegex(), ci ? Pattern.CASE_INSENSITIVE : 0);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid valueRegex: " + e.getDescription());
+            }
+            all.add(r -> r.value() != null && p.matcher(utf8(r.value())).find());
+        }
+
+        if (hasText(req.jsonPointer())) {
+            JsonPointer ptr;
+            try {
+                ptr = JsonPointer.compile(req.jsonPointer().trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid jsonPointer (expected e.g. /order/id): " + e.getMessage());
+            }
+            String expected = req.jsonEquals();
+            all.add(r -> {
+                if (r.value() == null) return false;
+                try {
+                    JsonNode node = mapper.readTree(r.value()).at(ptr);
+                    if (node.isMissingNode()) return false;
+                    if (expected == null) return true;
+                    String actual = node.isValueNode() ? node.asText() : node.toString();
+                    return ci ? actual.equalsIgnoreCase(expected) : actual.equals(expected);
+                } catch (Exception notJson) {
+                    return false;
+                }
+            });
+        }
+
+        if (hasText(req.headerKey())) {
+            String key = req.headerKey();
+            String expected = req.headerValue();
+            all.add(r -> {
+                for (Header h : r.headers().headers(key)) {
+                    if (expected == null) return true;
+                    String v = h.value() == null ? "" : utf8(h.value());
+                    if (ci ? v.equalsIgnoreCase(expected) : v.equals(expected)) return true;
+                }
+                return false;
+            });
+        }
+
+        if (all.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "At least one predicate is required (key, keyContains, valueContains, valueRegex, jsonPointer, headerKey)");
+        }
+
+        return r -> {
+            for (Predicate<ConsumerRecord<byte[], byte[]>> p : all) {
+                if (!p.test(r)) return false;
+            }
+            return true;
+        };
+    }
+
+    private static boolean contains(byte[] bytes, String needle, boolean ci) {
+        if (bytes == null) return false;
+        String s = utf8(bytes);
+        return (ci ? s.toLowerCase(Locale.ROOT) : s).contains(needle);
+    }
+
+    private static String utf8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isEmpty();
+    }
+}
@@ -0,0 +1,215 @@
+package com.srikar.kafka.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class KafkaRecordCacheTest {
+
+	private static final TopicPartition TP = new TopicPartition("t", 0);
+	private static final int VALUE_BYTES = 4;
+	private static final long RECORD_BYTES = 96 + VALUE_BYTES;
+
+	private KafkaAdminProperties props;
+	private SimpleMeterRegistry meters;
+	private KafkaRecordCache cache;
+
+	@BeforeEach
+	void setUp() {
+		props = new KafkaAdminProperties();
+		meters = new SimpleMeterRegistry();
+		cache = new KafkaRecordCache(props, meters);
+	}
+
+	private static List<ConsumerRecord<byte[], byte[]>> records(TopicPartition tp, long from, long to) {
+		List<ConsumerRecord<byte[], byte[]>> out = new ArrayList<>();
+		for (long o = from; o < to; o++) out.add(new ConsumerRecord<>(tp.topic(), tp.partition(), o, null, new byte[VALUE_BYTES]));
+		return out;
+	}
+
+	private static List<Long> offsets(List<ConsumerRecord<byte[], byte[]>> records) {
+		return records.stream().map(ConsumerRecord::offset).toList();
+	}
+
+	private double count(String result) {
+		return meters.get("oneinfra.kafka.console.record.cache").tag("result", result).counter().count();
+	}
+
+	@Test
+	void coveredSubRangeIsAHit() {
+		cache.put("c1", TP, 0, 10, records(TP, 0, 10));
+
+		assertThat(offsets(cache.get("c1", TP, 3, 7))).containsExactly(3L, 4L, 5L, 6L);
+		assertThat(count("hit")).isEqualTo(1);
+	}
+
+	@Test
+	void adjacentSegmentsCoverTogetherButGapsMiss() {
+		cache.put("c1", TP, 0, 5, records(TP, 0, 5));
+		cache.put("c1", TP, 5, 10, records(TP, 5, 10));
+		cache.put("c1", TP, 12, 15, records(TP, 12, 15));
+
+		assertThat(offsets(cache.get("c1", TP, 3, 8))).containsExactly(3L, 4L, 5L, 6L, 7L);
+		assertThat(cache.get("c1", TP, 8, 13)).isNull();
+		assertThat(cache.get("c1", TP, 0, 11)).isNull();
+		assertThat(count("miss")).isEqualTo(2);
+	}
+
+	@Test
+	void compactedGapsInsideASegmentStillCount() {
+		List<ConsumerRecord<byte[], byte[]>> sparse = new ArrayList<>(records(TP, 0, 1));
+		sparse.addAll(records(TP, 4, 5));
+		cache.put("c1", TP, 0, 6, sparse);
+
+		assertThat(offsets(cache.get("c1", TP, 1, 6))).containsExactly(4L);
+	}
+
+	@Test
+	void clusterNameIsCaseInsensitiveAndPartitionsAreSeparate() {
+		cache.put("Prod", TP, 0, 3, records(TP, 0, 3));
+
+		assertThat(cache.get(" prod ", TP, 0, 3)).hasSize(3);
+		assertThat(cache.get("prod", new TopicPartition("t", 1), 0, 3)).isNull();
+		assertThat(cache.get("other", TP, 0, 3)).isNull();
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedBeyondBudget() {
+		props.getRecordCache().setMaxBytes(3 * 2 * RECORD_BYTES);   // three 2-record segments
+
+		cache.put("c1", TP, 0, 2, records(TP, 0, 2));
+		cache.put("c1", TP, 2, 4, records(TP, 2, 4));
+		cache.put("c1", TP, 4, 6, records(TP, 4, 6));
+		cache.get("c1", TP, 0, 2);                     // [0, 2) is now most recent
+		cache.put("c1", TP, 6, 8, records(TP, 6, 8));
+
+		assertThat(cache.get("c1", TP, 2, 4)).isNull();
+		assertThat(cache.get("c1", TP, 0, 2)).isNotNull();
+		assertThat(cache.get("c1", TP, 4, 8)).isNotNull();
+		assertThat(meters.get("oneinfra.kafka.console.record.cache.evictions").counter().count()).isEqualTo(1);
+		assertThat(meters.get("oneinfra.kafka.console.record.cache.bytes").gauge().value())
+				.isEqualTo(3 * 2 * RECORD_BYTES);
+	}
+
+	@Test
+	void oversizedSegmentIsNotCached() {
+		props.getRecordCache().setMaxSegmentBytes(2 * RECORD_BYTES);
+
+		cache.put("c1", TP, 0, 3, records(TP, 0, 3));
+
+		assertThat(cache.get("c1", TP, 0, 1)).isNull();
+	}
+
+	@Test
+	void widerSegmentReplacesContainedOnes() {
+		cache.put("c1", TP, 2, 4, records(TP, 2, 4));
+		cache.put("c1", TP, 0, 10, records(TP, 0, 10));
+
+		assertThat(offsets(cache.get("c1", TP, 0, 10))).hasSize(10);
+		assertThat(meters.get("oneinfra.kafka.console.record.cache.bytes").gauge().value())
+				.isEqualTo(10 * RECORD_BYTES);
+	}
+
+	@Test
+	void invalidateDropsOnlyThatTopic() {
+		TopicPartition other = new TopicPartition("u", 0);
+		cache.put("c1", TP, 0, 2, records(TP, 0, 2));
+		cache.put("c1", other, 0, 2, records(other, 0, 2));
+
+		cache.invalidate("C1", "t");
+
+		assertThat(cache.get("c1", TP, 0, 2)).isNull();
+		assertThat(cache.get("c1", other, 0, 2)).isNotNull();
+		assertThat(meters.get("oneinfra.kafka.console.record.cache.bytes").gauge().value())
+				.isEqualTo(2 * RECORD_BYTES);
+	}
+
+	@Test
+	void expiredSegmentsMissAndAreSwept() throws Exception {
+		props.getRecordCache().setTtlMs(1L);
+		cache.put("c1", TP, 0, 2, records(TP, 0, 2));
+		TimeUnit.MILLISECONDS.sleep(5);
+
+		assertThat(cache.get("c1", TP, 0, 2)).isNull();
+		cache.sweep();
+		assertThat(meters.get("oneinfra.kafka.console.record.cache.bytes").gauge().value()).isZero();
+	}
+
+	@Test
+	void disabledCacheStoresNothing() {
+		props.getRecordCache().setEnabled(false);
+
+		cache.put("c1", TP, 0, 2, records(TP, 0, 2));
+
+		assertThat(cache.get("c1", TP, 0, 2)).isNull();
+		assertThat(meters.get("oneinfra.kafka.console.record.cache.bytes").gauge().value()).isZero();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void fullyCachedReadNeverTouchesTheConsumer() {
+		cache.put("c1", TP, 0, 4, records(TP, 0, 4));
+		KafkaConsumer<byte[], byte[]> consumer = mock(KafkaConsumer.class);
+
+		List<ConsumerRecord<byte[], byte[]>> out = cache.read(consumer, "c1", Map.of(TP, new long[]{1, 3}),
+				100, System.nanoTime() + TimeUnit.SECONDS.toNanos(5)).records();
+
+		assertThat(offsets(out)).containsExactly(1L, 2L);
+		verifyNoInteractions(consumer);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void readPollsOnlyMissingPartitionsAndCachesThem() {
+		TopicPartition p1 = new TopicPartition("t", 1);
+		cache.put("c1", TP, 0, 2, records(TP, 0, 2));
+
+		KafkaConsumer<byte[], byte[]> consumer = mock(KafkaConsumer.class);
+		when(consumer.poll(any())).thenReturn(new ConsumerRecords<>(Map.of(p1, records(p1, 5, 9))));
+		when(consumer.position(p1)).thenReturn(9L);
+
+		KafkaRecordCache.Read out = cache.read(consumer, "c1",
+				Map.of(TP, new long[]{0, 2}, p1, new long[]{5, 8}),
+				100, System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+
+		verify(consumer).seek(p1, 5L);
+		verify(consumer, never()).seek(eq(TP), anyLong());
+		assertThat(out.records()).hasSize(5);
+		assertThat(out.unfinished()).isEmpty();
+		assertThat(offsets(cache.get("c1", p1, 5, 8))).containsExactly(5L, 6L, 7L);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void partitionsPastTheDeadlineAreReportedUnfinishedAndNotCached() {
+		KafkaConsumer<byte[], byte[]> consumer = mock(KafkaConsumer.class);
+		when(consumer.poll(any())).thenReturn(new ConsumerRecords<>(Map.of(TP, records(TP, 0, 2))), ConsumerRecords.empty());
+		when(consumer.position(TP)).thenReturn(2L);
+
+		KafkaRecordCache.Read out = cache.read(consumer, "c1", Map.of(TP, new long[]{0, 5}),
+				100, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+
+		assertThat(offsets(out.records())).containsExactly(0L, 1L);
+		assertThat(out.unfinished()).containsExactly(TP);
+		assertThat(cache.get("c1", TP, 0, 2)).isNull();
+	}
+}
@@ -0,0 +1,124 @@
+package com.srikar.kafka.controller;
+
+import com.srikar.kafka.exception.GlobalExceptionHandler;
+import com.srikar.kafka.exception.ServiceBusyException;
+import com.srikar.kafka.service.KafkaConsumerConsoleService;
+import com.srikar.kafka.service.KafkaConsumerPagingService;
+import com.srikar.kafka.service.KafkaFetchStreamService;
+import com.srikar.kafka.service.KafkaKeyLocatorService;
+import com.srikar.kafka.service.KafkaMessageSearchService;
+import com.srikar.kafka.service.KafkaTailStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConsoleErrorMappingTest {
+
+	private static final String BODY = "{\"clusterName\":\"c\",\"topicName\":\"t\"}";
+
+	private KafkaTailStreamService tails;
+	private KafkaFetchStreamService streams;
+	private KafkaMessageSearchService searches;
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		tails = mock(KafkaTailStreamService.class);
+		streams = mock(KafkaFetchStreamService.class);
+		searches = mock(KafkaMessageSearchService.class);
+
+		mvc = MockMvcBuilders.standaloneSetup(new KafkaConsumerConsoleController(
+						mock(KafkaConsumerConsoleService.class),
+						mock(KafkaConsumerPagingService.class),
+						tails,
+						streams,
+						searches,
+						mock(KafkaKeyLocatorService.class)))
+				.setControllerAdvice(new GlobalExceptionHandler())
+				.build();
+	}
+
+	@Test
+	void tailSessionCapIsRetryable503() throws Exception {
+		when(tails.open(any())).thenThrow(new ServiceBusyException("Too many streaming tail sessions (max 2)"));
+
+		mvc.perform(post("/api/kafka/consumer/tail/stream")
+						.contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.TEXT_EVENT_STREAM)
+						.content(BODY))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+				.andExpect(jsonPath("$.message").value("Too many streaming tail sessions (max 2)"));
+	}
+
+	@Test
+	void badTailPartitionIs400WithMessage() throws Exception {
+		when(tails.open(any())).thenThrow(new IllegalArgumentException("Invalid partition: 9 for topic: t"));
+
+		mvc.perform(post("/api/kafka/consumer/tail/stream")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BODY))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid partition: 9 for topic: t"));
+	}
+
+	@Test
+	void fetchStreamCapIsRetryable503() throws Exception {
+		when(streams.open(any())).thenThrow(new ServiceBusyException("Too many streaming fetches in progress (max 4)"));
+
+		mvc.perform(post("/api/kafka/consumer/fetch/stream")
+						.contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.APPLICATION_NDJSON)
+						.content(BODY))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+				.andExpect(jsonPath("$.message").value("Too many streaming fetches in progress (max 4)"));
+	}
+
+	@Test
+	void invalidFetchStreamIs400BeforeTheStreamStarts() throws Exception {
+		when(streams.open(any(), anyBoolean())).thenThrow(new IllegalArgumentException("No partitions found for topic t"));
+
+		mvc.perform(post("/api/kafka/consumer/fetch/stream")
+						.param("format", "binary")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BODY))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("No partitions found for topic t"));
+	}
+
+	@Test
+	void searchCapIsRetryable503() throws Exception {
+		when(searches.start(any())).thenThrow(new ServiceBusyException("Too many searches in progress (max 2)"));
+
+		mvc.perform(post("/api/kafka/consumer/search")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BODY))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+				.andExpect(jsonPath("$.message").value("Too many searches in progress (max 2)"));
+	}
+
+	@Test
+	void badSearchFilterIs400() throws Exception {
+		when(searches.start(any())).thenThrow(new IllegalArgumentException("Invalid valueRegex: Unclosed group"));
+
+		mvc.perform(post("/api/kafka/consumer/search")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BODY))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid valueRegex: Unclosed group"));
+	}
+}
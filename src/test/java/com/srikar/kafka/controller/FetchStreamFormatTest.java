@@ -0,0 +1,71 @@
+package com.srikar.kafka.controller;
+
+import com.srikar.kafka.service.KafkaConsumerConsoleService;
+import com.srikar.kafka.service.KafkaConsumerPagingService;
+import com.srikar.kafka.service.KafkaFetchStreamService;
+import com.srikar.kafka.service.KafkaKeyLocatorService;
+import com.srikar.kafka.service.KafkaMessageSearchService;
+import com.srikar.kafka.service.KafkaTailStreamService;
+import com.srikar.kafka.utilities.RecordFrames;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+
+class FetchStreamFormatTest {
+
+	private static final String BODY = "{\"clusterName\":\"c\",\"topicName\":\"t\"}";
+
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		KafkaFetchStreamService streams = mock(KafkaFetchStreamService.class);
+		StreamingResponseBody empty = out -> {};
+		when(streams.open(any())).thenReturn(empty);
+		when(streams.open(any(), anyBoolean())).thenReturn(empty);
+
+		mvc = MockMvcBuilders.standaloneSetup(new KafkaConsumerConsoleController(
+				mock(KafkaConsumerConsoleService.class),
+				mock(KafkaConsumerPagingService.class),
+				mock(KafkaTailStreamService.class),
+				streams,
+				mock(KafkaMessageSearchService.class),
+				mock(KafkaKeyLocatorService.class))).build();
+	}
+
+	@Test
+	void noAcceptHeaderStaysNdjson() throws Exception {
+		mvc.perform(post("/api/kafka/consumer/fetch/stream")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BODY))
+				.andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE));
+	}
+
+	@Test
+	void wildcardAcceptStaysNdjson() throws Exception {
+		mvc.perform(post("/api/kafka/consumer/fetch/stream")
+						.contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.ALL)
+						.content(BODY))
+				.andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE));
+	}
+
+	@Test
+	void binaryOnlyWhenRequested() throws Exception {
+		mvc.perform(post("/api/kafka/consumer/fetch/stream")
+						.param("format", "binary")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BODY))
+				.andExpect(header().string("Content-Type", RecordFrames.MEDIA_TYPE));
+	}
+}
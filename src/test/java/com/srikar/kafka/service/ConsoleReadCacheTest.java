@@ -0,0 +1,108 @@
+package com.srikar.kafka.service;
+
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.config.KafkaConsumerPool;
+import com.srikar.kafka.config.KafkaRecordCache;
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
+import com.srikar.kafka.dto.consumer.ConsumerTailCursor;
+import com.srikar.kafka.dto.consumer.ConsumerTailRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsoleReadCacheTest {
+
+	private static final TopicPartition TP = new TopicPartition("t", 0);
+
+	private KafkaRecordCache cache;
+	private KafkaConsumer<byte[], byte[]> consumer;
+	private KafkaConsumerConsoleService service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		KafkaAdminProperties props = new KafkaAdminProperties();
+		cache = new KafkaRecordCache(props, new SimpleMeterRegistry());
+
+		consumer = mock(KafkaConsumer.class);
+		when(consumer.partitionsFor("t")).thenReturn(List.of(new PartitionInfo("t", 0, null, null, null)));
+		when(consumer.beginningOffsets(any())).thenReturn(Map.of(TP, 0L));
+		when(consumer.endOffsets(any())).thenReturn(Map.of(TP, 10L));
+
+		KafkaConsumerPool.Lease lease = mock(KafkaConsumerPool.Lease.class);
+		when(lease.consumer()).thenReturn(consumer);
+		KafkaConsumerPool pool = mock(KafkaConsumerPool.class);
+		when(pool.borrow(any(), any(KafkaConsumerPool.FetchSize.class))).thenReturn(lease);
+
+		KafkaPayloadDecoderService decoders = mock(KafkaPayloadDecoderService.class);
+		when(decoders.apply(any(), any(), any())).thenAnswer(i -> i.getArgument(0));
+
+		service = new KafkaConsumerConsoleService(pool, cache, decoders, props);
+	}
+
+	private static List<ConsumerRecord<byte[], byte[]>> records(long from, long to) {
+		List<ConsumerRecord<byte[], byte[]>> out = new ArrayList<>();
+		for (long o = from; o < to; o++) out.add(new ConsumerRecord<>("t", 0, o, null, new byte[]{1}));
+		return out;
+	}
+
+	private static ConsumerDto.FetchRequest fetchFrom(long offset, int maxMessages) {
+		return new ConsumerDto.FetchRequest("c1", "t", null, ConsumerDto.Position.OFFSET, offset, null, null,
+				maxMessages, null, null, null, null, null);
+	}
+
+	@Test
+	void boundedFetchIsServedFromCacheWithoutPolling() {
+		cache.put("c1", TP, 2, 6, records(2, 6));
+		when(consumer.position(TP)).thenReturn(2L);
+
+		ConsumerDto.FetchResponse res = service.fetch(fetchFrom(2, 4));
+
+		assertThat(res.records()).extracting(ConsumerRecordDto::offset).containsExactly(2L, 3L, 4L, 5L);
+		verify(consumer, never()).poll(any());
+	}
+
+	@Test
+	void boundedFetchPopulatesCacheForTheNextReader() {
+		when(consumer.position(TP)).thenReturn(3L, 6L);   // seek position, then after the poll
+		when(consumer.poll(any())).thenReturn(new ConsumerRecords<>(Map.of(TP, records(3, 6))), ConsumerRecords.empty());
+
+		ConsumerDto.FetchResponse res = service.fetch(fetchFrom(3, 3));
+
+		assertThat(res.records()).extracting(ConsumerRecordDto::offset).containsExactly(3L, 4L, 5L);
+		assertThat(cache.get("c1", TP, 3, 6)).hasSize(3);
+	}
+
+	@Test
+	void tailPollRangeIsCached() {
+		when(consumer.poll(any())).thenReturn(new ConsumerRecords<>(Map.of(TP, records(5, 8))));
+		when(consumer.position(TP)).thenReturn(8L);
+
+		service.tail(ConsumerTailRequest.builder()
+				.clusterName("c1")
+				.topicName("t")
+				.maxMessages(1)
+				.lastSeen(ConsumerTailCursor.builder().offsetsByPartition(Map.of(0, 4L)).build())
+				.build());
+
+		// the whole polled range, not just the one record returned
+		assertThat(cache.get("c1", TP, 5, 8)).extracting(ConsumerRecord::offset).containsExactly(5L, 6L, 7L);
+	}
+}
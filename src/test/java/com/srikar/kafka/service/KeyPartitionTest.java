@@ -0,0 +1,52 @@
+package com.srikar.kafka.service;
+
+import org.apache.kafka.clients.producer.internals.BuiltInPartitioner;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyPartitionTest {
+
+	private static byte[] key(String k) {
+		return k.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void matchesTheProducersDefaultPartitioner() {
+		for (int n : new int[]{1, 2, 3, 6, 12, 50, 128}) {
+			for (int i = 0; i < 500; i++) {
+				byte[] k = key("order-" + i);
+				assertThat(KafkaKeyLocatorService.partitionFor(k, n))
+						.as("key order-%d over %d partitions", i, n)
+						.isEqualTo(BuiltInPartitioner.partitionForKey(k, n));
+			}
+		}
+	}
+
+	@Test
+	void alwaysInRangeIncludingNegativeHashes() {
+		for (int i = 0; i < 2_000; i++) {
+			int p = KafkaKeyLocatorService.partitionFor(key("k" + i), 7);
+			assertThat(p).isBetween(0, 6);
+		}
+		assertThat(KafkaKeyLocatorService.partitionFor(new byte[0], 7)).isBetween(0, 6);
+	}
+
+	@Test
+	void utf8KeysHashByBytes() {
+		assertThat(KafkaKeyLocatorService.partitionFor(key("ключ-é"), 12))
+				.isEqualTo(BuiltInPartitioner.partitionForKey(key("ключ-é"), 12));
+	}
+
+	@Test
+	void partitionIncreaseMovesSomeKeys() {
+		int moved = 0;
+		for (int i = 0; i < 200; i++) {
+			byte[] k = key("user-" + i);
+			if (KafkaKeyLocatorService.partitionFor(k, 3) != KafkaKeyLocatorService.partitionFor(k, 6)) moved++;
+		}
+		assertThat(moved).isPositive();
+	}
+}
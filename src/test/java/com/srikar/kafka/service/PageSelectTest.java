@@ -0,0 +1,64 @@
+package com.srikar.kafka.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageSelectTest {
+
+	private static ConsumerRecord<byte[], byte[]> rec(int partition, long offset, long timestamp) {
+		return new ConsumerRecord<>("t", partition, offset, timestamp, TimestampType.CREATE_TIME,
+				-1, 0, null, new byte[0], new RecordHeaders(), Optional.empty());
+	}
+
+	@Test
+	void forwardKeepsContiguousPrefixDespiteOutOfOrderTimestamps() {
+		// partition 0 offset 10 carries a late timestamp; offset 11 must not be kept without it
+		List<ConsumerRecord<byte[], byte[]>> read = List.of(
+				rec(0, 10, 500), rec(0, 11, 1), rec(0, 12, 2),
+				rec(1, 0, 100), rec(1, 1, 200));
+
+		List<ConsumerRecord<byte[], byte[]>> page = KafkaConsumerPagingService.selectPage(read, 2, true);
+
+		assertThat(page).extracting(ConsumerRecord::partition).containsOnly(1);
+		assertThat(page).extracting(ConsumerRecord::offset).containsExactly(0L, 1L);
+	}
+
+	@Test
+	void backwardKeepsContiguousSuffix() {
+		// partition 0 offset 12 is oldest by timestamp; 10 and 11 must not be kept in front of it
+		List<ConsumerRecord<byte[], byte[]>> read = List.of(
+				rec(0, 10, 900), rec(0, 11, 950), rec(0, 12, 1),
+				rec(1, 5, 100), rec(1, 6, 200));
+
+		List<ConsumerRecord<byte[], byte[]>> page = KafkaConsumerPagingService.selectPage(read, 3, false);
+
+		assertThat(page).extracting(ConsumerRecord::partition).containsExactly(0, 1, 1);
+		assertThat(page).extracting(ConsumerRecord::offset).containsExactly(12L, 5L, 6L);
+	}
+
+	@Test
+	void pageIsNeverEmptyWhenRecordsWereRead() {
+		List<ConsumerRecord<byte[], byte[]>> read = List.of(rec(0, 3, 1_000), rec(0, 4, 0));
+
+		assertThat(KafkaConsumerPagingService.selectPage(read, 1, true))
+				.extracting(ConsumerRecord::offset).containsExactly(3L);
+		assertThat(KafkaConsumerPagingService.selectPage(read, 1, false))
+				.extracting(ConsumerRecord::offset).containsExactly(4L);
+	}
+
+	@Test
+	void resultIsInDisplayOrder() {
+		List<ConsumerRecord<byte[], byte[]>> read = List.of(
+				rec(0, 0, 30), rec(1, 0, 10), rec(2, 0, 20));
+
+		assertThat(KafkaConsumerPagingService.selectPage(read, 10, true))
+				.extracting(ConsumerRecord::timestamp).containsExactly(10L, 20L, 30L);
+	}
+}
@@ -0,0 +1,67 @@
+package com.srikar.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srikar.kafka.config.KafkaAdminProperties;
+import com.srikar.kafka.db.KafkaClusterRepository;
+import com.srikar.kafka.db.KafkaSchemaSubjectRepository;
+import com.srikar.kafka.db.KafkaSchemaVersionRepository;
+import com.srikar.kafka.dto.consumer.ConsumerDto;
+import com.srikar.kafka.entity.KafkaClusterEntity;
+import com.srikar.kafka.entity.KafkaSchemaSubjectEntity;
+import com.srikar.kafka.entity.KafkaSchemaVersionEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PayloadDecoderResolveTest {
+
+	private KafkaPayloadDecoderService decoders;
+
+	@BeforeEach
+	void setUp() {
+		KafkaClusterEntity cluster = new KafkaClusterEntity();
+		cluster.setId(UUID.randomUUID());
+		KafkaSchemaSubjectEntity subject = new KafkaSchemaSubjectEntity();
+		subject.setId(UUID.randomUUID());
+		subject.setSchemaType("AVRO");
+		subject.setEnabled(true);
+		KafkaSchemaVersionEntity version = new KafkaSchemaVersionEntity();
+		version.setSchemaHash("h1");
+		version.setSchemaRaw("{\"type\": \"record\", \"name\": \"R\", \"fields\": [{\"name\": \"x\", \"type\": \"Missing\"}]}");
+
+		KafkaClusterRepository clusters = mock(KafkaClusterRepository.class);
+		KafkaSchemaSubjectRepository subjects = mock(KafkaSchemaSubjectRepository.class);
+		KafkaSchemaVersionRepository versions = mock(KafkaSchemaVersionRepository.class);
+		when(clusters.findByNameIgnoreCase(any())).thenReturn(Optional.of(cluster));
+		when(subjects.findByClusterIdAndSubject(any(), any())).thenReturn(Optional.of(subject));
+		when(versions.findFirstBySubjectIdOrderByVersionDesc(any())).thenReturn(Optional.of(version));
+
+		decoders = new KafkaPayloadDecoderService(new KafkaAdminProperties(), clusters, subjects, versions,
+				new ObjectMapper(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void autoFallsBackToSniffingWhenTheRegisteredAvroSchemaDoesNotCompile() throws Exception {
+		KafkaPayloadDecoderService.ValueDecoder d = decoders.resolve("c1", "t", ConsumerDto.PayloadDecoder.AUTO);
+
+		assertThat(d.name()).isEqualTo("auto");
+		assertThat(d.decode("{\"a\": 1}".getBytes(StandardCharsets.UTF_8)).get("a").asInt()).isEqualTo(1);
+	}
+
+	@Test
+	void explicitAvroStillRejectsAnUncompilableSchema() {
+		assertThatThrownBy(() -> decoders.resolve("c1", "t", ConsumerDto.PayloadDecoder.AVRO))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("can't be compiled");
+	}
+}
@@ -0,0 +1,77 @@
+package com.srikar.kafka.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailCutTest {
+
+	private static ConsumerRecord<byte[], byte[]> rec(int partition, long offset, int valueSize) {
+		return new ConsumerRecord<>("t", partition, offset, 0L, TimestampType.CREATE_TIME,
+				-1, valueSize, null, new byte[valueSize], new RecordHeaders(), Optional.empty());
+	}
+
+	@Test
+	void smallerLaterRecordOfSkippedPartitionIsNotReturned() {
+		// A@10 fits, A@11 overflows, A@12 would fit again but must not jump over A@11
+		List<ConsumerRecord<byte[], byte[]>> polled = List.of(
+				rec(0, 10, 500), rec(0, 11, 600), rec(0, 12, 100));
+
+		KafkaConsumerConsoleService.TailCut cut = KafkaConsumerConsoleService.TailCut.of(polled, 50, 1000);
+
+		assertThat(cut.kept()).extracting(ConsumerRecord::offset).containsExactly(10L);
+		assertThat(cut.truncated()).isTrue();
+		assertThat(cut.bytes()).isEqualTo(500);
+		assertThat(cut.nextOffsets(Map.of(0, 9L))).containsEntry(0, 10L);
+	}
+
+	@Test
+	void otherPartitionsKeepFillingAfterOneIsCut() {
+		List<ConsumerRecord<byte[], byte[]>> polled = List.of(
+				rec(0, 5, 800), rec(0, 6, 800), rec(1, 20, 100), rec(1, 21, 100));
+
+		KafkaConsumerConsoleService.TailCut cut = KafkaConsumerConsoleService.TailCut.of(polled, 50, 1000);
+
+		assertThat(cut.kept()).extracting(ConsumerRecord::offset).containsExactly(5L, 20L, 21L);
+		assertThat(cut.firstSkipped()).containsExactly(Map.entry(0, 6L));
+		assertThat(cut.nextOffsets(null)).containsEntry(0, 5L).containsEntry(1, 21L);
+	}
+
+	@Test
+	void partitionWithNothingReturnedResumesBeforeFirstSkipped() {
+		List<ConsumerRecord<byte[], byte[]>> polled = List.of(rec(0, 1, 900), rec(1, 40, 900));
+
+		KafkaConsumerConsoleService.TailCut cut = KafkaConsumerConsoleService.TailCut.of(polled, 50, 1000);
+
+		assertThat(cut.kept()).extracting(ConsumerRecord::partition).containsExactly(0);
+		// live tail without a cursor entry for partition 1 must not seek to end
+		assertThat(cut.nextOffsets(null)).containsEntry(0, 1L).containsEntry(1, 39L);
+	}
+
+	@Test
+	void firstRecordIsAlwaysReturnedEvenIfOverBudget() {
+		KafkaConsumerConsoleService.TailCut cut =
+				KafkaConsumerConsoleService.TailCut.of(List.of(rec(0, 3, 5000)), 50, 1000);
+
+		assertThat(cut.kept()).hasSize(1);
+		assertThat(cut.truncated()).isFalse();
+	}
+
+	@Test
+	void maxMessagesCutIsNotReportedAsByteTruncation() {
+		List<ConsumerRecord<byte[], byte[]>> polled = List.of(rec(0, 0, 1), rec(0, 1, 1), rec(0, 2, 1));
+
+		KafkaConsumerConsoleService.TailCut cut = KafkaConsumerConsoleService.TailCut.of(polled, 2, 1000);
+
+		assertThat(cut.kept()).hasSize(2);
+		assertThat(cut.truncated()).isFalse();
+		assertThat(cut.nextOffsets(null)).containsEntry(0, 1L);
+	}
+}
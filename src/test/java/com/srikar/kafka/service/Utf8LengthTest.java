@@ -0,0 +1,27 @@
+package com.srikar.kafka.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Utf8LengthTest {
+
+	@Test
+	void matchesEncodedLength() {
+		for (String s : new String[]{"", "ascii", "héllo", "日本語", "emoji 😀 pair", "mix é日😀x"}) {
+			assertThat(KafkaProducerConsoleService.utf8Length(s))
+					.as(s)
+					.isEqualTo(s.getBytes(StandardCharsets.UTF_8).length);
+		}
+	}
+
+	@Test
+	void neverBelowEncodedLengthForMalformedText() {
+		String lone = "a\uD800b";
+		assertThat(KafkaProducerConsoleService.utf8Length(lone))
+				.isGreaterThanOrEqualTo(lone.getBytes(StandardCharsets.UTF_8).length);
+		assertThat(KafkaProducerConsoleService.utf8Length(null)).isZero();
+	}
+}
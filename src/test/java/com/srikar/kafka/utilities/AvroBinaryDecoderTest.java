@@ -0,0 +1,148 @@
+package com.srikar.kafka.utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvroBinaryDecoderTest {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private static final String USER = """
+			{"type": "record", "name": "User", "namespace": "com.acme", "fields": [
+			  {"name": "name", "type": "string"},
+			  {"name": "age", "type": "int"},
+			  {"name": "tags", "type": {"type": "array", "items": "string"}},
+			  {"name": "nick", "type": ["null", "string"]},
+			  {"name": "kind", "type": {"type": "enum", "name": "Kind", "symbols": ["A", "B"]}},
+			  {"name": "next", "type": ["null", "User"]}
+			]}""";
+
+	// name "ab", age 30, tags ["x"], nick "n", kind B, next { "", -1, [], null, A, null }
+	private static final byte[] DATUM = bytes(
+			0x04, 'a', 'b', 0x3C, 0x02, 0x02, 'x', 0x00, 0x02, 0x02, 'n', 0x02,
+			0x02, 0x00, 0x01, 0x00, 0x00, 0x00, 0x00);
+
+	private static byte[] bytes(int... v) {
+		byte[] out = new byte[v.length];
+		for (int i = 0; i < v.length; i++) out[i] = (byte) v[i];
+		return out;
+	}
+
+	private static AvroBinaryDecoder compile(String schema) throws Exception {
+		return AvroBinaryDecoder.compile(JSON.readTree(schema));
+	}
+
+	@Test
+	void decodesRecordWithUnionsEnumsArraysAndRecursion() throws Exception {
+		JsonNode out = compile(USER).decode(DATUM, 0);
+
+		assertThat(out.get("name").asText()).isEqualTo("ab");
+		assertThat(out.get("age").asInt()).isEqualTo(30);
+		assertThat(out.get("tags").get(0).asText()).isEqualTo("x");
+		assertThat(out.get("nick").asText()).isEqualTo("n");
+		assertThat(out.get("kind").asText()).isEqualTo("B");
+		assertThat(out.get("next").get("age").asInt()).isEqualTo(-1);
+		assertThat(out.get("next").get("nick").isNull()).isTrue();
+		assertThat(out.get("next").get("next").isNull()).isTrue();
+	}
+
+	@Test
+	void decodesFramedPayloadFromOffset() throws Exception {
+		byte[] framed = new byte[5 + DATUM.length];
+		framed[4] = 7;   // magic 0 + schema id 7
+		System.arraycopy(DATUM, 0, framed, 5, DATUM.length);
+
+		assertThat(compile(USER).decode(framed, 5)).isEqualTo(compile(USER).decode(DATUM, 0));
+	}
+
+	@Test
+	void readsSizedArrayBlocksAndMaps() throws Exception {
+		AvroBinaryDecoder d = compile("""
+				{"type": "record", "name": "R", "fields": [
+				  {"name": "a", "type": {"type": "array", "items": "long"}},
+				  {"name": "m", "type": {"type": "map", "values": "boolean"}}
+				]}""");
+
+		// array: block of -2 items (2 bytes) = [1, -2], end; map: {"k": true}, end
+		JsonNode out = d.decode(bytes(0x03, 0x04, 0x02, 0x03, 0x00, 0x02, 0x02, 'k', 0x01, 0x00), 0);
+
+		assertThat(out.get("a").get(0).asLong()).isEqualTo(1);
+		assertThat(out.get("a").get(1).asLong()).isEqualTo(-2);
+		assertThat(out.get("m").get("k").asBoolean()).isTrue();
+	}
+
+	@Test
+	void decodesLittleEndianFloatingPointAndBytes() throws Exception {
+		AvroBinaryDecoder d = compile("""
+				{"type": "record", "name": "R", "fields": [
+				  {"name": "f", "type": "float"},
+				  {"name": "d", "type": "double"},
+				  {"name": "b", "type": "bytes"}
+				]}""");
+
+		int f = Float.floatToIntBits(1.5f);
+		long dbl = Double.doubleToLongBits(-2.25);
+		byte[] data = new byte[4 + 8 + 3];
+		for (int i = 0; i < 4; i++) data[i] = (byte) (f >>> (8 * i));
+		for (int i = 0; i < 8; i++) data[4 + i] = (byte) (dbl >>> (8 * i));
+		data[12] = 0x04;
+		data[13] = (byte) 0xFF;
+		data[14] = 0x01;
+
+		JsonNode out = d.decode(data, 0);
+
+		assertThat(out.get("f").floatValue()).isEqualTo(1.5f);
+		assertThat(out.get("d").doubleValue()).isEqualTo(-2.25);
+		assertThat(out.get("b").binaryValue()).containsExactly(0xFF, 0x01);
+	}
+
+	@Test
+	void rejectsTrailingBytes() throws Exception {
+		byte[] longer = new byte[DATUM.length + 1];
+		System.arraycopy(DATUM, 0, longer, 0, DATUM.length);
+
+		assertThatThrownBy(() -> compile(USER).decode(longer, 0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Trailing");
+	}
+
+	@Test
+	void rejectsTruncatedDatumAndBadIndexes() throws Exception {
+		AvroBinaryDecoder d = compile(USER);
+
+		assertThatThrownBy(() -> d.decode(bytes(0x04, 'a'), 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> compile("[\"null\", \"int\"]").decode(bytes(0x04), 0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Union index");
+	}
+
+	@Test
+	void rejectsUnknownNamedType() {
+		assertThatThrownBy(() -> compile("{\"type\": \"array\", \"items\": \"Missing\"}"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Unknown Avro type");
+	}
+
+	@Test
+	void recursiveSchemaOverLongInputIsRejectedNotStackOverflow() throws Exception {
+		AvroBinaryDecoder d = compile("""
+				{"type": "record", "name": "Node", "fields": [{"name": "next", "type": ["null", "Node"]}]}""");
+
+		// every 0x02 picks the "Node" branch: one more level per byte
+		byte[] chain = new byte[100_000];
+		Arrays.fill(chain, (byte) 0x02);
+		assertThatThrownBy(() -> d.decode(chain, 0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("too deep");
+
+		// a few levels, then the null branch
+		assertThat(d.decode(bytes(0x02, 0x02, 0x02, 0x00), 0).get("next").get("next").get("next").get("next").isNull())
+				.isTrue();
+	}
+}
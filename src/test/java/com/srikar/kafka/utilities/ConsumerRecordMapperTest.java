@@ -0,0 +1,96 @@
+package com.srikar.kafka.utilities;
+
+import com.srikar.kafka.dto.consumer.ConsumerRecordDto;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsumerRecordMapperTest {
+
+	private static byte[] bytes(int... v) {
+		byte[] out = new byte[v.length];
+		for (int i = 0; i < v.length; i++) out[i] = (byte) v[i];
+		return out;
+	}
+
+	private static boolean utf8(byte[] b) {
+		return ConsumerRecordMapper.isUtf8(b, b.length);
+	}
+
+	private static ConsumerRecord<byte[], byte[]> rec(byte[] key, byte[] value) {
+		return new ConsumerRecord<>("t", 0, 0L, 0L, TimestampType.CREATE_TIME,
+				-1, value == null ? -1 : value.length, key, value, new RecordHeaders(), Optional.empty());
+	}
+
+	@Test
+	void acceptsWellFormedUtf8() {
+		assertThat(utf8(new byte[0])).isTrue();
+		assertThat(utf8("plain ascii".getBytes(StandardCharsets.UTF_8))).isTrue();
+		assertThat(utf8("é€😀".getBytes(StandardCharsets.UTF_8))).isTrue();
+		assertThat(utf8(bytes(0xF4, 0x8F, 0xBF, 0xBF))).as("U+10FFFF").isTrue();
+	}
+
+	@Test
+	void rejectsMalformedUtf8() {
+		assertThat(utf8(bytes(0xC0, 0xAF))).as("overlong '/'").isFalse();
+		assertThat(utf8(bytes(0xE0, 0x80, 0xAF))).as("overlong 3-byte").isFalse();
+		assertThat(utf8(bytes(0xED, 0xA0, 0x80))).as("surrogate").isFalse();
+		assertThat(utf8(bytes(0xF4, 0x90, 0x80, 0x80))).as("above U+10FFFF").isFalse();
+		assertThat(utf8(bytes(0x80))).as("lone continuation").isFalse();
+		assertThat(utf8(bytes(0xC3, 0x41))).as("bad continuation").isFalse();
+		assertThat(utf8(bytes(0xE2, 0x82))).as("truncated").isFalse();
+	}
+
+	@Test
+	void onlyInspectsThePrefix() {
+		byte[] euro = "a€".getBytes(StandardCharsets.UTF_8);   // 61 E2 82 AC
+
+		assertThat(ConsumerRecordMapper.isUtf8(euro, 1)).isTrue();
+		assertThat(ConsumerRecordMapper.isUtf8(euro, 3)).isFalse();
+	}
+
+	@Test
+	void boundaryNeverSplitsASequence() {
+		byte[] b = "a€b".getBytes(StandardCharsets.UTF_8);   // 61 E2 82 AC 62
+
+		assertThat(ConsumerRecordMapper.utf8Boundary(b, 0)).isZero();
+		assertThat(ConsumerRecordMapper.utf8Boundary(b, 1)).isEqualTo(1);
+		assertThat(ConsumerRecordMapper.utf8Boundary(b, 2)).isEqualTo(1);
+		assertThat(ConsumerRecordMapper.utf8Boundary(b, 3)).isEqualTo(1);
+		assertThat(ConsumerRecordMapper.utf8Boundary(b, 4)).isEqualTo(4);
+		assertThat(ConsumerRecordMapper.utf8Boundary(b, 10)).isEqualTo(b.length);
+	}
+
+	@Test
+	void textPreviewIsCutOnACharacterBoundary() {
+		byte[] value = "ab€".getBytes(StandardCharsets.UTF_8);
+
+		ConsumerRecordDto dto = ConsumerRecordMapper.toRecordDto(rec(null, value), 3, true);
+
+		assertThat(dto.value()).isEqualTo("ab");
+		assertThat(dto.valueEncoding()).isEqualTo("utf8");
+		assertThat(dto.valueTruncated()).isTrue();
+		assertThat(dto.valueBytes()).isEqualTo(value.length);
+	}
+
+	@Test
+	void binaryStaysBase64EvenInTextMode() {
+		byte[] key = "k".getBytes(StandardCharsets.UTF_8);
+		byte[] value = bytes(0xFF, 0x00, 0x01);
+
+		ConsumerRecordDto dto = ConsumerRecordMapper.toRecordDto(rec(key, value), 0, true);
+
+		assertThat(dto.key()).isEqualTo("k");
+		assertThat(dto.keyEncoding()).isEqualTo("utf8");
+		assertThat(dto.value()).isEqualTo(Base64.getEncoder().encodeToString(value));
+		assertThat(dto.valueEncoding()).isNull();
+		assertThat(dto.valueTruncated()).isNull();
+	}
+}
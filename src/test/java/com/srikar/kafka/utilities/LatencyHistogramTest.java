@@ -0,0 +1,84 @@
+package com.srikar.kafka.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+	/** Value reported for v when it sits at the bottom quantile below a much larger sample. */
+	private static long reported(long v) {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(v);
+		h.record(Long.MAX_VALUE / 2);
+		return h.percentileMicros(0.5);
+	}
+
+	@Test
+	void emptyHistogramReportsZeros() {
+		LatencyHistogram h = new LatencyHistogram();
+
+		assertThat(h.count()).isZero();
+		assertThat(h.minMicros()).isZero();
+		assertThat(h.maxMicros()).isZero();
+		assertThat(h.meanMicros()).isZero();
+		assertThat(h.percentileMicros(0.99)).isZero();
+	}
+
+	@Test
+	void valuesBelowLinearRangeAreExact() {
+		for (long v = 0; v < 128; v++) {
+			assertThat(reported(v)).isEqualTo(v);
+		}
+	}
+
+	@Test
+	void largerValuesStayWithinTwoSignificantDigits() {
+		for (long v = 128; v > 0 && v < Long.MAX_VALUE / 4; v = v * 3 / 2 + 7) {
+			long r = reported(v);
+			assertThat(Math.abs(r - v) / (double) v).as("v=%d r=%d", v, r).isLessThanOrEqualTo(1.0 / 64);
+		}
+	}
+
+	@Test
+	void powerOfTwoBoundariesLandInTheirOwnBucket() {
+		for (int bit = 7; bit < 62; bit++) {
+			long v = 1L << bit;
+			assertThat(reported(v - 1)).as("below 2^%d", bit).isLessThan(v);
+			assertThat(reported(v)).as("at 2^%d", bit).isGreaterThanOrEqualTo(v);
+		}
+	}
+
+	@Test
+	void percentilesOverUniformSamples() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (long v = 1; v <= 10_000; v++) h.record(v);
+
+		assertThat(h.count()).isEqualTo(10_000);
+		assertThat(h.minMicros()).isEqualTo(1);
+		assertThat(h.maxMicros()).isEqualTo(10_000);
+		assertThat(h.meanMicros()).isEqualTo(5000.5);
+		assertThat((double) h.percentileMicros(0.50)).isCloseTo(5_000, within(5_000 / 64.0));
+		assertThat((double) h.percentileMicros(0.99)).isCloseTo(9_900, within(9_900 / 64.0));
+		assertThat(h.percentileMicros(1.0)).isEqualTo(10_000);
+	}
+
+	@Test
+	void percentileIsClampedToObservedMax() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(1_000_001);
+
+		assertThat(h.percentileMicros(0.5)).isEqualTo(1_000_001);
+	}
+
+	@Test
+	void negativeSamplesCountAsZero() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(-5);
+
+		assertThat(h.count()).isEqualTo(1);
+		assertThat(h.minMicros()).isZero();
+		assertThat(h.percentileMicros(0.5)).isZero();
+	}
+}
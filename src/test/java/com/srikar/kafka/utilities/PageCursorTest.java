@@ -0,0 +1,76 @@
+package com.srikar.kafka.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+	private static String raw(String text) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void roundTrips() {
+		PageCursor cursor = new PageCursor("orders.v2-eu_1", Map.of(0, 12L, 7, 0L, 3, Long.MAX_VALUE));
+
+		PageCursor back = PageCursor.decode(cursor.encode());
+
+		assertThat(back.topic()).isEqualTo("orders.v2-eu_1");
+		assertThat(back.offsets()).containsExactly(
+				Map.entry(0, 12L), Map.entry(3, Long.MAX_VALUE), Map.entry(7, 0L));
+	}
+
+	@Test
+	void encodingIsUrlSafeAndIndependentOfMapOrder() {
+		Map<Integer, Long> a = new LinkedHashMap<>();
+		a.put(2, 5L);
+		a.put(1, 9L);
+		Map<Integer, Long> b = new LinkedHashMap<>();
+		b.put(1, 9L);
+		b.put(2, 5L);
+
+		String encoded = new PageCursor("t", a).encode();
+
+		assertThat(encoded).isEqualTo(new PageCursor("t", b).encode());
+		assertThat(encoded).doesNotContain("+", "/", "=");
+	}
+
+	@Test
+	void decodeToleratesSurroundingWhitespace() {
+		assertThat(PageCursor.decode("  " + raw("v1;t;0:1") + "\n").offsets()).containsEntry(0, 1L);
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		for (String bad : new String[]{
+				"not base64 !!",
+				raw("v2;t;0:1"),
+				raw("v1;t"),
+				raw("v1;;0:1"),
+				raw("v1;t;"),
+				raw("v1;t;0:1;extra"),
+				raw("v1;t;01"),
+				raw("v1;t;x:1"),
+				raw("v1;t;0:y"),
+				""}) {
+			assertThatThrownBy(() -> PageCursor.decode(bad))
+					.as(bad)
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessage("Invalid cursor");
+		}
+	}
+
+	@Test
+	void rejectsNullCursor() {
+		assertThatThrownBy(() -> PageCursor.decode(null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid cursor");
+	}
+}
@@ -0,0 +1,87 @@
+package com.srikar.kafka.utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProtobufWireDecoderTest {
+
+	// 1: varint 150, 2: "hi", 3: {1: 1}, 4: [1, 2], 5: fixed32 1
+	private static final int[] MESSAGE = {
+			0x08, 0x96, 0x01, 0x12, 0x02, 'h', 'i', 0x1A, 0x02, 0x08, 0x01,
+			0x20, 0x01, 0x20, 0x02, 0x2D, 0x01, 0x00, 0x00, 0x00};
+
+	private static byte[] bytes(int... v) {
+		byte[] out = new byte[v.length];
+		for (int i = 0; i < v.length; i++) out[i] = (byte) v[i];
+		return out;
+	}
+
+	private static byte[] framed(int[] header, int[] body) {
+		int[] all = new int[header.length + body.length];
+		System.arraycopy(header, 0, all, 0, header.length);
+		System.arraycopy(body, 0, all, header.length, body.length);
+		return bytes(all);
+	}
+
+	private static void assertMessage(JsonNode out) {
+		assertThat(out.get("1").asLong()).isEqualTo(150);
+		assertThat(out.get("2").asText()).isEqualTo("hi");
+		assertThat(out.get("3").get("1").asLong()).isEqualTo(1);
+		assertThat(out.get("4").isArray()).isTrue();
+		assertThat(out.get("4").get(0).asLong()).isEqualTo(1);
+		assertThat(out.get("4").get(1).asLong()).isEqualTo(2);
+		assertThat(out.get("5").asLong()).isEqualTo(1);
+	}
+
+	@Test
+	void decodesRawMessage() {
+		assertMessage(ProtobufWireDecoder.decode(bytes(MESSAGE)));
+	}
+
+	@Test
+	void skipsFramingWithDefaultMessageIndex() {
+		// magic 0, schema id 7, message-index path "0" (first message)
+		assertMessage(ProtobufWireDecoder.decode(framed(new int[]{0, 0, 0, 0, 7, 0x00}, MESSAGE)));
+	}
+
+	@Test
+	void skipsFramingWithExplicitMessageIndexes() {
+		// path of two indexes [1, 3]: zig-zag count 2, then the raw indexes
+		assertMessage(ProtobufWireDecoder.decode(framed(new int[]{0, 0, 0, 0, 7, 0x04, 0x01, 0x03}, MESSAGE)));
+	}
+
+	@Test
+	void fixed64IsUnsigned() {
+		JsonNode out = ProtobufWireDecoder.decode(bytes(0x09, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF));
+
+		assertThat(out.get("1").bigIntegerValue()).isEqualTo(new BigInteger("18446744073709551615"));
+	}
+
+	@Test
+	void nonTextNonMessageBytesAreBinary() throws Exception {
+		JsonNode out = ProtobufWireDecoder.decode(bytes(0x0A, 0x02, 0xFF, 0xFF));
+
+		assertThat(out.get("1").isBinary()).isTrue();
+		assertThat(out.get("1").binaryValue()).containsExactly(0xFF, 0xFF);
+	}
+
+	@Test
+	void rejectsGroupsTruncationAndFieldZero() {
+		assertThatThrownBy(() -> ProtobufWireDecoder.decode(bytes(0x0B)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("wire type");
+		assertThatThrownBy(() -> ProtobufWireDecoder.decode(bytes(0x08, 0x96)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ProtobufWireDecoder.decode(bytes(0x12, 0x05, 'h')))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("length");
+		assertThatThrownBy(() -> ProtobufWireDecoder.decode(bytes(0x00, 0x01), 0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("field number");
+	}
+}
@@ -0,0 +1,84 @@
+package com.srikar.kafka.utilities;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordFramesTest {
+
+	private static byte[] utf8(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] read(DataInputStream in) throws Exception {
+		int len = in.readInt();
+		return len < 0 ? null : in.readNBytes(len);
+	}
+
+	@Test
+	void recordFrameLayout() throws Exception {
+		RecordHeaders headers = new RecordHeaders();
+		headers.add(new RecordHeader("trace", utf8("abc")));
+		headers.add(new RecordHeader("empty", null));
+		ConsumerRecord<byte[], byte[]> r = new ConsumerRecord<>("t", 3, 42L, 1_700_000_000_000L,
+				TimestampType.CREATE_TIME, 1, 2, utf8("k"), new byte[]{(byte) 0xFF, 0}, headers, Optional.empty());
+
+		ByteArrayOutputStream buf = new ByteArrayOutputStream();
+		int written = RecordFrames.writeRecord(new DataOutputStream(buf), r);
+
+		assertThat(written).isEqualTo(buf.size());
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buf.toByteArray()));
+		assertThat(in.readByte()).isEqualTo(RecordFrames.RECORD);
+		assertThat(in.readInt()).isEqualTo(3);
+		assertThat(in.readLong()).isEqualTo(42L);
+		assertThat(in.readLong()).isEqualTo(1_700_000_000_000L);
+		assertThat(read(in)).isEqualTo(utf8("k"));
+		assertThat(read(in)).containsExactly(0xFF, 0);
+		assertThat(in.readShort()).isEqualTo((short) 2);
+		assertThat(in.readNBytes(in.readShort())).isEqualTo(utf8("trace"));
+		assertThat(read(in)).isEqualTo(utf8("abc"));
+		assertThat(in.readNBytes(in.readShort())).isEqualTo(utf8("empty"));
+		assertThat(read(in)).isNull();
+		assertThat(in.available()).isZero();
+	}
+
+	@Test
+	void nullKeyAndValueAreMinusOne() throws Exception {
+		ConsumerRecord<byte[], byte[]> r = new ConsumerRecord<>("t", 0, 0L, null, null);
+
+		ByteArrayOutputStream buf = new ByteArrayOutputStream();
+		int written = RecordFrames.writeRecord(new DataOutputStream(buf), r);
+
+		assertThat(written).isEqualTo(1 + 4 + 8 + 8 + 4 + 4 + 2).isEqualTo(buf.size());
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buf.toByteArray()));
+		in.skipNBytes(1 + 4 + 8 + 8);
+		assertThat(in.readInt()).isEqualTo(-1);
+		assertThat(in.readInt()).isEqualTo(-1);
+		assertThat(in.readShort()).isZero();
+	}
+
+	@Test
+	void summaryFrameLayout() throws Exception {
+		byte[] json = utf8("{\"records\":1}");
+
+		ByteArrayOutputStream buf = new ByteArrayOutputStream();
+		RecordFrames.writeSummary(new DataOutputStream(buf), json);
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buf.toByteArray()));
+		assertThat(in.readByte()).isEqualTo(RecordFrames.SUMMARY);
+		assertThat(read(in)).isEqualTo(json);
+		assertThat(in.available()).isZero();
+	}
+}